@@ -26,10 +26,10 @@ public class Main {
             for(String filename : args){
                 //System.out.println(filename);
 
+                bantamErrorHandler = new ErrorHandler();
                 //file may not be opened -> CompilationException
                 try {
                     // initialize scanner for each file
-                    bantamErrorHandler = new ErrorHandler();
                     bantamParser = new Parser(bantamErrorHandler);
                     currentProgram = bantamParser.parse(filename);
                     semanticAnalyzer = new SemanticAnalyzer(bantamErrorHandler);
@@ -53,6 +53,10 @@ public class Main {
                     }
                 } catch (CompilationException e) {
                     System.out.println(e);
+                    // the parser registers every syntax error it finds
+                    for (Error error : bantamErrorHandler.getErrorList()) {
+                        System.out.println(error);
+                    }
                 }
             }
         }else{
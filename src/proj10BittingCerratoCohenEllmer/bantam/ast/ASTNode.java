@@ -33,6 +33,12 @@ import proj10BittingCerratoCohenEllmer.bantam.visitor.Visitor;
  * The abstract <tt>ASTNode</tt> class represents a generic AST node.
  * It contains a line number (<tt>lineNumber</tt>).
  * <p/>
+ * A node built by the parser also knows the range of characters it was
+ * parsed from: from the start of its first token to the end of its last
+ * one.  A parenthesized expression's range takes in the parentheses.
+ * Nodes the parser makes up, such as the <tt>this</tt> of a dispatch
+ * without a reference, have no range.
+ * <p/>
  * <p/>
  * <p/>
  * <br /><br />
@@ -257,6 +263,24 @@ public abstract class ASTNode {
      */
     protected int lineNum;
 
+    /**
+     * The node this node is a child of, or null if it is the root or has not
+     * been put in a tree yet
+     */
+    private ASTNode parentNode;
+
+    /**
+     * The offset in the source of the first character of this AST node,
+     * or -1 if it is not known
+     */
+    protected int startOffset = -1;
+
+    /**
+     * The offset in the source just past the last character of this AST
+     * node, or -1 if it is not known
+     */
+    protected int endOffset = -1;
+
     /**
      * ASTNode constructor
      *
@@ -275,6 +299,99 @@ public abstract class ASTNode {
         return lineNum;
     }
 
+    /**
+     * Set the line number corresponding to this AST node, for a node
+     * that is kept while lines are added or removed above it
+     *
+     * @param lineNum the new line number
+     */
+    public void setLineNum(int lineNum) {
+        this.lineNum = lineNum;
+    }
+
+    /**
+     * Get the offset in the source of the first character of this AST node
+     *
+     * @return the offset, or -1 if it is not known
+     */
+    public int getStartOffset() {
+        return startOffset;
+    }
+
+    /**
+     * Get the offset in the source just past the last character of this
+     * AST node
+     *
+     * @return the offset, or -1 if it is not known
+     */
+    public int getEndOffset() {
+        return endOffset;
+    }
+
+    /**
+     * Set the characters of the source this AST node was parsed from
+     *
+     * @param startOffset the offset of the first character
+     * @param endOffset   the offset just past the last character
+     */
+    public void setRange(int startOffset, int endOffset) {
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+    }
+
+    /**
+     * Get the kind of this node
+     *
+     * @return one of the NodeKind constants
+     */
+    public abstract int getKind();
+
+    /**
+     * Get the number of children of this node, counting missing optional ones
+     *
+     * @return the number of children
+     */
+    public int getChildCount() {
+        return 0;
+    }
+
+    /**
+     * Get the index-th child of this node
+     *
+     * @param index the position of the child, in the order Visitor visits
+     *              the children
+     * @return the child, or null if it is a missing optional one
+     * @throws ArrayIndexOutOfBoundsException if the index is
+     *                                        too large or too small
+     */
+    public ASTNode getChild(int index) {
+        throw new ArrayIndexOutOfBoundsException(index);
+    }
+
+    /**
+     * Get the node this node is a child of
+     *
+     * @return the parent node, or null if this node is the root or has not
+     * been put in a tree yet
+     */
+    public ASTNode getParentNode() {
+        return parentNode;
+    }
+
+    /**
+     * Make this node the parent of a node, for subclasses to call on each
+     * child they are given
+     *
+     * @param child the child, or null
+     * @return the child
+     */
+    protected <T extends ASTNode> T adopt(T child) {
+        if (child != null) {
+            ((ASTNode) child).parentNode = this;
+        }
+        return child;
+    }
+
     /**
      * Visitor method
      *
@@ -67,7 +67,7 @@ public class AssignExpr extends Expr {
         super(lineNum);
         this.refName = refName;
         this.name = name;
-        this.expr = expr;
+        this.expr = adopt(expr);
     }
 
     /**
@@ -97,6 +97,42 @@ public class AssignExpr extends Expr {
         return expr;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.ASSIGN_EXPR
+     */
+    public int getKind() {
+        return NodeKind.ASSIGN_EXPR;
+    }
+
+    /**
+     * Get the number of children of this node, counting missing optional ones
+     *
+     * @return 1
+     */
+    public int getChildCount() {
+        return 1;
+    }
+
+    /**
+     * Get the index-th child of this node
+     *
+     * @param index the position of the child, in the order Visitor visits
+     *              the children
+     * @return the child, or null if it is a missing optional one
+     * @throws ArrayIndexOutOfBoundsException if the index is
+     *                                        too large or too small
+     */
+    public ASTNode getChild(int index) {
+        switch (index) {
+            case 0:
+                return expr;
+            default:
+                throw new ArrayIndexOutOfBoundsException(index);
+        }
+    }
+
     /**
      * Visitor method
      *
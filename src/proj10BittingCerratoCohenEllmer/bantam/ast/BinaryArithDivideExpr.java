@@ -78,6 +78,15 @@ public class BinaryArithDivideExpr extends BinaryArithExpr {
         return "int";
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.BINARY_ARITH_DIVIDE_EXPR
+     */
+    public int getKind() {
+        return NodeKind.BINARY_ARITH_DIVIDE_EXPR;
+    }
+
     /**
      * Visitor method
      *
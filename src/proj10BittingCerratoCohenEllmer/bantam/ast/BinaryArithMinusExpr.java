@@ -78,6 +78,15 @@ public class BinaryArithMinusExpr extends BinaryArithExpr {
         return "int";
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.BINARY_ARITH_MINUS_EXPR
+     */
+    public int getKind() {
+        return NodeKind.BINARY_ARITH_MINUS_EXPR;
+    }
+
     /**
      * Visitor method
      *
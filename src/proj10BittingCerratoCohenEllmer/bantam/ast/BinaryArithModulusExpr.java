@@ -78,6 +78,15 @@ public class BinaryArithModulusExpr extends BinaryArithExpr {
         return "int";
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.BINARY_ARITH_MODULUS_EXPR
+     */
+    public int getKind() {
+        return NodeKind.BINARY_ARITH_MODULUS_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -78,6 +78,15 @@ public class BinaryArithPlusExpr extends BinaryArithExpr {
         return "int";
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.BINARY_ARITH_PLUS_EXPR
+     */
+    public int getKind() {
+        return NodeKind.BINARY_ARITH_PLUS_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -78,6 +78,15 @@ public class BinaryArithTimesExpr extends BinaryArithExpr {
         return "int";
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.BINARY_ARITH_TIMES_EXPR
+     */
+    public int getKind() {
+        return NodeKind.BINARY_ARITH_TIMES_EXPR;
+    }
+
     /**
      * Visitor method
      *
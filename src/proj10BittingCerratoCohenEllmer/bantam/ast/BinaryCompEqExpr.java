@@ -77,6 +77,15 @@ public class BinaryCompEqExpr extends BinaryCompExpr {
         return null;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.BINARY_COMP_EQ_EXPR
+     */
+    public int getKind() {
+        return NodeKind.BINARY_COMP_EQ_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -77,6 +77,15 @@ public class BinaryCompGeqExpr extends BinaryCompExpr {
         return "int";
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.BINARY_COMP_GEQ_EXPR
+     */
+    public int getKind() {
+        return NodeKind.BINARY_COMP_GEQ_EXPR;
+    }
+
     /**
      * Visitor method
      *
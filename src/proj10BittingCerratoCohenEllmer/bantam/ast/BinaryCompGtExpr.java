@@ -77,6 +77,15 @@ public class BinaryCompGtExpr extends BinaryCompExpr {
         return "int";
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.BINARY_COMP_GT_EXPR
+     */
+    public int getKind() {
+        return NodeKind.BINARY_COMP_GT_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -77,6 +77,15 @@ public class BinaryCompLeqExpr extends BinaryCompExpr {
         return "int";
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.BINARY_COMP_LEQ_EXPR
+     */
+    public int getKind() {
+        return NodeKind.BINARY_COMP_LEQ_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -77,6 +77,15 @@ public class BinaryCompLtExpr extends BinaryCompExpr {
         return "int";
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.BINARY_COMP_LT_EXPR
+     */
+    public int getKind() {
+        return NodeKind.BINARY_COMP_LT_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -77,6 +77,15 @@ public class BinaryCompNeExpr extends BinaryCompExpr {
         return null;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.BINARY_COMP_NE_EXPR
+     */
+    public int getKind() {
+        return NodeKind.BINARY_COMP_NE_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -62,8 +62,8 @@ public abstract class BinaryExpr extends Expr {
      */
     public BinaryExpr(int lineNum, Expr leftExpr, Expr rightExpr) {
         super(lineNum);
-        this.leftExpr = leftExpr;
-        this.rightExpr = rightExpr;
+        this.leftExpr = adopt(leftExpr);
+        this.rightExpr = adopt(rightExpr);
     }
 
     /**
@@ -108,6 +108,35 @@ public abstract class BinaryExpr extends Expr {
      */
     abstract public String getOperandType();
 
+    /**
+     * Get the number of children of this node, counting missing optional ones
+     *
+     * @return 2
+     */
+    public int getChildCount() {
+        return 2;
+    }
+
+    /**
+     * Get the index-th child of this node
+     *
+     * @param index the position of the child, in the order Visitor visits
+     *              the children
+     * @return the child, or null if it is a missing optional one
+     * @throws ArrayIndexOutOfBoundsException if the index is
+     *                                        too large or too small
+     */
+    public ASTNode getChild(int index) {
+        switch (index) {
+            case 0:
+                return leftExpr;
+            case 1:
+                return rightExpr;
+            default:
+                throw new ArrayIndexOutOfBoundsException(index);
+        }
+    }
+
     /**
      * Visitor method
      *
@@ -78,6 +78,15 @@ public class BinaryLogicAndExpr extends BinaryLogicExpr {
         return "boolean";
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.BINARY_LOGIC_AND_EXPR
+     */
+    public int getKind() {
+        return NodeKind.BINARY_LOGIC_AND_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -78,6 +78,15 @@ public class BinaryLogicOrExpr extends BinaryLogicExpr {
         return "boolean";
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.BINARY_LOGIC_OR_EXPR
+     */
+    public int getKind() {
+        return NodeKind.BINARY_LOGIC_OR_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -50,7 +50,7 @@ public class BlockStmt extends Stmt {
      */
     public BlockStmt(int lineNum, StmtList stmtList) {
         super(lineNum);
-        this.stmtList = stmtList;
+        this.stmtList = adopt(stmtList);
     }
 
     /**
@@ -62,6 +62,42 @@ public class BlockStmt extends Stmt {
         return stmtList;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.BLOCK_STMT
+     */
+    public int getKind() {
+        return NodeKind.BLOCK_STMT;
+    }
+
+    /**
+     * Get the number of children of this node, counting missing optional ones
+     *
+     * @return 1
+     */
+    public int getChildCount() {
+        return 1;
+    }
+
+    /**
+     * Get the index-th child of this node
+     *
+     * @param index the position of the child, in the order Visitor visits
+     *              the children
+     * @return the child, or null if it is a missing optional one
+     * @throws ArrayIndexOutOfBoundsException if the index is
+     *                                        too large or too small
+     */
+    public ASTNode getChild(int index) {
+        switch (index) {
+            case 0:
+                return stmtList;
+            default:
+                throw new ArrayIndexOutOfBoundsException(index);
+        }
+    }
+
     /**
      * Visitor method
      *
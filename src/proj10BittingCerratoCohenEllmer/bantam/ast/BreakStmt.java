@@ -47,6 +47,15 @@ public class BreakStmt extends Stmt {
         super(lineNum);
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.BREAK_STMT
+     */
+    public int getKind() {
+        return NodeKind.BREAK_STMT;
+    }
+
     /**
      * Visitor method
      *
@@ -45,6 +45,15 @@ public class ClassList extends ListNode {
         super(lineNum);
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.CLASS_LIST
+     */
+    public int getKind() {
+        return NodeKind.CLASS_LIST;
+    }
+
     /**
      * Visitor method
      *
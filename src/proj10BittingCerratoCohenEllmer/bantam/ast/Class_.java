@@ -72,7 +72,7 @@ public class Class_ extends ASTNode {
         this.filename = filename;
         this.name = name;
         this.parent = parent;
-        this.memberList = memberList;
+        this.memberList = adopt(memberList);
     }
 
     /**
@@ -111,6 +111,42 @@ public class Class_ extends ASTNode {
         return memberList;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.CLASS
+     */
+    public int getKind() {
+        return NodeKind.CLASS;
+    }
+
+    /**
+     * Get the number of children of this node, counting missing optional ones
+     *
+     * @return 1
+     */
+    public int getChildCount() {
+        return 1;
+    }
+
+    /**
+     * Get the index-th child of this node
+     *
+     * @param index the position of the child, in the order Visitor visits
+     *              the children
+     * @return the child, or null if it is a missing optional one
+     * @throws ArrayIndexOutOfBoundsException if the index is
+     *                                        too large or too small
+     */
+    public ASTNode getChild(int index) {
+        switch (index) {
+            case 0:
+                return memberList;
+            default:
+                throw new ArrayIndexOutOfBoundsException(index);
+        }
+    }
+
     /**
      * Visitor method
      *
@@ -49,6 +49,15 @@ public class ConstBooleanExpr extends ConstExpr {
         super(lineNum, constant);
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.CONST_BOOLEAN_EXPR
+     */
+    public int getKind() {
+        return NodeKind.CONST_BOOLEAN_EXPR;
+    }
+
     /**
      * Visitor method
      *
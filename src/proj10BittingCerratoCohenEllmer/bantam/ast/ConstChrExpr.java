@@ -49,11 +49,25 @@ public class ConstChrExpr extends ConstExpr {
      * ConstIntExpr constructor
      *
      * @param lineNum  source line number corresponding to this AST node
-     * @param constant constant value (as a String)
+     * @param constant constant value (as a String), with or without the
+     *                 enclosing apostrophes
      */
     public ConstChrExpr(int lineNum, String constant) {
+        this(lineNum, constant, constant.length() == 3 && constant.charAt(0) == '\''
+                ? constant.charAt(1) : constant.charAt(0));
+    }
+
+    /**
+     * ConstChrExpr constructor for a constant whose value was already decoded
+     * by the scanner
+     *
+     * @param lineNum     source line number corresponding to this AST node
+     * @param constant    constant value (as a String)
+     * @param chrConstant the constant value represented as a char
+     */
+    public ConstChrExpr(int lineNum, String constant, char chrConstant) {
         super(lineNum, constant);
-        chrConstant = constant.charAt(0);
+        this.chrConstant = chrConstant;
     }
 
     /**
@@ -61,10 +75,19 @@ public class ConstChrExpr extends ConstExpr {
      *
      * @return the constant value
      */
-    public int getChrConstant() {
+    public char getChrConstant() {
         return chrConstant;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.CONST_CHR_EXPR
+     */
+    public int getKind() {
+        return NodeKind.CONST_CHR_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -52,8 +52,20 @@ public class ConstDblExpr extends ConstExpr {
      * @param constant constant value (as a String)
      */
     public ConstDblExpr(int lineNum, String constant) {
+        this(lineNum, constant, Double.parseDouble(constant));
+    }
+
+    /**
+     * ConstDblExpr constructor for a constant whose value was already decoded
+     * by the scanner
+     *
+     * @param lineNum  source line number corresponding to this AST node
+     * @param constant constant value (as a String)
+     * @param dblConst the constant value represented as a double
+     */
+    public ConstDblExpr(int lineNum, String constant, double dblConst) {
         super(lineNum, constant);
-        dblConst = Double.parseDouble(constant);
+        this.dblConst = dblConst;
     }
 
     /**
@@ -65,6 +77,15 @@ public class ConstDblExpr extends ConstExpr {
         return dblConst;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.CONST_DBL_EXPR
+     */
+    public int getKind() {
+        return NodeKind.CONST_DBL_EXPR;
+    }
+
     /**
      * Visitor method
      *
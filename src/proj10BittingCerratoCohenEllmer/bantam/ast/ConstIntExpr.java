@@ -52,8 +52,20 @@ public class ConstIntExpr extends ConstExpr {
      * @param constant constant value (as a String)
      */
     public ConstIntExpr(int lineNum, String constant) {
+        this(lineNum, constant, Integer.parseInt(constant));
+    }
+
+    /**
+     * ConstIntExpr constructor for a constant whose value was already decoded
+     * by the scanner
+     *
+     * @param lineNum     source line number corresponding to this AST node
+     * @param constant    constant value (as a String)
+     * @param intConstant the constant value represented as an int
+     */
+    public ConstIntExpr(int lineNum, String constant, int intConstant) {
         super(lineNum, constant);
-        intConstant = Integer.parseInt(constant);
+        this.intConstant = intConstant;
     }
 
     /**
@@ -65,6 +77,15 @@ public class ConstIntExpr extends ConstExpr {
         return intConstant;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.CONST_INT_EXPR
+     */
+    public int getKind() {
+        return NodeKind.CONST_INT_EXPR;
+    }
+
     /**
      * Visitor method
      *
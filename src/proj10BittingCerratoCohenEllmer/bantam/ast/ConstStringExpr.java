@@ -39,6 +39,12 @@ import proj10BittingCerratoCohenEllmer.bantam.visitor.Visitor;
  * @see ConstExpr
  */
 public class ConstStringExpr extends ConstExpr {
+    /**
+     * The value of the constant, without the quotes and with its escape
+     * sequences decoded
+     */
+    private String stringValue;
+
     /**
      * ConstStringExpr constructor
      *
@@ -49,6 +55,39 @@ public class ConstStringExpr extends ConstExpr {
         super(lineNum, constant);
     }
 
+    /**
+     * ConstStringExpr constructor for a constant whose value was already
+     * decoded by the scanner
+     *
+     * @param lineNum     source line number corresponding to this AST node
+     * @param constant    constant value (as a String)
+     * @param stringValue the value without the quotes and with its escape
+     *                    sequences decoded
+     */
+    public ConstStringExpr(int lineNum, String constant, String stringValue) {
+        super(lineNum, constant);
+        this.stringValue = stringValue;
+    }
+
+    /**
+     * Get the value of the constant, without the quotes and with its escape
+     * sequences decoded
+     *
+     * @return the decoded value, or null if the node was created without it
+     */
+    public String getStringValue() {
+        return stringValue;
+    }
+
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.CONST_STRING_EXPR
+     */
+    public int getKind() {
+        return NodeKind.CONST_STRING_EXPR;
+    }
+
     /**
      * Visitor method
      *
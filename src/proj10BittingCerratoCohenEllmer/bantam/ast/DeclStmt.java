@@ -65,7 +65,7 @@ public class DeclStmt extends Stmt {
         super(lineNum);
         this.type = null;
         this.name = name;
-        this.init = init;
+        this.init = adopt(init);
     }
 
     /**
@@ -97,6 +97,42 @@ public class DeclStmt extends Stmt {
         return init;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.DECL_STMT
+     */
+    public int getKind() {
+        return NodeKind.DECL_STMT;
+    }
+
+    /**
+     * Get the number of children of this node, counting missing optional ones
+     *
+     * @return 1
+     */
+    public int getChildCount() {
+        return 1;
+    }
+
+    /**
+     * Get the index-th child of this node
+     *
+     * @param index the position of the child, in the order Visitor visits
+     *              the children
+     * @return the child, or null if it is a missing optional one
+     * @throws ArrayIndexOutOfBoundsException if the index is
+     *                                        too large or too small
+     */
+    public ASTNode getChild(int index) {
+        switch (index) {
+            case 0:
+                return init;
+            default:
+                throw new ArrayIndexOutOfBoundsException(index);
+        }
+    }
+
     /**
      * Visitor method
      *
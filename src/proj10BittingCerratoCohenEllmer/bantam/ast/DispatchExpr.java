@@ -64,9 +64,9 @@ public class DispatchExpr extends Expr {
     public DispatchExpr(int lineNum, Expr refExpr,
                         String methodName, ExprList actualList) {
         super(lineNum);
-        this.refExpr = refExpr;
+        this.refExpr = adopt(refExpr);
         this.methodName = methodName;
-        this.actualList = actualList;
+        this.actualList = adopt(actualList);
     }
 
     /**
@@ -96,6 +96,44 @@ public class DispatchExpr extends Expr {
         return actualList;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.DISPATCH_EXPR
+     */
+    public int getKind() {
+        return NodeKind.DISPATCH_EXPR;
+    }
+
+    /**
+     * Get the number of children of this node, counting missing optional ones
+     *
+     * @return 2
+     */
+    public int getChildCount() {
+        return 2;
+    }
+
+    /**
+     * Get the index-th child of this node
+     *
+     * @param index the position of the child, in the order Visitor visits
+     *              the children
+     * @return the child, or null if it is a missing optional one
+     * @throws ArrayIndexOutOfBoundsException if the index is
+     *                                        too large or too small
+     */
+    public ASTNode getChild(int index) {
+        switch (index) {
+            case 0:
+                return refExpr;
+            case 1:
+                return actualList;
+            default:
+                throw new ArrayIndexOutOfBoundsException(index);
+        }
+    }
+
     /**
      * Visitor method
      *
@@ -0,0 +1,49 @@
+/*
+ * File: ErrorMember.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.ast;
+
+import proj10BittingCerratoCohenEllmer.bantam.visitor.Visitor;
+
+
+/**
+ * The <tt>ErrorMember</tt> class stands for a field or method declaration
+ * that had a syntax error outside of the method's body.  The parser puts
+ * it in place of the declaration when it goes on parsing after the error,
+ * so it only appears in an AST built from a program with syntax errors.
+ * It has no subcomponents.
+ *
+ * @see ASTNode
+ * @see Member
+ */
+public class ErrorMember extends Member {
+    /**
+     * ErrorMember constructor
+     *
+     * @param lineNum source line number where the declaration starts
+     */
+    public ErrorMember(int lineNum) {
+        super(lineNum);
+    }
+
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.ERROR_MEMBER
+     */
+    public int getKind() {
+        return NodeKind.ERROR_MEMBER;
+    }
+
+    /**
+     * Visitor method
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see Visitor
+     */
+    public Object accept(Visitor v) {
+        return v.visit(this);
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * File: ErrorStmt.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.ast;
+
+import proj10BittingCerratoCohenEllmer.bantam.visitor.Visitor;
+
+
+/**
+ * The <tt>ErrorStmt</tt> class stands for a statement that had a
+ * syntax error.  The parser puts it in place of the statement when it
+ * goes on parsing after the error, so it only appears in an AST built
+ * from a program with syntax errors.  It has no subcomponents.
+ *
+ * @see ASTNode
+ * @see Stmt
+ */
+public class ErrorStmt extends Stmt {
+    /**
+     * ErrorStmt constructor
+     *
+     * @param lineNum source line number where the statement starts
+     */
+    public ErrorStmt(int lineNum) {
+        super(lineNum);
+    }
+
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.ERROR_STMT
+     */
+    public int getKind() {
+        return NodeKind.ERROR_STMT;
+    }
+
+    /**
+     * Visitor method
+     *
+     * @param v bantam.visitor object
+     * @return result of visiting this node
+     * @see Visitor
+     */
+    public Object accept(Visitor v) {
+        return v.visit(this);
+    }
+}
@@ -44,6 +44,15 @@ public class ExprList extends ListNode {
         super(lineNum);
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.EXPR_LIST
+     */
+    public int getKind() {
+        return NodeKind.EXPR_LIST;
+    }
+
     /**
      * Visitor method
      *
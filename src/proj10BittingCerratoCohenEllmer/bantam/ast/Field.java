@@ -64,7 +64,7 @@ public class Field extends Member {
         super(lineNum);
         this.type = type;
         this.name = name;
-        this.init = init;
+        this.init = adopt(init);
     }
 
     /**
@@ -94,6 +94,42 @@ public class Field extends Member {
         return init;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.FIELD
+     */
+    public int getKind() {
+        return NodeKind.FIELD;
+    }
+
+    /**
+     * Get the number of children of this node, counting missing optional ones
+     *
+     * @return 1
+     */
+    public int getChildCount() {
+        return 1;
+    }
+
+    /**
+     * Get the index-th child of this node
+     *
+     * @param index the position of the child, in the order Visitor visits
+     *              the children
+     * @return the child, or null if it is a missing optional one
+     * @throws ArrayIndexOutOfBoundsException if the index is
+     *                                        too large or too small
+     */
+    public ASTNode getChild(int index) {
+        switch (index) {
+            case 0:
+                return init;
+            default:
+                throw new ArrayIndexOutOfBoundsException(index);
+        }
+    }
+
     /**
      * Visitor method
      *
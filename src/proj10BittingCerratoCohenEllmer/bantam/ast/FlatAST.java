@@ -0,0 +1,1156 @@
+/*
+ * File: FlatAST.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.ast;
+
+import proj10BittingCerratoCohenEllmer.bantam.visitor.TreeTraversal;
+import proj10BittingCerratoCohenEllmer.bantam.visitor.Visitor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * An AST kept in arrays of numbers instead of one object per node, for
+ * holding on to the trees of many files and for passes that go through every
+ * node.
+ * <p>
+ * The nodes are numbered in the order they appear in the source, parents
+ * before their children, so node 0 is the root and the nodes below node i are
+ * the ones from i + 1 up to getSubtreeEnd(i). For each node the arrays hold its
+ * kind (one of the NodeKind constants), line number, source range and parent,
+ * and the numbers of its children in the order Visitor visits them, with -1
+ * for a missing optional child such as the else part of an if statement. The
+ * names, types and constant spellings are kept once each in a table of
+ * strings. A node that holds one such string or number keeps it in an array
+ * with one number for each node, and a node that holds more keeps them
+ * together in another array, with one number for each node saying where.
+ * <p>
+ * A pass that only needs these can go through the nodes with a loop over
+ * their numbers. A Visitor runs over the nodes below any node after they are
+ * turned back into objects with inflate. A FlatAST holds what the parser
+ * produced; what later passes record in the nodes, such as the types of
+ * expressions, is not kept. toBytes writes the nodes in a compact form for
+ * keeping them in a file, and inflate reads them back as objects.
+ */
+public final class FlatAST {
+    private byte[] kinds = new byte[256];
+    private int[] lines = new int[256];
+    private int[] starts = new int[256];
+    private int[] ends = new int[256];
+    private int[] parents = new int[256];
+    /**
+     * the number just past the last node below each node
+     */
+    private int[] subtreeEnds = new int[256];
+    /**
+     * where the children of each node start in slots; those of node i end
+     * where those of node i + 1 start
+     */
+    private int[] childStarts = new int[257];
+    private int[] slots = new int[256];
+    /**
+     * the string position or number of each node that holds one, or where the
+     * ones of a node that holds more start in extras
+     */
+    private int[] data = new int[256];
+    private int[] extras = new int[256];
+    private String[] strings = new String[64];
+    private double[] doubles = new double[8];
+    private int size;
+    private int slotCount;
+    private int stringCount;
+    private int doubleCount;
+    private int extraCount;
+    /**
+     * A node being made with its children, which are made first. The frames
+     * are reused, so they hold numbers rather than the node itself.
+     */
+    private static final class Frame {
+        int kind;
+        int line;
+        int start;
+        int end;
+        // the strings or numbers held by the node, as kept in the arrays
+        int first;
+        int second;
+        int third;
+        /**
+         * the number of the node, or, while reading bytes, a bit for each of
+         * its children saying whether it is there; all of them for a list
+         */
+        int node;
+        int childCount;
+        /**
+         * the position of the next child to make
+         */
+        int next;
+        /**
+         * where the children of the node start in made
+         */
+        int base;
+    }
+
+    /**
+     * the number of strings and numbers held by the nodes of each kind; the
+     * name or spelling comes first, then the type, parent or reference name
+     * or value, then the file name of a class
+     */
+    private static final byte[] WIDTHS = new byte[NodeKind.COUNT];
+
+    static {
+        WIDTHS[NodeKind.CLASS] = 3;
+        WIDTHS[NodeKind.FIELD] = 2;
+        WIDTHS[NodeKind.METHOD] = 2;
+        WIDTHS[NodeKind.FORMAL] = 2;
+        WIDTHS[NodeKind.DECL_STMT] = 2;
+        WIDTHS[NodeKind.DISPATCH_EXPR] = 1;
+        WIDTHS[NodeKind.NEW_EXPR] = 1;
+        WIDTHS[NodeKind.INSTANCEOF_EXPR] = 1;
+        WIDTHS[NodeKind.CAST_EXPR] = 1;
+        WIDTHS[NodeKind.ASSIGN_EXPR] = 2;
+        WIDTHS[NodeKind.UNARY_INCR_EXPR] = 1;
+        WIDTHS[NodeKind.UNARY_DECR_EXPR] = 1;
+        WIDTHS[NodeKind.VAR_EXPR] = 1;
+        WIDTHS[NodeKind.CONST_INT_EXPR] = 2;
+        WIDTHS[NodeKind.CONST_BOOLEAN_EXPR] = 1;
+        WIDTHS[NodeKind.CONST_DBL_EXPR] = 2;
+        WIDTHS[NodeKind.CONST_CHR_EXPR] = 2;
+        WIDTHS[NodeKind.CONST_STRING_EXPR] = 2;
+    }
+
+    /**
+     * Stores the AST below the given node. Method bodies that were not parsed
+     * yet are parsed.
+     *
+     * @param root the node at the top of the AST, usually a Program
+     */
+    public FlatAST(ASTNode root) {
+        new Flattener().traverse(root);
+        kinds = Arrays.copyOf(kinds, size);
+        lines = Arrays.copyOf(lines, size);
+        starts = Arrays.copyOf(starts, size);
+        ends = Arrays.copyOf(ends, size);
+        parents = Arrays.copyOf(parents, size);
+        subtreeEnds = Arrays.copyOf(subtreeEnds, size);
+        childStarts = Arrays.copyOf(childStarts, size + 1);
+        childStarts[size] = slotCount;
+        slots = Arrays.copyOf(slots, slotCount);
+        data = Arrays.copyOf(data, size);
+        extras = Arrays.copyOf(extras, extraCount);
+        strings = Arrays.copyOf(strings, stringCount);
+        doubles = Arrays.copyOf(doubles, doubleCount);
+    }
+
+    /**
+     * @return the number of nodes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the kind of a node
+     *
+     * @param node the number of a node
+     * @return its kind, one of the NodeKind constants
+     */
+    public int getKind(int node) {
+        return kinds[node];
+    }
+
+    /**
+     * Get the line number of a node
+     *
+     * @param node the number of a node
+     * @return its line number
+     */
+    public int getLineNum(int node) {
+        return lines[node];
+    }
+
+    /**
+     * Get the offset of the first character of a node
+     *
+     * @param node the number of a node
+     * @return the offset, or -1 if it is not known
+     */
+    public int getStartOffset(int node) {
+        return starts[node];
+    }
+
+    /**
+     * Get the offset just past the last character of a node
+     *
+     * @param node the number of a node
+     * @return the offset, or -1 if it is not known
+     */
+    public int getEndOffset(int node) {
+        return ends[node];
+    }
+
+    /**
+     * Get the parent of a node
+     *
+     * @param node the number of a node
+     * @return the number of its parent, or -1 for the root
+     */
+    public int getParent(int node) {
+        return parents[node];
+    }
+
+    /**
+     * Get the end of the nodes below a node, for skipping over them
+     *
+     * @param node the number of a node
+     * @return the number just past that of the last node below it
+     */
+    public int getSubtreeEnd(int node) {
+        return subtreeEnds[node];
+    }
+
+    /**
+     * Get the number of children of a node, counting missing optional ones
+     *
+     * @param node the number of a node
+     * @return the number of its children
+     */
+    public int getChildCount(int node) {
+        return childStarts[node + 1] - childStarts[node];
+    }
+
+    /**
+     * Get a child of a node
+     *
+     * @param node  the number of a node
+     * @param index the position of the child, in the order Visitor visits
+     *              the children of the node
+     * @return the number of the child, or -1 if it is a missing optional one
+     */
+    public int getChild(int node, int index) {
+        if (index < 0 || index >= getChildCount(node)) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return slots[childStarts[node] + index];
+    }
+
+    /**
+     * Get the name of a class, member, formal, declared or assigned variable,
+     * variable expression or dispatched method
+     *
+     * @param node the number of a node
+     * @return the name, or null if the node has none
+     */
+    public String getName(int node) {
+        switch (kinds[node]) {
+            case NodeKind.CLASS:
+            case NodeKind.FIELD:
+            case NodeKind.METHOD:
+            case NodeKind.FORMAL:
+            case NodeKind.DECL_STMT:
+            case NodeKind.DISPATCH_EXPR:
+            case NodeKind.ASSIGN_EXPR:
+            case NodeKind.VAR_EXPR:
+                return string(field(node, 0));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Get the type of a field, formal, declared variable, cast, new or
+     * instanceof expression, or the return type of a method
+     *
+     * @param node the number of a node
+     * @return the type, or null if the node has none
+     */
+    public String getType(int node) {
+        switch (kinds[node]) {
+            case NodeKind.FIELD:
+            case NodeKind.METHOD:
+            case NodeKind.FORMAL:
+            case NodeKind.DECL_STMT:
+                return string(field(node, 1));
+            case NodeKind.NEW_EXPR:
+            case NodeKind.INSTANCEOF_EXPR:
+            case NodeKind.CAST_EXPR:
+                return string(field(node, 0));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Get the name of the parent of a class
+     *
+     * @param node the number of a Class_ node
+     * @return the name of its parent class, or null if it has none
+     */
+    public String getParentName(int node) {
+        return string(field(node, 1));
+    }
+
+    /**
+     * Get the name of the file a class was parsed from
+     *
+     * @param node the number of a Class_ node
+     * @return the file name
+     */
+    public String getFilename(int node) {
+        return string(field(node, 2));
+    }
+
+    /**
+     * Get the reference object name of an assignment
+     *
+     * @param node the number of an AssignExpr node
+     * @return the reference object name, or null if there is none
+     */
+    public String getRefName(int node) {
+        return string(field(node, 1));
+    }
+
+    /**
+     * Get the spelling of a constant
+     *
+     * @param node the number of a constant expression node
+     * @return the constant as it appears in the source
+     */
+    public String getConstant(int node) {
+        return string(field(node, 0));
+    }
+
+    /**
+     * Get the value of an int or char constant
+     *
+     * @param node the number of a ConstIntExpr or ConstChrExpr node
+     * @return the value
+     */
+    public int getIntValue(int node) {
+        return field(node, 1);
+    }
+
+    /**
+     * Get the value of a double constant
+     *
+     * @param node the number of a ConstDblExpr node
+     * @return the value
+     */
+    public double getDoubleValue(int node) {
+        return doubles[field(node, 1)];
+    }
+
+    /**
+     * Get the value of a string constant, without the quotes and with its
+     * escape sequences decoded
+     *
+     * @param node the number of a ConstStringExpr node
+     * @return the decoded value, or null if it was not decoded
+     */
+    public String getStringValue(int node) {
+        return string(field(node, 1));
+    }
+
+    /**
+     * Tells whether an increment or decrement follows its operand
+     *
+     * @param node the number of a UnaryIncrExpr or UnaryDecrExpr node
+     * @return true if it is postfix
+     */
+    public boolean isPostfix(int node) {
+        return field(node, 0) != 0;
+    }
+
+    // get one of the strings or numbers held by a node
+    private int field(int node, int field) {
+        return WIDTHS[kinds[node]] == 1 ? data[node] : extras[data[node] + field];
+    }
+
+    private String string(int index) {
+        return index < 0 ? null : strings[index];
+    }
+
+    /**
+     * Runs a visitor over the nodes below a node, after turning them back into
+     * objects
+     *
+     * @param node the number of a node
+     * @param v    the visitor
+     * @return the result of visiting the node
+     */
+    public Object accept(int node, Visitor v) {
+        return inflate(node).accept(v);
+    }
+
+    /**
+     * Turns the nodes below a node back into objects, with the same line
+     * numbers and ranges as the nodes they were stored from
+     *
+     * @param node the number of a node
+     * @return the node at the top of the new tree
+     */
+    public ASTNode inflate(int node) {
+        return new TreeMaker().makeTree(node);
+    }
+
+    /**
+     * Writes the nodes in the compact form read back by inflate: the table
+     * of strings and the doubles, then each node in order with its kind, its
+     * line and range as varints relative to the node before it, the strings
+     * and numbers it holds, and how many children it has and which of them
+     * are there. The children
+     * themselves follow, so the numbers of the nodes are not written.
+     *
+     * @return the bytes
+     */
+    public byte[] toBytes() {
+        ByteSink sink = new ByteSink(size * 6 + 64);
+        sink.varint(size);
+        sink.varint(strings.length);
+        for (String string : strings) {
+            byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+            sink.varint(utf8.length);
+            sink.bytes(utf8);
+        }
+        sink.varint(doubles.length);
+        for (double value : doubles) {
+            sink.fixed64(Double.doubleToRawLongBits(value));
+        }
+        int line = 0;
+        int start = 0;
+        for (int node = 0; node < size; node++) {
+            int kind = kinds[node];
+            sink.put((byte) kind);
+            sink.signed(lines[node] - line);
+            sink.signed(starts[node] - start);
+            sink.signed(ends[node] - starts[node]);
+            line = lines[node];
+            start = starts[node];
+            for (int field = 0; field < WIDTHS[kind]; field++) {
+                sink.signed(field(node, field));
+            }
+            int childCount = getChildCount(node);
+            if (isList(kind)) {
+                sink.varint(childCount);
+            } else {
+                // at most four children, one bit each for whether it is there,
+                // under a bit marking how many there are
+                int present = 1 << childCount;
+                for (int i = 0; i < childCount; i++) {
+                    if (slots[childStarts[node] + i] >= 0) {
+                        present |= 1 << i;
+                    }
+                }
+                sink.varint(present);
+            }
+        }
+        return sink.toByteArray();
+    }
+
+    /**
+     * Reads the nodes written by toBytes straight back into objects, with the
+     * same line numbers and ranges as the nodes they were written from
+     *
+     * @param bytes     the bytes, from their current position on
+     * @param names     gives the String to use for each name and type read,
+     *                  such as the one in a pool of names, or null to use them
+     *                  as they are read
+     * @param constants gives the String to use for the spelling and value of
+     *                  each constant read, or null to use them as they are read
+     * @return the node at the top of the tree
+     * @throws IllegalArgumentException if the bytes are not in that form
+     */
+    public static ASTNode inflate(ByteBuffer bytes, UnaryOperator<String> names,
+                                  UnaryOperator<String> constants) {
+        // only the strings and doubles are kept in the arrays
+        FlatAST tables = new FlatAST();
+        try {
+            int nodeCount = tables.readTables(bytes);
+            TreeMaker maker = tables.new TreeMaker(bytes, names, constants);
+            ASTNode root = maker.makeTree(0);
+            if (maker.readCount != nodeCount) {
+                throw new IllegalArgumentException("The bytes do not hold an AST");
+            }
+            return root;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("The bytes do not hold an AST", e);
+        }
+    }
+
+    // an empty FlatAST to read the strings and doubles into
+    private FlatAST() {
+    }
+
+    // read the strings and doubles, returning the number of nodes
+    private int readTables(ByteBuffer bytes) {
+        int nodeCount = varint(bytes);
+        strings = new String[varint(bytes)];
+        byte[] utf8 = new byte[64];
+        for (int i = 0; i < strings.length; i++) {
+            int length = varint(bytes);
+            if (length > utf8.length) {
+                utf8 = new byte[Math.max(length, utf8.length * 2)];
+            }
+            bytes.get(utf8, 0, length);
+            strings[i] = new String(utf8, 0, length, StandardCharsets.UTF_8);
+        }
+        doubles = new double[varint(bytes)];
+        for (int i = 0; i < doubles.length; i++) {
+            doubles[i] = Double.longBitsToDouble(bytes.getLong());
+        }
+        return nodeCount;
+    }
+
+    private static boolean isList(int kind) {
+        return kind == NodeKind.CLASS_LIST || kind == NodeKind.MEMBER_LIST
+                || kind == NodeKind.FORMAL_LIST || kind == NodeKind.STMT_LIST
+                || kind == NodeKind.EXPR_LIST;
+    }
+
+    private static int varint(ByteBuffer bytes) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = bytes.get();
+            value |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+            if (shift >= 28) {
+                throw new IllegalArgumentException("The bytes do not hold an AST");
+            }
+        }
+    }
+
+    // read a varint holding a signed number, zigzag coded so that small
+    // negative numbers take few bytes
+    private static int signed(ByteBuffer bytes) {
+        int value = varint(bytes);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * A growing array of bytes with varints written to it
+     */
+    private static class ByteSink {
+        private byte[] buffer;
+        private int length;
+
+        ByteSink(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        void varint(int value) {
+            ensure(5);
+            while ((value & ~0x7f) != 0) {
+                buffer[length++] = (byte) ((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            buffer[length++] = (byte) value;
+        }
+
+        void put(byte value) {
+            ensure(1);
+            buffer[length++] = value;
+        }
+
+        void signed(int value) {
+            varint((value << 1) ^ (value >> 31));
+        }
+
+        void fixed64(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[length++] = (byte) (value >>> shift);
+            }
+        }
+
+        void bytes(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+
+        private void ensure(int count) {
+            if (length + count > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + count));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+    }
+
+    /**
+     * Makes nodes from the arrays or from bytes written by toBytes, keeping
+     * what it needs while doing so to itself so that a FlatAST can be
+     * inflated by several threads at once
+     */
+    private class TreeMaker {
+        /**
+         * the bytes nodes are being read from, or null when making them from
+         * the arrays, and the line and start offset of the last node read
+         */
+        private ByteBuffer input;
+        private int previousLine;
+        private int previousStart;
+        /**
+         * while reading bytes, what gives the Strings to use for the names and
+         * types and for the constants, and those found so far for each string
+         * in the table, or null to use the strings as they are read
+         */
+        private UnaryOperator<String> canonicalNames;
+        private UnaryOperator<String> canonicalConstants;
+        private String[] names;
+        private String[] constants;
+        /**
+         * the nodes being made, from the top of the tree down to the one whose
+         * children are being made, and the children made so far
+         */
+        private Frame[] frames = new Frame[32];
+        private ASTNode[] made = new ASTNode[32];
+        private int madeCount;
+        /**
+         * the number of nodes read from input
+         */
+        private int readCount;
+
+        // make nodes from the arrays
+        TreeMaker() {
+        }
+
+        // read nodes from bytes, the strings and doubles of which are in the
+        // arrays
+        TreeMaker(ByteBuffer input, UnaryOperator<String> names,
+                  UnaryOperator<String> constants) {
+            this.input = input;
+            if (names != null) {
+                canonicalNames = names;
+                this.names = new String[strings.length];
+            }
+            if (constants != null) {
+                canonicalConstants = constants;
+                this.constants = new String[strings.length];
+            }
+        }
+
+        // the String to use for a name or type in the table of strings, the
+        // canonical one for it while reading bytes
+        private String name(int index) {
+            if (index < 0 || names == null) {
+                return string(index);
+            }
+            String name = names[index];
+            if (name == null) {
+                name = names[index] = canonicalNames.apply(strings[index]);
+            }
+            return name;
+        }
+
+        // the String to use for the spelling or value of a constant in the
+        // table of strings, the canonical one for it while reading bytes
+        private String constant(int index) {
+            if (index < 0 || constants == null) {
+                return string(index);
+            }
+            String constant = constants[index];
+            if (constant == null) {
+                constant = constants[index] = canonicalConstants.apply(strings[index]);
+            }
+            return constant;
+        }
+
+        // make the nodes below a node, each after its children, keeping the
+        // nodes on the way down in frames instead of on the call stack so that
+        // any depth of nesting can be made. While reading bytes, the root is
+        // the next node in input.
+        private ASTNode makeTree(int root) {
+            int top = 0;
+            open(top, root);
+            while (true) {
+                Frame frame = frames[top];
+                if (frame.next < frame.childCount) {
+                    int child = childNumber(frame, frame.next++);
+                    if (child < 0) {
+                        push(null);
+                    } else {
+                        open(++top, child);
+                    }
+                    continue;
+                }
+                ASTNode node = build(frame);
+                node.setRange(frame.start, frame.end);
+                madeCount = frame.base;
+                if (top == 0) {
+                    return node;
+                }
+                push(node);
+                top--;
+            }
+        }
+
+        // start making a node in the frame at the given depth, reading it from
+        // input while reading bytes
+        private void open(int depth, int node) {
+            if (depth == frames.length) {
+                frames = Arrays.copyOf(frames, depth * 2);
+            }
+            Frame frame = frames[depth];
+            if (frame == null) {
+                frame = frames[depth] = new Frame();
+            }
+            if (input != null) {
+                readNode(frame);
+            } else {
+                int kind = kinds[node];
+                int width = WIDTHS[kind];
+                frame.kind = kind;
+                frame.line = lines[node];
+                frame.start = starts[node];
+                frame.end = ends[node];
+                frame.first = width > 0 ? field(node, 0) : 0;
+                frame.second = width > 1 ? field(node, 1) : 0;
+                frame.third = width > 2 ? field(node, 2) : 0;
+                frame.node = node;
+                frame.childCount = getChildCount(node);
+            }
+            frame.next = 0;
+            frame.base = madeCount;
+        }
+
+        // the number of the index-th child of the node a frame makes, or -1 if
+        // it is missing. While reading bytes the children are not numbered, and
+        // 0 stands for one that is there.
+        private int childNumber(Frame frame, int index) {
+            if (input != null) {
+                return (frame.node & (1 << index)) != 0 ? 0 : -1;
+            }
+            return slots[childStarts[frame.node] + index];
+        }
+
+        private void push(ASTNode node) {
+            if (madeCount == made.length) {
+                made = Arrays.copyOf(made, madeCount * 2);
+            }
+            made[madeCount++] = node;
+        }
+
+        // make the node of a frame from its line number, the strings or numbers
+        // it holds and its children, which are in made
+        private ASTNode build(Frame frame) {
+            int line = frame.line;
+            int first = frame.first;
+            int second = frame.second;
+            int third = frame.third;
+            ASTNode result;
+            switch (frame.kind) {
+                case NodeKind.PROGRAM:
+                    result = new Program(line, (ClassList) child(frame, 0));
+                    break;
+                case NodeKind.CLASS_LIST:
+                    result = list(frame, new ClassList(line));
+                    break;
+                case NodeKind.CLASS:
+                    result = new Class_(line, string(third), name(first),
+                            name(second), (MemberList) child(frame, 0));
+                    break;
+                case NodeKind.MEMBER_LIST:
+                    result = list(frame, new MemberList(line));
+                    break;
+                case NodeKind.ERROR_MEMBER:
+                    result = new ErrorMember(line);
+                    break;
+                case NodeKind.FIELD:
+                    result = new Field(line, name(second), name(first),
+                            (Expr) child(frame, 0));
+                    break;
+                case NodeKind.METHOD:
+                    result = new Method(line, name(second), name(first),
+                            (FormalList) child(frame, 0), (StmtList) child(frame, 1));
+                    break;
+                case NodeKind.FORMAL_LIST:
+                    result = list(frame, new FormalList(line));
+                    break;
+                case NodeKind.FORMAL:
+                    result = new Formal(line, name(second), name(first));
+                    break;
+                case NodeKind.STMT_LIST:
+                    result = list(frame, new StmtList(line));
+                    break;
+                case NodeKind.DECL_STMT:
+                    DeclStmt declStmt = new DeclStmt(line, name(first),
+                            (Expr) child(frame, 0));
+                    declStmt.setType(name(second));
+                    result = declStmt;
+                    break;
+                case NodeKind.EXPR_STMT:
+                    result = new ExprStmt(line, (Expr) child(frame, 0));
+                    break;
+                case NodeKind.IF_STMT:
+                    result = new IfStmt(line, (Expr) child(frame, 0),
+                            (Stmt) child(frame, 1), (Stmt) child(frame, 2));
+                    break;
+                case NodeKind.WHILE_STMT:
+                    result = new WhileStmt(line, (Expr) child(frame, 0),
+                            (Stmt) child(frame, 1));
+                    break;
+                case NodeKind.FOR_STMT:
+                    result = new ForStmt(line, (Expr) child(frame, 0),
+                            (Expr) child(frame, 1), (Expr) child(frame, 2),
+                            (Stmt) child(frame, 3));
+                    break;
+                case NodeKind.BREAK_STMT:
+                    result = new BreakStmt(line);
+                    break;
+                case NodeKind.ERROR_STMT:
+                    result = new ErrorStmt(line);
+                    break;
+                case NodeKind.BLOCK_STMT:
+                    result = new BlockStmt(line, (StmtList) child(frame, 0));
+                    break;
+                case NodeKind.RETURN_STMT:
+                    result = new ReturnStmt(line, (Expr) child(frame, 0));
+                    break;
+                case NodeKind.EXPR_LIST:
+                    result = list(frame, new ExprList(line));
+                    break;
+                case NodeKind.DISPATCH_EXPR:
+                    result = new DispatchExpr(line, (Expr) child(frame, 0),
+                            name(first), (ExprList) child(frame, 1));
+                    break;
+                case NodeKind.NEW_EXPR:
+                    result = new NewExpr(line, name(first));
+                    break;
+                case NodeKind.INSTANCEOF_EXPR:
+                    result = new InstanceofExpr(line, (Expr) child(frame, 0),
+                            name(first));
+                    break;
+                case NodeKind.CAST_EXPR:
+                    result = new CastExpr(line, name(first), (Expr) child(frame, 0));
+                    break;
+                case NodeKind.ASSIGN_EXPR:
+                    result = new AssignExpr(line, name(second), name(first),
+                            (Expr) child(frame, 0));
+                    break;
+                case NodeKind.BINARY_COMP_EQ_EXPR:
+                    result = new BinaryCompEqExpr(line, (Expr) child(frame, 0),
+                            (Expr) child(frame, 1));
+                    break;
+                case NodeKind.BINARY_COMP_NE_EXPR:
+                    result = new BinaryCompNeExpr(line, (Expr) child(frame, 0),
+                            (Expr) child(frame, 1));
+                    break;
+                case NodeKind.BINARY_COMP_LT_EXPR:
+                    result = new BinaryCompLtExpr(line, (Expr) child(frame, 0),
+                            (Expr) child(frame, 1));
+                    break;
+                case NodeKind.BINARY_COMP_LEQ_EXPR:
+                    result = new BinaryCompLeqExpr(line, (Expr) child(frame, 0),
+                            (Expr) child(frame, 1));
+                    break;
+                case NodeKind.BINARY_COMP_GT_EXPR:
+                    result = new BinaryCompGtExpr(line, (Expr) child(frame, 0),
+                            (Expr) child(frame, 1));
+                    break;
+                case NodeKind.BINARY_COMP_GEQ_EXPR:
+                    result = new BinaryCompGeqExpr(line, (Expr) child(frame, 0),
+                            (Expr) child(frame, 1));
+                    break;
+                case NodeKind.BINARY_ARITH_PLUS_EXPR:
+                    result = new BinaryArithPlusExpr(line, (Expr) child(frame, 0),
+                            (Expr) child(frame, 1));
+                    break;
+                case NodeKind.BINARY_ARITH_MINUS_EXPR:
+                    result = new BinaryArithMinusExpr(line, (Expr) child(frame, 0),
+                            (Expr) child(frame, 1));
+                    break;
+                case NodeKind.BINARY_ARITH_TIMES_EXPR:
+                    result = new BinaryArithTimesExpr(line, (Expr) child(frame, 0),
+                            (Expr) child(frame, 1));
+                    break;
+                case NodeKind.BINARY_ARITH_DIVIDE_EXPR:
+                    result = new BinaryArithDivideExpr(line, (Expr) child(frame, 0),
+                            (Expr) child(frame, 1));
+                    break;
+                case NodeKind.BINARY_ARITH_MODULUS_EXPR:
+                    result = new BinaryArithModulusExpr(line, (Expr) child(frame, 0),
+                            (Expr) child(frame, 1));
+                    break;
+                case NodeKind.BINARY_LOGIC_AND_EXPR:
+                    result = new BinaryLogicAndExpr(line, (Expr) child(frame, 0),
+                            (Expr) child(frame, 1));
+                    break;
+                case NodeKind.BINARY_LOGIC_OR_EXPR:
+                    result = new BinaryLogicOrExpr(line, (Expr) child(frame, 0),
+                            (Expr) child(frame, 1));
+                    break;
+                case NodeKind.UNARY_NEG_EXPR:
+                    result = new UnaryNegExpr(line, (Expr) child(frame, 0));
+                    break;
+                case NodeKind.UNARY_NOT_EXPR:
+                    result = new UnaryNotExpr(line, (Expr) child(frame, 0));
+                    break;
+                case NodeKind.UNARY_INCR_EXPR:
+                    result = new UnaryIncrExpr(line, (Expr) child(frame, 0),
+                            first != 0);
+                    break;
+                case NodeKind.UNARY_DECR_EXPR:
+                    result = new UnaryDecrExpr(line, (Expr) child(frame, 0),
+                            first != 0);
+                    break;
+                case NodeKind.VAR_EXPR:
+                    result = new VarExpr(line, (Expr) child(frame, 0), name(first));
+                    break;
+                case NodeKind.CONST_INT_EXPR:
+                    result = new ConstIntExpr(line, constant(first),
+                            second);
+                    break;
+                case NodeKind.CONST_BOOLEAN_EXPR:
+                    result = new ConstBooleanExpr(line, constant(first));
+                    break;
+                case NodeKind.CONST_DBL_EXPR:
+                    result = new ConstDblExpr(line, constant(first),
+                            doubles[second]);
+                    break;
+                case NodeKind.CONST_CHR_EXPR:
+                    result = new ConstChrExpr(line, constant(first),
+                            (char) second);
+                    break;
+                default:
+                    result = new ConstStringExpr(line, constant(first),
+                            constant(second));
+                    break;
+            }
+            return result;
+        }
+
+        // get a child made for the node of a frame, null if it is missing
+        private ASTNode child(Frame frame, int index) {
+            return made[frame.base + index];
+        }
+
+        // put the children made for the node of a frame into a list
+        private ListNode list(Frame frame, ListNode list) {
+            for (int i = frame.base; i < frame.base + frame.childCount; i++) {
+                list.addElement(made[i]);
+            }
+            return list.freeze();
+        }
+
+        // read a node from input into a frame, without the nodes below it
+        private void readNode(Frame frame) {
+            ByteBuffer bytes = input;
+            readCount++;
+            int kind = bytes.get();
+            int line = previousLine + signed(bytes);
+            int start = previousStart + signed(bytes);
+            frame.kind = kind;
+            frame.line = line;
+            frame.start = start;
+            frame.end = start + signed(bytes);
+            previousLine = line;
+            previousStart = start;
+            int width = WIDTHS[kind];
+            frame.first = width > 0 ? signed(bytes) : 0;
+            frame.second = width > 1 ? signed(bytes) : 0;
+            frame.third = width > 2 ? signed(bytes) : 0;
+            // the number of children of a list, or a bit for each child of any
+            // other node under a bit marking how many there are
+            int children = varint(bytes);
+            if (isList(kind)) {
+                frame.node = -1;
+                frame.childCount = children;
+            } else {
+                frame.node = children;
+                frame.childCount = 31 - Integer.numberOfLeadingZeros(children);
+            }
+        }
+    }
+
+    /**
+     * Stores each node it enters after the one above it, and then the nodes
+     * below it, keeping the numbers of the nodes on the way down on a stack of
+     * its own
+     */
+    private class Flattener extends TreeTraversal {
+        private final HashMap<String, Integer> positions = new HashMap<>();
+        // the numbers of the nodes from the root down to the current node, and
+        // for each the slot its next child that is there goes in
+        private int[] path = new int[32];
+        private int[] nextSlots = new int[32];
+        private int top = -1;
+
+        protected boolean enter(ASTNode node) {
+            int parent = -1;
+            if (top >= 0) {
+                parent = path[top];
+                // the slots of missing children were already set to -1
+                while (slots[nextSlots[top]] < 0) {
+                    nextSlots[top]++;
+                }
+                slots[nextSlots[top]++] = size;
+            }
+            int kind = node.getKind();
+            int childCount = node.getChildCount();
+            int index = add(node, kind, parent, childCount);
+            for (int i = 0; i < childCount; i++) {
+                slots[childStarts[index] + i] = node.getChild(i) == null ? -1 : 0;
+            }
+            hold(index, kind, node);
+            if (++top == path.length) {
+                path = Arrays.copyOf(path, top * 2);
+                nextSlots = Arrays.copyOf(nextSlots, top * 2);
+            }
+            path[top] = index;
+            nextSlots[top] = childStarts[index];
+            return true;
+        }
+
+        protected void leave(ASTNode node) {
+            subtreeEnds[path[top--]] = size;
+        }
+
+        // store a node without its children, making room for them
+        private int add(ASTNode node, int kind, int parent, int childCount) {
+            if (size == kinds.length) {
+                int length = size * 2;
+                kinds = Arrays.copyOf(kinds, length);
+                lines = Arrays.copyOf(lines, length);
+                starts = Arrays.copyOf(starts, length);
+                ends = Arrays.copyOf(ends, length);
+                parents = Arrays.copyOf(parents, length);
+                subtreeEnds = Arrays.copyOf(subtreeEnds, length);
+                childStarts = Arrays.copyOf(childStarts, length + 1);
+                data = Arrays.copyOf(data, length);
+            }
+            if (slotCount + childCount > slots.length) {
+                slots = Arrays.copyOf(slots,
+                        Math.max(slots.length * 2, slotCount + childCount));
+            }
+            kinds[size] = (byte) kind;
+            lines[size] = node.getLineNum();
+            starts[size] = node.getStartOffset();
+            ends[size] = node.getEndOffset();
+            parents[size] = parent;
+            childStarts[size] = slotCount;
+            slotCount += childCount;
+            return size++;
+        }
+
+        // store the strings or numbers held by a node of a kind
+        private void hold(int index, int kind, ASTNode node) {
+            switch (kind) {
+                case NodeKind.CLASS:
+                    Class_ aClass = (Class_) node;
+                    hold(index, intern(aClass.getName()), intern(aClass.getParent()),
+                            intern(aClass.getFilename()));
+                    break;
+                case NodeKind.FIELD:
+                    Field field = (Field) node;
+                    hold(index, intern(field.getName()), intern(field.getType()));
+                    break;
+                case NodeKind.METHOD:
+                    Method method = (Method) node;
+                    hold(index, intern(method.getName()),
+                            intern(method.getReturnType()));
+                    break;
+                case NodeKind.FORMAL:
+                    Formal formal = (Formal) node;
+                    hold(index, intern(formal.getName()), intern(formal.getType()));
+                    break;
+                case NodeKind.DECL_STMT:
+                    DeclStmt declStmt = (DeclStmt) node;
+                    hold(index, intern(declStmt.getName()),
+                            intern(declStmt.getType()));
+                    break;
+                case NodeKind.DISPATCH_EXPR:
+                    hold(index, intern(((DispatchExpr) node).getMethodName()));
+                    break;
+                case NodeKind.NEW_EXPR:
+                    hold(index, intern(((NewExpr) node).getType()));
+                    break;
+                case NodeKind.INSTANCEOF_EXPR:
+                    hold(index, intern(((InstanceofExpr) node).getType()));
+                    break;
+                case NodeKind.CAST_EXPR:
+                    hold(index, intern(((CastExpr) node).getType()));
+                    break;
+                case NodeKind.ASSIGN_EXPR:
+                    AssignExpr assignExpr = (AssignExpr) node;
+                    hold(index, intern(assignExpr.getName()),
+                            intern(assignExpr.getRefName()));
+                    break;
+                case NodeKind.UNARY_INCR_EXPR:
+                case NodeKind.UNARY_DECR_EXPR:
+                    hold(index, ((UnaryExpr) node).isPostfix() ? 1 : 0);
+                    break;
+                case NodeKind.VAR_EXPR:
+                    hold(index, intern(((VarExpr) node).getName()));
+                    break;
+                case NodeKind.CONST_INT_EXPR:
+                    ConstIntExpr constIntExpr = (ConstIntExpr) node;
+                    hold(index, intern(constIntExpr.getConstant()),
+                            constIntExpr.getIntConstant());
+                    break;
+                case NodeKind.CONST_BOOLEAN_EXPR:
+                    hold(index, intern(((ConstBooleanExpr) node).getConstant()));
+                    break;
+                case NodeKind.CONST_DBL_EXPR:
+                    if (doubleCount == doubles.length) {
+                        doubles = Arrays.copyOf(doubles, doubleCount * 2);
+                    }
+                    ConstDblExpr constDblExpr = (ConstDblExpr) node;
+                    doubles[doubleCount] = constDblExpr.getDblConstant();
+                    hold(index, intern(constDblExpr.getConstant()), doubleCount++);
+                    break;
+                case NodeKind.CONST_CHR_EXPR:
+                    ConstChrExpr constChrExpr = (ConstChrExpr) node;
+                    hold(index, intern(constChrExpr.getConstant()),
+                            constChrExpr.getChrConstant());
+                    break;
+                case NodeKind.CONST_STRING_EXPR:
+                    ConstStringExpr constStringExpr = (ConstStringExpr) node;
+                    hold(index, intern(constStringExpr.getConstant()),
+                            intern(constStringExpr.getStringValue()));
+                    break;
+                default:
+                    // the node holds no strings or numbers
+                    break;
+            }
+        }
+
+        // store the strings or numbers held by a node
+        private void hold(int node, int... fields) {
+            if (fields.length == 1) {
+                data[node] = fields[0];
+                return;
+            }
+            if (extraCount + fields.length > extras.length) {
+                extras = Arrays.copyOf(extras, extras.length * 2);
+            }
+            data[node] = extraCount;
+            for (int field : fields) {
+                extras[extraCount++] = field;
+            }
+        }
+
+        private int intern(String string) {
+            if (string == null) {
+                return -1;
+            }
+            Integer position = positions.get(string);
+            if (position == null) {
+                if (stringCount == strings.length) {
+                    strings = Arrays.copyOf(strings, stringCount * 2);
+                }
+                strings[stringCount] = string;
+                position = stringCount++;
+                positions.put(string, position);
+            }
+            return position;
+        }
+    }
+}
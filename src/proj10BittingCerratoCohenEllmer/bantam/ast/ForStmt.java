@@ -72,10 +72,10 @@ public class ForStmt extends Stmt {
     public ForStmt(int lineNum, Expr initExpr, Expr predExpr,
                    Expr updateExpr, Stmt bodyStmt) {
         super(lineNum);
-        this.initExpr = initExpr;
-        this.predExpr = predExpr;
-        this.updateExpr = updateExpr;
-        this.bodyStmt = bodyStmt;
+        this.initExpr = adopt(initExpr);
+        this.predExpr = adopt(predExpr);
+        this.updateExpr = adopt(updateExpr);
+        this.bodyStmt = adopt(bodyStmt);
     }
 
     /**
@@ -117,6 +117,48 @@ public class ForStmt extends Stmt {
         return bodyStmt;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.FOR_STMT
+     */
+    public int getKind() {
+        return NodeKind.FOR_STMT;
+    }
+
+    /**
+     * Get the number of children of this node, counting missing optional ones
+     *
+     * @return 4
+     */
+    public int getChildCount() {
+        return 4;
+    }
+
+    /**
+     * Get the index-th child of this node
+     *
+     * @param index the position of the child, in the order Visitor visits
+     *              the children
+     * @return the child, or null if it is a missing optional one
+     * @throws ArrayIndexOutOfBoundsException if the index is
+     *                                        too large or too small
+     */
+    public ASTNode getChild(int index) {
+        switch (index) {
+            case 0:
+                return initExpr;
+            case 1:
+                return predExpr;
+            case 2:
+                return updateExpr;
+            case 3:
+                return bodyStmt;
+            default:
+                throw new ArrayIndexOutOfBoundsException(index);
+        }
+    }
+
     /**
      * Visitor method
      *
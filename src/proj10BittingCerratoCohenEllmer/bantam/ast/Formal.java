@@ -77,6 +77,15 @@ public class Formal extends ASTNode {
         return name;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.FORMAL
+     */
+    public int getKind() {
+        return NodeKind.FORMAL;
+    }
+
     /**
      * Visitor method
      *
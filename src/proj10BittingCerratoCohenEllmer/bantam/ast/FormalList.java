@@ -44,6 +44,15 @@ public class FormalList extends ListNode {
         super(lineNum);
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.FORMAL_LIST
+     */
+    public int getKind() {
+        return NodeKind.FORMAL_LIST;
+    }
+
     /**
      * Visitor method
      *
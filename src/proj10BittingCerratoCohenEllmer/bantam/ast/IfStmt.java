@@ -64,9 +64,9 @@ public class IfStmt extends Stmt {
      */
     public IfStmt(int lineNum, Expr predExpr, Stmt thenStmt, Stmt elseStmt) {
         super(lineNum);
-        this.predExpr = predExpr;
-        this.thenStmt = thenStmt;
-        this.elseStmt = elseStmt;
+        this.predExpr = adopt(predExpr);
+        this.thenStmt = adopt(thenStmt);
+        this.elseStmt = adopt(elseStmt);
     }
 
     /**
@@ -93,7 +93,7 @@ public class IfStmt extends Stmt {
      * @param elseStmt the Stmt forming the else part of the if statement.
      */
     public void setElseStmt(Stmt elseStmt) {
-        this.elseStmt = elseStmt;
+        this.elseStmt = adopt(elseStmt);
     }
 
     /**
@@ -105,6 +105,46 @@ public class IfStmt extends Stmt {
         return elseStmt;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.IF_STMT
+     */
+    public int getKind() {
+        return NodeKind.IF_STMT;
+    }
+
+    /**
+     * Get the number of children of this node, counting missing optional ones
+     *
+     * @return 3
+     */
+    public int getChildCount() {
+        return 3;
+    }
+
+    /**
+     * Get the index-th child of this node
+     *
+     * @param index the position of the child, in the order Visitor visits
+     *              the children
+     * @return the child, or null if it is a missing optional one
+     * @throws ArrayIndexOutOfBoundsException if the index is
+     *                                        too large or too small
+     */
+    public ASTNode getChild(int index) {
+        switch (index) {
+            case 0:
+                return predExpr;
+            case 1:
+                return thenStmt;
+            case 2:
+                return elseStmt;
+            default:
+                throw new ArrayIndexOutOfBoundsException(index);
+        }
+    }
+
     /**
      * Visitor method
      *
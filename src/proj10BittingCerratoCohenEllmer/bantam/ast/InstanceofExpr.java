@@ -63,7 +63,7 @@ public class InstanceofExpr extends Expr {
      */
     public InstanceofExpr(int lineNum, Expr expr, String type) {
         super(lineNum);
-        this.expr = expr;
+        this.expr = adopt(expr);
         this.type = type;
     }
 
@@ -107,6 +107,42 @@ public class InstanceofExpr extends Expr {
         this.upcheck = upcheck;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.INSTANCEOF_EXPR
+     */
+    public int getKind() {
+        return NodeKind.INSTANCEOF_EXPR;
+    }
+
+    /**
+     * Get the number of children of this node, counting missing optional ones
+     *
+     * @return 1
+     */
+    public int getChildCount() {
+        return 1;
+    }
+
+    /**
+     * Get the index-th child of this node
+     *
+     * @param index the position of the child, in the order Visitor visits
+     *              the children
+     * @return the child, or null if it is a missing optional one
+     * @throws ArrayIndexOutOfBoundsException if the index is
+     *                                        too large or too small
+     */
+    public ASTNode getChild(int index) {
+        switch (index) {
+            case 0:
+                return expr;
+            default:
+                throw new ArrayIndexOutOfBoundsException(index);
+        }
+    }
+
     /**
      * Visitor method
      *
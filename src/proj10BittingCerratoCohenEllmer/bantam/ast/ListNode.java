@@ -34,22 +34,45 @@ package proj10BittingCerratoCohenEllmer.bantam.ast;
 
 import proj10BittingCerratoCohenEllmer.bantam.visitor.Visitor;
 
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.Vector;
+import java.util.NoSuchElementException;
 
 /**
  * The abstract <tt>ListNode</tt> class represents a generic list of AST
  * nodes.  It contains a line number (<tt>lineNum</tt>) and a list
  * (<tt>listElements</tt>).
+ * <p>
+ * The elements are kept in an array that grows as they are added. Once the
+ * list is complete it can be frozen, which cuts the array down to the
+ * number of elements and keeps any more from being added. Passes that go
+ * through the elements on every visit can use getSize and get instead of an
+ * iterator.
  *
  * @see ASTNode
  */
 public abstract class ListNode extends ASTNode
         implements Iterable<ASTNode> {
     /**
-     * List of ASTNode elements
+     * shared by all lists without elements
      */
-    private Vector<ASTNode> listElements;
+    private static final ASTNode[] EMPTY = new ASTNode[0];
+
+    /**
+     * List of ASTNode elements, followed by room for more unless the list
+     * is frozen
+     */
+    private ASTNode[] listElements = EMPTY;
+
+    /**
+     * The number of elements
+     */
+    private int size;
+
+    /**
+     * Whether elements can no longer be added
+     */
+    private boolean frozen;
 
     /**
      * ListNode constructor
@@ -58,7 +81,6 @@ public abstract class ListNode extends ASTNode
      */
     protected ListNode(int lineNum) {
         super(lineNum);
-        listElements = new Vector<ASTNode>();
     }
 
     /**
@@ -66,19 +88,62 @@ public abstract class ListNode extends ASTNode
      *
      * @param node element to add
      * @return the updated list
+     * @throws IllegalStateException if the list is frozen
      */
     public ListNode addElement(ASTNode node) {
-        listElements.add(node);
+        if (frozen) {
+            throw new IllegalStateException("The list is frozen");
+        }
+        if (size == listElements.length) {
+            listElements = Arrays.copyOf(listElements, Math.max(2, size * 2));
+        }
+        listElements[size++] = adopt(node);
+        return this;
+    }
+
+    /**
+     * Cut the list down to its elements and keep any more from being added.
+     * Elements can still be replaced with set.
+     *
+     * @return the list
+     */
+    public ListNode freeze() {
+        if (!frozen) {
+            listElements = size == 0 ? EMPTY : Arrays.copyOf(listElements, size);
+            frozen = true;
+        }
         return this;
     }
 
+    /**
+     * Tells whether the list is frozen
+     *
+     * @return true if elements can no longer be added
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
     /**
      * Returns an iterator for this list
      *
      * @return iterator for this list
      */
     public Iterator<ASTNode> iterator() {
-        return listElements.iterator();
+        return new Iterator<ASTNode>() {
+            private int next = 0;
+
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            public ASTNode next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return listElements[next++];
+            }
+        };
     }
 
     /**
@@ -87,7 +152,7 @@ public abstract class ListNode extends ASTNode
      * @return list size
      */
     public int getSize() {
-        return listElements.size();
+        return size;
     }
 
     /**
@@ -98,7 +163,46 @@ public abstract class ListNode extends ASTNode
      *                                                  too large or too small
      */
     public ASTNode get(int index) {
-        return listElements.get(index);
+        if (index >= size) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return listElements[index];
+    }
+
+    /**
+     * Replace the index-th element
+     *
+     * @param index the index of the element to replace
+     * @param node  the element to put in its place
+     * @throws ArrayIndexOutOfBoundsException if the index is
+     *                                                  too large or too small
+     */
+    public void set(int index, ASTNode node) {
+        if (index >= size) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        listElements[index] = adopt(node);
+    }
+
+    /**
+     * Get the number of children of this node
+     *
+     * @return the list size
+     */
+    public int getChildCount() {
+        return size;
+    }
+
+    /**
+     * Get the index-th child of this node
+     *
+     * @param index the index of the element
+     * @return index-th element
+     * @throws ArrayIndexOutOfBoundsException if the index is
+     *                                        too large or too small
+     */
+    public ASTNode getChild(int index) {
+        return get(index);
     }
 
     /**
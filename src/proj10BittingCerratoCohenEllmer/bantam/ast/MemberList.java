@@ -45,6 +45,15 @@ public class MemberList extends ListNode {
         super(lineNum);
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.MEMBER_LIST
+     */
+    public int getKind() {
+        return NodeKind.MEMBER_LIST;
+    }
+
     /**
      * Visitor method
      *
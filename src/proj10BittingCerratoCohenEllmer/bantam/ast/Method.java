@@ -28,6 +28,8 @@ package proj10BittingCerratoCohenEllmer.bantam.ast;
 
 import proj10BittingCerratoCohenEllmer.bantam.visitor.Visitor;
 
+import java.util.function.Supplier;
+
 /**
  * The <tt>Method</tt> class represents a method declaration within
  * a class declaration.  It contains the name of the method (<tt>name</tt>),
@@ -58,6 +60,13 @@ public class Method extends Member {
      */
     protected StmtList stmtList;
 
+    /**
+     * Parses the method body the first time it is asked for, when the body
+     * was not parsed along with the declaration (null once it has been, and
+     * rethrowing what parsing it threw if that failed)
+     */
+    private Supplier<StmtList> body;
+
     /**
      * Method constructor
      *
@@ -72,8 +81,25 @@ public class Method extends Member {
         super(lineNum);
         this.returnType = returnType;
         this.name = name;
-        this.formalList = formalList;
-        this.stmtList = stmtList;
+        this.formalList = adopt(formalList);
+        this.stmtList = adopt(stmtList);
+    }
+
+    /**
+     * Method constructor for a method whose body is parsed the first time it
+     * is asked for
+     *
+     * @param lineNum    source line number corresponding to this AST node
+     * @param returnType the return type of this method
+     * @param name       the name of this method
+     * @param formalList a list of formal parameters
+     * @param body       parses the method body and returns its list of
+     *                   statements
+     */
+    public Method(int lineNum, String returnType, String name,
+                  FormalList formalList, Supplier<StmtList> body) {
+        this(lineNum, returnType, name, formalList, (StmtList) null);
+        this.body = body;
     }
 
     /**
@@ -104,14 +130,68 @@ public class Method extends Member {
     }
 
     /**
-     * Get list of statements from method body
+     * Get list of statements from method body, parsing the body first if
+     * that was put off
      *
      * @return list of statements
+     * @throws RuntimeException whatever parsing the body threw, the first time
+     *                          and every time after, without parsing it again
      */
     public StmtList getStmtList() {
+        if (body != null) {
+            try {
+                stmtList = adopt(body.get());
+                body = null;
+            } catch (RuntimeException e) {
+                // its errors are registered once, so it is not parsed again
+                body = () -> {
+                    throw e;
+                };
+                throw e;
+            }
+        }
         return stmtList;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.METHOD
+     */
+    public int getKind() {
+        return NodeKind.METHOD;
+    }
+
+    /**
+     * Get the number of children of this node, counting missing optional ones
+     *
+     * @return 2
+     */
+    public int getChildCount() {
+        return 2;
+    }
+
+    /**
+     * Get the index-th child of this node, parsing the body first if
+     * that was put off
+     *
+     * @param index the position of the child, in the order Visitor visits
+     *              the children
+     * @return the child, or null if it is a missing optional one
+     * @throws ArrayIndexOutOfBoundsException if the index is
+     *                                        too large or too small
+     */
+    public ASTNode getChild(int index) {
+        switch (index) {
+            case 0:
+                return formalList;
+            case 1:
+                return getStmtList();
+            default:
+                throw new ArrayIndexOutOfBoundsException(index);
+        }
+    }
+
     /**
      * Visitor method
      *
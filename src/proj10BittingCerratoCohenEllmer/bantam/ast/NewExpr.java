@@ -63,6 +63,15 @@ public class NewExpr extends Expr {
         return type;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.NEW_EXPR
+     */
+    public int getKind() {
+        return NodeKind.NEW_EXPR;
+    }
+
     /**
      * Visitor method
      *
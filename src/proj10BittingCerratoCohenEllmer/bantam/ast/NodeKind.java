@@ -0,0 +1,94 @@
+/*
+ * File: NodeKind.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.ast;
+
+/**
+ * The kinds of AST nodes, one for each class of node that can appear in a
+ * tree, as small integers that can be stored in arrays and switched on.
+ */
+public final class NodeKind {
+    public static final int PROGRAM = 0;
+    public static final int CLASS_LIST = 1;
+    public static final int CLASS = 2;
+    public static final int MEMBER_LIST = 3;
+    public static final int ERROR_MEMBER = 4;
+    public static final int FIELD = 5;
+    public static final int METHOD = 6;
+    public static final int FORMAL_LIST = 7;
+    public static final int FORMAL = 8;
+    public static final int STMT_LIST = 9;
+    public static final int DECL_STMT = 10;
+    public static final int EXPR_STMT = 11;
+    public static final int IF_STMT = 12;
+    public static final int WHILE_STMT = 13;
+    public static final int FOR_STMT = 14;
+    public static final int BREAK_STMT = 15;
+    public static final int ERROR_STMT = 16;
+    public static final int BLOCK_STMT = 17;
+    public static final int RETURN_STMT = 18;
+    public static final int EXPR_LIST = 19;
+    public static final int DISPATCH_EXPR = 20;
+    public static final int NEW_EXPR = 21;
+    public static final int INSTANCEOF_EXPR = 22;
+    public static final int CAST_EXPR = 23;
+    public static final int ASSIGN_EXPR = 24;
+    public static final int BINARY_COMP_EQ_EXPR = 25;
+    public static final int BINARY_COMP_NE_EXPR = 26;
+    public static final int BINARY_COMP_LT_EXPR = 27;
+    public static final int BINARY_COMP_LEQ_EXPR = 28;
+    public static final int BINARY_COMP_GT_EXPR = 29;
+    public static final int BINARY_COMP_GEQ_EXPR = 30;
+    public static final int BINARY_ARITH_PLUS_EXPR = 31;
+    public static final int BINARY_ARITH_MINUS_EXPR = 32;
+    public static final int BINARY_ARITH_TIMES_EXPR = 33;
+    public static final int BINARY_ARITH_DIVIDE_EXPR = 34;
+    public static final int BINARY_ARITH_MODULUS_EXPR = 35;
+    public static final int BINARY_LOGIC_AND_EXPR = 36;
+    public static final int BINARY_LOGIC_OR_EXPR = 37;
+    public static final int UNARY_NEG_EXPR = 38;
+    public static final int UNARY_NOT_EXPR = 39;
+    public static final int UNARY_INCR_EXPR = 40;
+    public static final int UNARY_DECR_EXPR = 41;
+    public static final int VAR_EXPR = 42;
+    public static final int CONST_INT_EXPR = 43;
+    public static final int CONST_BOOLEAN_EXPR = 44;
+    public static final int CONST_DBL_EXPR = 45;
+    public static final int CONST_CHR_EXPR = 46;
+    public static final int CONST_STRING_EXPR = 47;
+
+    /**
+     * the number of kinds
+     */
+    public static final int COUNT = 48;
+
+    private static final String[] NAMES = {
+            "Program", "ClassList", "Class_", "MemberList", "ErrorMember",
+            "Field", "Method", "FormalList", "Formal", "StmtList", "DeclStmt",
+            "ExprStmt", "IfStmt", "WhileStmt", "ForStmt", "BreakStmt",
+            "ErrorStmt", "BlockStmt", "ReturnStmt", "ExprList", "DispatchExpr",
+            "NewExpr", "InstanceofExpr", "CastExpr", "AssignExpr",
+            "BinaryCompEqExpr", "BinaryCompNeExpr", "BinaryCompLtExpr",
+            "BinaryCompLeqExpr", "BinaryCompGtExpr", "BinaryCompGeqExpr",
+            "BinaryArithPlusExpr", "BinaryArithMinusExpr",
+            "BinaryArithTimesExpr", "BinaryArithDivideExpr",
+            "BinaryArithModulusExpr", "BinaryLogicAndExpr",
+            "BinaryLogicOrExpr", "UnaryNegExpr", "UnaryNotExpr",
+            "UnaryIncrExpr", "UnaryDecrExpr", "VarExpr", "ConstIntExpr",
+            "ConstBooleanExpr", "ConstDblExpr", "ConstChrExpr",
+            "ConstStringExpr"};
+
+    private NodeKind() {
+    }
+
+    /**
+     * Gets the name of the class of nodes of a kind
+     *
+     * @param kind a kind
+     * @return the simple name of the class of the nodes of that kind
+     */
+    public static String getName(int kind) {
+        return NAMES[kind];
+    }
+}
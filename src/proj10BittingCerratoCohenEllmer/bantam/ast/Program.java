@@ -50,7 +50,7 @@ public class Program extends ASTNode {
      */
     public Program(int lineNum, ClassList classList) {
         super(lineNum);
-        this.classList = classList;
+        this.classList = adopt(classList);
     }
 
     /**
@@ -62,6 +62,42 @@ public class Program extends ASTNode {
         return classList;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.PROGRAM
+     */
+    public int getKind() {
+        return NodeKind.PROGRAM;
+    }
+
+    /**
+     * Get the number of children of this node, counting missing optional ones
+     *
+     * @return 1
+     */
+    public int getChildCount() {
+        return 1;
+    }
+
+    /**
+     * Get the index-th child of this node
+     *
+     * @param index the position of the child, in the order Visitor visits
+     *              the children
+     * @return the child, or null if it is a missing optional one
+     * @throws ArrayIndexOutOfBoundsException if the index is
+     *                                        too large or too small
+     */
+    public ASTNode getChild(int index) {
+        switch (index) {
+            case 0:
+                return classList;
+            default:
+                throw new ArrayIndexOutOfBoundsException(index);
+        }
+    }
+
     /**
      * Visitor method
      *
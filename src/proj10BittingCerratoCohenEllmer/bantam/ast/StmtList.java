@@ -45,6 +45,15 @@ public class StmtList extends ListNode {
         super(lineNum);
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.STMT_LIST
+     */
+    public int getKind() {
+        return NodeKind.STMT_LIST;
+    }
+
     /**
      * Visitor method
      *
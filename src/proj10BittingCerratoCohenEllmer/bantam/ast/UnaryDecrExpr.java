@@ -92,6 +92,15 @@ public class UnaryDecrExpr extends UnaryExpr {
         return isPostfix;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.UNARY_DECR_EXPR
+     */
+    public int getKind() {
+        return NodeKind.UNARY_DECR_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -55,7 +55,7 @@ public abstract class UnaryExpr extends Expr {
      */
     public UnaryExpr(int lineNum, Expr expr) {
         super(lineNum);
-        this.expr = expr;
+        this.expr = adopt(expr);
     }
 
     /**
@@ -98,6 +98,33 @@ public abstract class UnaryExpr extends Expr {
      */
     abstract public boolean isPostfix();
 
+    /**
+     * Get the number of children of this node, counting missing optional ones
+     *
+     * @return 1
+     */
+    public int getChildCount() {
+        return 1;
+    }
+
+    /**
+     * Get the index-th child of this node
+     *
+     * @param index the position of the child, in the order Visitor visits
+     *              the children
+     * @return the child, or null if it is a missing optional one
+     * @throws ArrayIndexOutOfBoundsException if the index is
+     *                                        too large or too small
+     */
+    public ASTNode getChild(int index) {
+        switch (index) {
+            case 0:
+                return expr;
+            default:
+                throw new ArrayIndexOutOfBoundsException(index);
+        }
+    }
+
     /**
      * Visitor method
      *
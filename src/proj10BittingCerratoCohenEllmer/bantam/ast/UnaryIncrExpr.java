@@ -92,6 +92,15 @@ public class UnaryIncrExpr extends UnaryExpr {
         return isPostfix;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.UNARY_INCR_EXPR
+     */
+    public int getKind() {
+        return NodeKind.UNARY_INCR_EXPR;
+    }
+
     /**
      * Visitor method
      *
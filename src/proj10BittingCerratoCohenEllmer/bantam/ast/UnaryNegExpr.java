@@ -85,6 +85,15 @@ public class UnaryNegExpr extends UnaryExpr {
         return false;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.UNARY_NEG_EXPR
+     */
+    public int getKind() {
+        return NodeKind.UNARY_NEG_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -85,6 +85,15 @@ public class UnaryNotExpr extends UnaryExpr {
         return false;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.UNARY_NOT_EXPR
+     */
+    public int getKind() {
+        return NodeKind.UNARY_NOT_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -62,7 +62,7 @@ public class VarExpr extends Expr {
      */
     public VarExpr(int lineNum, Expr ref, String name) {
         super(lineNum);
-        this.ref = ref;
+        this.ref = adopt(ref);
         this.name = name;
     }
 
@@ -85,6 +85,42 @@ public class VarExpr extends Expr {
         return name;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.VAR_EXPR
+     */
+    public int getKind() {
+        return NodeKind.VAR_EXPR;
+    }
+
+    /**
+     * Get the number of children of this node, counting missing optional ones
+     *
+     * @return 1
+     */
+    public int getChildCount() {
+        return 1;
+    }
+
+    /**
+     * Get the index-th child of this node
+     *
+     * @param index the position of the child, in the order Visitor visits
+     *              the children
+     * @return the child, or null if it is a missing optional one
+     * @throws ArrayIndexOutOfBoundsException if the index is
+     *                                        too large or too small
+     */
+    public ASTNode getChild(int index) {
+        switch (index) {
+            case 0:
+                return ref;
+            default:
+                throw new ArrayIndexOutOfBoundsException(index);
+        }
+    }
+
     /**
      * Visitor method
      *
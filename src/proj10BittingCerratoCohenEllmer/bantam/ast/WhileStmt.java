@@ -57,8 +57,8 @@ public class WhileStmt extends Stmt {
      */
     public WhileStmt(int lineNum, Expr predExpr, Stmt bodyStmt) {
         super(lineNum);
-        this.predExpr = predExpr;
-        this.bodyStmt = bodyStmt;
+        this.predExpr = adopt(predExpr);
+        this.bodyStmt = adopt(bodyStmt);
     }
 
     /**
@@ -79,6 +79,44 @@ public class WhileStmt extends Stmt {
         return bodyStmt;
     }
 
+    /**
+     * Get the kind of this node
+     *
+     * @return NodeKind.WHILE_STMT
+     */
+    public int getKind() {
+        return NodeKind.WHILE_STMT;
+    }
+
+    /**
+     * Get the number of children of this node, counting missing optional ones
+     *
+     * @return 2
+     */
+    public int getChildCount() {
+        return 2;
+    }
+
+    /**
+     * Get the index-th child of this node
+     *
+     * @param index the position of the child, in the order Visitor visits
+     *              the children
+     * @return the child, or null if it is a missing optional one
+     * @throws ArrayIndexOutOfBoundsException if the index is
+     *                                        too large or too small
+     */
+    public ASTNode getChild(int index) {
+        switch (index) {
+            case 0:
+                return predExpr;
+            case 1:
+                return bodyStmt;
+            default:
+                throw new ArrayIndexOutOfBoundsException(index);
+        }
+    }
+
     /**
      * Visitor method
      *
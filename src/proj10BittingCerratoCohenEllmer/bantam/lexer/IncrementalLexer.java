@@ -0,0 +1,495 @@
+/*
+ * File: IncrementalLexer.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.lexer;
+
+import proj10BittingCerratoCohenEllmer.bantam.util.Error;
+import proj10BittingCerratoCohenEllmer.bantam.util.ErrorHandler;
+import proj10BittingCerratoCohenEllmer.bantam.util.LineIndex;
+import proj10BittingCerratoCohenEllmer.bantam.util.NamePool;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the tokens of a text that is being edited up to date without scanning
+ * the whole text after every edit.
+ * <p>
+ * Along with the tokens, the lexer keeps the start of every line and the state
+ * the scanner is in at that point: between tokens, or inside a block comment,
+ * a string or some other token that runs over the line break. After an edit,
+ * scanning restarts at the start of the line before the edit, or at the start
+ * of the token that runs over that line's start. It stops as soon as it reaches
+ * the start of an old token past the edit, since from there on the text, and so
+ * the tokens, are the old ones. The tokens are always exactly the ones a
+ * Scanner with the table-driven engine produces for the whole text.
+ * <p>
+ * Lexical errors are not collected. Tokens with errors can be found by their
+ * ERROR kind, and a full compile registers the errors as usual.
+ */
+public class IncrementalLexer {
+    /**
+     * The state of the scanner at the start of a line
+     */
+    public enum LineState {
+        /**
+         * the line starts between tokens or with a token
+         */
+        NORMAL,
+        /**
+         * the line starts inside a block comment
+         */
+        IN_BLOCK_COMMENT,
+        /**
+         * the line starts inside a string
+         */
+        IN_STRING,
+        /**
+         * the line starts inside some other token, such as an erroneous char
+         * literal
+         */
+        IN_TOKEN
+    }
+
+    private static final Token.Kind[] KINDS = Token.Kind.values();
+    private static final LineState[] LINE_STATES = LineState.values();
+
+    private final String filename;
+    private final NamePool namePool;
+    /**
+     * receives the errors of the scanner, which are not kept
+     */
+    private final ErrorHandler ignoredErrors = new ErrorHandler() {
+        @Override
+        public void register(Error error) {
+        }
+    };
+
+    /**
+     * the text. Every edit makes a new array, so Tokens handed out earlier keep
+     * referring to the text they were scanned from.
+     */
+    private char[] text;
+
+    // the tokens, as parallel arrays. A kind of -1 means the token has no kind.
+    private int[] kinds = new int[0];
+    private int[] startOffsets = new int[0];
+    private int[] lengths = new int[0];
+    private int[] lines = new int[0];
+    private int[] nameIds = new int[0];
+    /**
+     * the spelling of each token that is not just the characters of its span
+     */
+    private String[] spellings = new String[0];
+    private int tokenCount;
+
+    // the lines. The first line is at index 0.
+    private int[] lineStarts = new int[0];
+    private int[] lineStates = new int[0];
+    private int lineCount;
+    /**
+     * the line starts as a LineIndex, made the first time it is asked for after
+     * an edit
+     */
+    private LineIndex lineIndexCache;
+
+    /**
+     * creates a lexer for the given text and scans all of it
+     *
+     * @param text the text to break into tokens
+     */
+    public IncrementalLexer(String text) {
+        this(text, null, new NamePool());
+    }
+
+    /**
+     * creates a lexer for the given text and scans all of it
+     *
+     * @param text     the text to break into tokens
+     * @param filename the name of the file holding the text
+     * @param namePool the pool to intern identifier names in
+     */
+    public IncrementalLexer(String text, String filename, NamePool namePool) {
+        this.filename = filename;
+        this.namePool = namePool;
+        this.text = text.toCharArray();
+        TokenBuffer tokens = new TokenBuffer(this.text, filename, namePool,
+                Math.max(64, this.text.length / 3));
+        new TableDrivenScanner(this.text, this.text.length, filename, ignoredErrors,
+                namePool, 0, 1).scanAll(tokens);
+        replaceTokens(0, 0, tokens, 0, 0);
+        replaceLines(0, 0, 0, this.text.length, 0);
+    }
+
+    /**
+     * Replaces a range of the text and updates the tokens
+     *
+     * @param start       the offset of the first character to replace
+     * @param end         the offset just past the last character to replace
+     * @param replacement the characters to put in their place
+     * @return how the tokens changed
+     */
+    public TokenDelta edit(int start, int end, String replacement) {
+        if (start < 0 || end < start || end > text.length) {
+            throw new IndexOutOfBoundsException("Invalid edit range " + start + "-" + end
+                    + " for a text of length " + text.length);
+        }
+        int offsetDelta = replacement.length() - (end - start);
+        int newEnd = start + replacement.length();
+
+        char[] newText = new char[text.length + offsetDelta];
+        System.arraycopy(text, 0, newText, 0, start);
+        replacement.getChars(0, replacement.length(), newText, start);
+        System.arraycopy(text, end, newText, newEnd, text.length - end);
+
+        // a character that ends the file early hides everything after it
+        int eofIndex = tokenCount - 1;
+        if (start > startOffsets[eofIndex]) {
+            int oldLength = text.length;
+            text = newText;
+            lineIndexCache = null;
+            replaceLines(0, 0, oldLength, newText.length, offsetDelta);
+            return new TokenDelta(tokenCount, 0, 0, start, start, offsetDelta, 0);
+        }
+
+        // find the checkpoint: the start of the line holding the character before
+        // the edit, since the token ending there may grow, or else the start of the
+        // token that runs over that line's start
+        int lineIndex = lineIndexOf(Math.max(0, start - 1));
+        int restartOffset;
+        int restartLine;
+        int firstIndex;
+        if (lineStates[lineIndex] == LineState.NORMAL.ordinal()) {
+            restartOffset = lineStarts[lineIndex];
+            restartLine = lineIndex + 1;
+            firstIndex = firstTokenAtOrAfter(restartOffset);
+        } else {
+            firstIndex = firstTokenAtOrAfter(lineStarts[lineIndex] + 1) - 1;
+            restartOffset = startOffsets[firstIndex];
+            restartLine = lines[firstIndex];
+        }
+
+        // scan until the state converges with the old tokens
+        TokenBuffer tokens = new TokenBuffer(newText, filename, namePool, 64);
+        TableDrivenScanner scanner = new TableDrivenScanner(newText, newText.length,
+                filename, ignoredErrors, namePool, restartOffset, restartLine);
+        int oldIndex = firstIndex;
+        boolean reachedEof = false;
+        while (!reachedEof) {
+            int offset = scanner.getOffset();
+            if (offset >= newEnd) {
+                int oldOffset = offset - offsetDelta;
+                while (oldIndex < tokenCount && startOffsets[oldIndex] < oldOffset) {
+                    oldIndex++;
+                }
+                if (oldIndex < tokenCount && startOffsets[oldIndex] == oldOffset) {
+                    break;
+                }
+            }
+            reachedEof = scanner.scanUntil(tokens, offset + 1);
+        }
+
+        // the tokens from oldIndex on are kept, or none of them if the scanner
+        // reached the end of the file first
+        int convergedOffset = newText.length;
+        int oldConvergedOffset = text.length;
+        int lineDelta = 0;
+        if (reachedEof) {
+            oldIndex = tokenCount;
+        } else {
+            convergedOffset = scanner.getOffset();
+            oldConvergedOffset = convergedOffset - offsetDelta;
+            lineDelta = scanner.getLine() - lines[oldIndex];
+        }
+        text = newText;
+        lineIndexCache = null;
+        replaceTokens(firstIndex, oldIndex, tokens, offsetDelta, lineDelta);
+        replaceLines(restartLine - 1, restartOffset, oldConvergedOffset,
+                convergedOffset, offsetDelta);
+
+        return new TokenDelta(firstIndex, oldIndex - firstIndex, tokens.size(),
+                restartOffset, convergedOffset, offsetDelta, lineDelta);
+    }
+
+    /**
+     * @return the current text
+     */
+    public String getText() {
+        return new String(text);
+    }
+
+    /**
+     * @return the name of the file holding the text
+     */
+    public String getFilename() {
+        return filename;
+    }
+
+    /**
+     * @return the number of tokens, including the EOF token
+     */
+    public int getTokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the kind of the token
+     */
+    public Token.Kind getKind(int index) {
+        int kind = kinds[checkToken(index)];
+        return kind < 0 ? null : KINDS[kind];
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the offset in the text of the first character of the token
+     */
+    public int getStartOffset(int index) {
+        return startOffsets[checkToken(index)];
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the number of characters in the token
+     */
+    public int getLength(int index) {
+        return lengths[checkToken(index)];
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the line where the token starts
+     */
+    public int getLine(int index) {
+        return lines[checkToken(index)];
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the characters making up the token
+     */
+    public String getSpelling(int index) {
+        checkToken(index);
+        if (nameIds[index] >= 0) {
+            return namePool.getName(nameIds[index]);
+        }
+        return spellings[index] != null ? spellings[index]
+                : new String(text, startOffsets[index], lengths[index]);
+    }
+
+    /**
+     * @param index the index of a token
+     * @return a new Token for the token. The lexer does not keep the values of
+     * constants, so they are decoded now.
+     */
+    public Token getToken(int index) {
+        checkToken(index);
+        String spelling = nameIds[index] >= 0 ? namePool.getName(nameIds[index])
+                : spellings[index];
+        Token.Kind kind = getKind(index);
+        String fullSpelling = getSpelling(index);
+        return new Token(kind, spelling, text, startOffsets[index], lengths[index],
+                lines[index], nameIds[index], Literals.decodeValue(kind, fullSpelling),
+                kind == Token.Kind.STRCONST ? Literals.decodeEscapes(fullSpelling) : null);
+    }
+
+    /**
+     * Finds the token holding a character of the text
+     *
+     * @param offset an offset in the text
+     * @return the index of the token holding the character at offset, or of the
+     * first token after it if it is whitespace
+     */
+    public int tokenAt(int offset) {
+        int index = firstTokenAtOrAfter(offset + 1) - 1;
+        if (index >= 0 && startOffsets[index] + lengths[index] > offset) {
+            return index;
+        }
+        return index + 1;
+    }
+
+    /**
+     * @return the number of lines in the text
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * @param line a line number, starting at 1
+     * @return the offset in the text where the line starts
+     */
+    public int getLineStart(int line) {
+        return lineStarts[checkLine(line)];
+    }
+
+    /**
+     * @return the lines of the current text as a LineIndex, which does not change
+     * with later edits. The line starts are already kept up to date by each edit,
+     * so making it does not look at the text again.
+     */
+    public LineIndex getLineIndex() {
+        if (lineIndexCache == null) {
+            lineIndexCache = LineIndex.fromLineStarts(lineStarts, lineCount, text,
+                    text.length);
+        }
+        return lineIndexCache;
+    }
+
+    /**
+     * @param line a line number, starting at 1
+     * @return the state of the scanner at the start of the line
+     */
+    public LineState getLineState(int line) {
+        return LINE_STATES[lineStates[checkLine(line)]];
+    }
+
+    private int checkToken(int index) {
+        if (index < 0 || index >= tokenCount) {
+            throw new IndexOutOfBoundsException("No token " + index);
+        }
+        return index;
+    }
+
+    private int checkLine(int line) {
+        if (line < 1 || line > lineCount) {
+            throw new IndexOutOfBoundsException("No line " + line);
+        }
+        return line - 1;
+    }
+
+    /**
+     * @return the index of the first token that starts at or after offset
+     */
+    private int firstTokenAtOrAfter(int offset) {
+        int index = Arrays.binarySearch(startOffsets, 0, tokenCount, offset);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * @return the index of the line holding the character at offset
+     */
+    private int lineIndexOf(int offset) {
+        int index = Arrays.binarySearch(lineStarts, 0, lineCount, offset);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Replaces the old tokens from index first up to index end with all the tokens
+     * in the given buffer, and moves the tokens after them.
+     */
+    private void replaceTokens(int first, int end, TokenBuffer tokens, int offsetDelta,
+                               int lineDelta) {
+        int inserted = tokens.size();
+        int newCount = tokenCount - (end - first) + inserted;
+        kinds = splice(kinds, first, end, inserted, tokenCount, newCount);
+        startOffsets = splice(startOffsets, first, end, inserted, tokenCount, newCount);
+        lengths = splice(lengths, first, end, inserted, tokenCount, newCount);
+        lines = splice(lines, first, end, inserted, tokenCount, newCount);
+        nameIds = splice(nameIds, first, end, inserted, tokenCount, newCount);
+        spellings = splice(spellings, first, end, inserted, tokenCount, newCount);
+
+        for (int i = 0; i < inserted; i++) {
+            Token.Kind kind = tokens.getKind(i);
+            kinds[first + i] = kind == null ? -1 : kind.ordinal();
+            startOffsets[first + i] = tokens.getStartOffset(i);
+            lengths[first + i] = tokens.getLength(i);
+            lines[first + i] = tokens.getLine(i);
+            nameIds[first + i] = tokens.getNameId(i);
+            spellings[first + i] = tokens.ownSpelling(i);
+        }
+        for (int i = first + inserted; i < newCount; i++) {
+            startOffsets[i] += offsetDelta;
+            lines[i] += lineDelta;
+        }
+        tokenCount = newCount;
+    }
+
+    /**
+     * Recomputes the lines starting between from and to in the new text. The old
+     * lines from index firstLine up to the one starting after oldTo are replaced
+     * and the old lines after them are moved. The tokens must already be updated.
+     */
+    private void replaceLines(int firstLine, int from, int oldTo, int to,
+                              int offsetDelta) {
+        // the old lines that start after oldTo are kept
+        int end = firstLine;
+        while (end < lineCount && lineStarts[end] <= oldTo) {
+            end++;
+        }
+
+        // the starts of the new lines, after the first one
+        int[] newStarts = new int[16];
+        int inserted = 0;
+        if (firstLine == 0 && lineCount == 0) {
+            newStarts[inserted++] = 0;
+        } else {
+            newStarts[inserted++] = lineStarts[firstLine];
+        }
+        for (int i = from; i < to && i < text.length; i++) {
+            char c = text[i];
+            if (c == SourceFile.CR
+                    || (c == SourceFile.EOL && (i == 0 || text[i - 1] != SourceFile.CR))) {
+                if (inserted == newStarts.length) {
+                    newStarts = Arrays.copyOf(newStarts, inserted * 2);
+                }
+                newStarts[inserted++] = i + 1;
+            }
+        }
+
+        int newCount = lineCount - (end - firstLine) + inserted;
+        lineStarts = splice(lineStarts, firstLine, end, inserted, lineCount, newCount);
+        lineStates = splice(lineStates, firstLine, end, inserted, lineCount, newCount);
+        System.arraycopy(newStarts, 0, lineStarts, firstLine, inserted);
+        for (int i = firstLine + inserted; i < newCount; i++) {
+            lineStarts[i] += offsetDelta;
+        }
+        lineCount = newCount;
+
+        for (int i = firstLine; i < firstLine + inserted; i++) {
+            lineStates[i] = stateAt(lineStarts[i]).ordinal();
+        }
+    }
+
+    /**
+     * @return the state of the scanner at the given offset
+     */
+    private LineState stateAt(int offset) {
+        int index = firstTokenAtOrAfter(offset) - 1;
+        if (index < 0 || startOffsets[index] + lengths[index] <= offset) {
+            return LineState.NORMAL;
+        }
+        switch (text[startOffsets[index]]) {
+            case '/':
+                return LineState.IN_BLOCK_COMMENT;
+            case '"':
+                return LineState.IN_STRING;
+            default:
+                return LineState.IN_TOKEN;
+        }
+    }
+
+    /**
+     * Makes room in an array for inserted elements in place of the elements from
+     * first up to end
+     */
+    private static int[] splice(int[] array, int first, int end, int inserted,
+                                int count, int newCount) {
+        int[] result = newCount <= array.length ? array
+                : Arrays.copyOf(array, Math.max(newCount, array.length * 2));
+        System.arraycopy(array, end, result, first + inserted, count - end);
+        return result;
+    }
+
+    private static String[] splice(String[] array, int first, int end, int inserted,
+                                   int count, int newCount) {
+        String[] result = newCount <= array.length ? array
+                : Arrays.copyOf(array, Math.max(newCount, array.length * 2));
+        System.arraycopy(array, end, result, first + inserted, count - end);
+        if (newCount < count) {
+            Arrays.fill(result, newCount, count, null);
+        }
+        return result;
+    }
+}
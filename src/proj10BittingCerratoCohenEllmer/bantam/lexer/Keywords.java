@@ -0,0 +1,117 @@
+/*
+ * File: Keywords.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.lexer;
+
+/**
+ * Recognizes the reserved words, the boolean constants and the builtin type names
+ * of Bantam Java with a perfect hash on the length and the first and last
+ * characters of a word. A lookup costs one table probe and one comparison and
+ * never creates a String.
+ */
+final class Keywords {
+
+    /**
+     * the words that are not plain identifiers
+     */
+    private static final String[] WORDS = {"break", "cast", "class", "var", "else",
+            "extends", "for", "if", "instanceof", "new", "return", "while", "true",
+            "false", "int", "char", "boolean", "double", "String"};
+
+    /**
+     * the kind of token for each of the WORDS. Builtin type names are VAR tokens.
+     */
+    private static final Token.Kind[] KINDS = {Token.Kind.BREAK, Token.Kind.CAST,
+            Token.Kind.CLASS, Token.Kind.VAR, Token.Kind.ELSE, Token.Kind.EXTENDS,
+            Token.Kind.FOR, Token.Kind.IF, Token.Kind.INSTANCEOF, Token.Kind.NEW,
+            Token.Kind.RETURN, Token.Kind.WHILE, Token.Kind.BOOLEAN, Token.Kind.BOOLEAN,
+            Token.Kind.VAR, Token.Kind.VAR, Token.Kind.VAR, Token.Kind.VAR,
+            Token.Kind.VAR};
+
+    private static final int TABLE_SIZE = 64;
+    private static final int MIN_LENGTH = 2;
+    private static final int MAX_LENGTH = 10;
+
+    private static final String[] TABLE_WORDS = new String[TABLE_SIZE];
+    private static final Token.Kind[] TABLE_KINDS = new Token.Kind[TABLE_SIZE];
+
+    static {
+        for (int i = 0; i < WORDS.length; i++) {
+            String word = WORDS[i];
+            int slot = hash(word.length(), word.charAt(0), word.charAt(word.length() - 1));
+            if (TABLE_WORDS[slot] != null) {
+                throw new IllegalStateException("The keyword hash is not perfect for "
+                        + word + " and " + TABLE_WORDS[slot]);
+            }
+            TABLE_WORDS[slot] = word;
+            TABLE_KINDS[slot] = KINDS[i];
+        }
+    }
+
+    private Keywords() {
+    }
+
+    /**
+     * The perfect hash. The multipliers were chosen so that no two WORDS collide.
+     */
+    private static int hash(int length, char first, char last) {
+        return (length * 3 + first * 37 + last) & (TABLE_SIZE - 1);
+    }
+
+    /**
+     * Finds the table slot of the word spelled by the given characters
+     *
+     * @param chars  the buffer holding the word
+     * @param start  the index of the first character of the word
+     * @param length the number of characters in the word
+     * @return the slot of the word, or -1 if it is a plain identifier
+     */
+    static int find(char[] chars, int start, int length) {
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            return -1;
+        }
+        int slot = hash(length, chars[start], chars[start + length - 1]);
+        String word = TABLE_WORDS[slot];
+        if (word == null || word.length() != length) {
+            return -1;
+        }
+        for (int i = 0; i < length; i++) {
+            if (word.charAt(i) != chars[start + i]) {
+                return -1;
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * Finds the table slot of the given word
+     *
+     * @param spelling the word
+     * @return the slot of the word, or -1 if it is a plain identifier
+     */
+    static int find(String spelling) {
+        int length = spelling.length();
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            return -1;
+        }
+        int slot = hash(length, spelling.charAt(0), spelling.charAt(length - 1));
+        return spelling.equals(TABLE_WORDS[slot]) ? slot : -1;
+    }
+
+    /**
+     * @param slot a slot returned by find
+     * @return the kind of token for the word in that slot
+     */
+    static Token.Kind kindAt(int slot) {
+        return TABLE_KINDS[slot];
+    }
+
+    /**
+     * @param slot a slot returned by find
+     * @return the constant spelling of the word in that slot
+     */
+    static String wordAt(int slot) {
+        return TABLE_WORDS[slot];
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * File: Literals.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.lexer;
+
+/**
+ * Decodes the values of literal tokens. The value of an int, double or char
+ * constant is kept in a long: an int or char as itself and a double as its raw
+ * bits, so that tokens and token buffers need only one primitive slot for it.
+ */
+final class Literals {
+
+    private Literals() {
+    }
+
+    /**
+     * Decodes the value of a constant from its spelling
+     *
+     * @param kind     the kind of the token
+     * @param spelling the characters making up the token
+     * @return the value of an INTCONST, DBLCONST or CHRCONST token, or 0 for any
+     * other token or a spelling that is not valid
+     */
+    static long decodeValue(Token.Kind kind, String spelling) {
+        if (kind == null || spelling == null) {
+            return 0;
+        }
+        try {
+            switch (kind) {
+                case INTCONST:
+                    return Integer.parseInt(spelling);
+                case DBLCONST:
+                    return Double.doubleToRawLongBits(Double.parseDouble(spelling));
+                case CHRCONST:
+                    return spelling.length() == 3 ? spelling.charAt(1) : 0;
+                default:
+                    return 0;
+            }
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Decodes the escape sequences in the characters of a string constant
+     *
+     * @param chars the buffer holding the characters
+     * @param start the index of the first character after the opening quote
+     * @param end   the index of the closing quote
+     * @return the decoded value, or null if there are no escape sequences, so
+     * that the value is just the characters between the quotes
+     */
+    static String decodeEscapes(char[] chars, int start, int end) {
+        int i = start;
+        while (i < end && chars[i] != '\\') {
+            i++;
+        }
+        if (i == end) {
+            return null;
+        }
+
+        StringBuilder value = new StringBuilder(end - start);
+        value.append(chars, start, i - start);
+        while (i < end) {
+            char c = chars[i++];
+            if (c == '\\' && i < end) {
+                c = unescape(chars[i++]);
+            }
+            value.append(c);
+        }
+        return value.toString();
+    }
+
+    /**
+     * Decodes the escape sequences in the spelling of a string constant
+     *
+     * @param spelling the characters making up the token, quotes included
+     * @return the decoded value, or null if there are no escape sequences
+     */
+    static String decodeEscapes(String spelling) {
+        if (spelling.length() < 2 || spelling.indexOf('\\') < 0) {
+            return null;
+        }
+        char[] chars = spelling.toCharArray();
+        return decodeEscapes(chars, 1, chars.length - 1);
+    }
+
+    /**
+     * @return the character denoted by a backslash followed by c
+     */
+    private static char unescape(char c) {
+        switch (c) {
+            case 'n':
+                return '\n';
+            case 't':
+                return '\t';
+            case 'f':
+                return '\f';
+            default: // '"' and '\\' stand for themselves
+                return c;
+        }
+    }
+}
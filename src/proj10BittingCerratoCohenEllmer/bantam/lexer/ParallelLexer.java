@@ -0,0 +1,352 @@
+/*
+ * File: ParallelLexer.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.lexer;
+
+import proj10BittingCerratoCohenEllmer.bantam.util.Error;
+import proj10BittingCerratoCohenEllmer.bantam.util.ErrorHandler;
+import proj10BittingCerratoCohenEllmer.bantam.util.NamePool;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+
+/**
+ * Scans a large source into a TokenBuffer using several threads.
+ * <p>
+ * The source is split into chunks at line breaks and every chunk is scanned
+ * in parallel with the table-driven engine, guessing that the chunk starts
+ * between two tokens. The line number at the start of each chunk is known
+ * exactly, because it only depends on the line breaks before it. The guess
+ * is wrong when a block comment or a string runs over the start of a chunk.
+ * <p>
+ * The chunks are then merged in order. A chunk is used from the first of its
+ * tokens that starts where the tokens merged so far end, since from there on
+ * it produces exactly what a serial scan would. When no such token exists,
+ * the tokens are scanned serially until they meet a token start of the chunk
+ * again. The errors found in each chunk are registered during the merge, in
+ * the order a serial scan would register them, and the names are interned in
+ * the order a serial scan would intern them. The result is identical to
+ * TokenBuffer.lex run on a Scanner.
+ * <p>
+ * This lexer is experimental. It has only been measured on a single core,
+ * where it is slower than a serial scan because of the merge pass, and
+ * whether it is faster on several cores is not known yet. Nothing uses it
+ * unless it is given to Parser.setParallelLexer.
+ */
+public class ParallelLexer {
+    /**
+     * the default smallest number of characters in a chunk
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private final ForkJoinPool pool;
+    private final int minChunkSize;
+    private boolean skipComments;
+
+    /**
+     * Records the errors found while scanning a chunk together with the index
+     * of the token being scanned when each was found
+     */
+    private static final class ErrorCollector extends ErrorHandler {
+        private final List<Error> errors = new ArrayList<>();
+        private int[] tokenIndexes = new int[16];
+        private TokenBuffer tokens;
+
+        @Override
+        public void register(Error error) {
+            if (errors.size() == tokenIndexes.length) {
+                tokenIndexes = Arrays.copyOf(tokenIndexes, errors.size() * 2);
+            }
+            // the token being scanned is added to the buffer after its errors
+            tokenIndexes[errors.size()] = tokens.size();
+            errors.add(error);
+        }
+    }
+
+    /**
+     * The tokens of one chunk, scanned on the guess that the chunk starts
+     * between tokens
+     */
+    private static final class Chunk {
+        /**
+         * the offset where the chunk starts
+         */
+        final int start;
+        /**
+         * the offset where the next chunk starts
+         */
+        final int end;
+        /**
+         * the line number at start
+         */
+        int startLine;
+        TokenBuffer tokens;
+        ErrorCollector errors;
+        /**
+         * where the first token after the chunk starts, and its line
+         */
+        int nextOffset;
+        int nextLine;
+        boolean reachedEof;
+
+        Chunk(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * creates a lexer that uses the common ForkJoinPool
+     */
+    public ParallelLexer() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * creates a lexer
+     *
+     * @param pool         the pool to scan the chunks on
+     * @param minChunkSize the smallest number of characters worth scanning as
+     *                     a separate chunk
+     */
+    public ParallelLexer(ForkJoinPool pool, int minChunkSize) {
+        if (minChunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be positive");
+        }
+        this.pool = pool;
+        this.minChunkSize = minChunkSize;
+    }
+
+    /**
+     * Chooses whether terminated comments are left out of the TokenBuffer, as
+     * Scanner.setSkipComments does
+     *
+     * @param skipComments whether subsequent calls to lex skip comments
+     */
+    public void setSkipComments(boolean skipComments) {
+        this.skipComments = skipComments;
+    }
+
+    /**
+     * Scans a whole file into a new TokenBuffer
+     *
+     * @param filename the name of the file to be scanned
+     * @param handler  the ErrorHandler that collects all the errors found
+     * @param namePool the pool to intern identifier names in
+     * @return the buffer holding every token up to and including EOF
+     */
+    public TokenBuffer lex(String filename, ErrorHandler handler, NamePool namePool) {
+        return lex(new SourceFile(filename), handler, namePool);
+    }
+
+    /**
+     * Scans a whole file whose bytes were already read into a new TokenBuffer
+     *
+     * @param filename the name of the file to be scanned
+     * @param bytes    all the bytes of the file
+     * @param handler  the ErrorHandler that collects all the errors found
+     * @param namePool the pool to intern identifier names in
+     * @return the buffer holding every token up to and including EOF
+     */
+    public TokenBuffer lex(String filename, byte[] bytes, ErrorHandler handler,
+                           NamePool namePool) {
+        return lex(new SourceFile(filename, bytes), handler, namePool);
+    }
+
+    /**
+     * Scans all the characters of a Reader into a new TokenBuffer
+     *
+     * @param reader   the reader to be scanned
+     * @param handler  the ErrorHandler that collects all the errors found
+     * @param namePool the pool to intern identifier names in
+     * @return the buffer holding every token up to and including EOF
+     */
+    public TokenBuffer lex(Reader reader, ErrorHandler handler, NamePool namePool) {
+        return lex(new SourceFile(reader), handler, namePool);
+    }
+
+    private TokenBuffer lex(SourceFile sourceFile, ErrorHandler handler,
+                            NamePool namePool) {
+        char[] buffer = sourceFile.getBuffer();
+        int length = sourceFile.getLength();
+        String filename = sourceFile.getFilename();
+        Chunk[] chunks = split(buffer, length);
+
+        // the line number at the start of each chunk
+        int[] lineBreaks = new int[chunks.length];
+        runAll(chunks.length, i -> lineBreaks[i] = countLineBreaks(buffer,
+                chunks[i].start, Math.min(chunks[i].end, length)));
+        int line = 1;
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i].startLine = line;
+            line += lineBreaks[i];
+        }
+
+        runAll(chunks.length, i -> scanChunk(chunks[i], buffer, length, filename,
+                skipComments));
+
+        return merge(chunks, buffer, length, filename, handler, namePool,
+                skipComments);
+    }
+
+    /**
+     * Splits the buffer into chunks that start just after a line break
+     */
+    private Chunk[] split(char[] buffer, int length) {
+        int count = Math.max(1, Math.min(length / minChunkSize,
+                pool.getParallelism() * 4));
+        List<Chunk> chunks = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i < count && start < length; i++) {
+            int end = Math.max(start + 1, (int) ((long) length * i / count));
+            while (end < length && buffer[end - 1] != SourceFile.EOL
+                    && buffer[end - 1] != SourceFile.CR) {
+                end++;
+            }
+            // never split a CR LF pair
+            if (end < length && buffer[end - 1] == SourceFile.CR
+                    && buffer[end] == SourceFile.EOL) {
+                end++;
+            }
+            if (end >= length) {
+                break;
+            }
+            chunks.add(new Chunk(start, end));
+            start = end;
+        }
+        // the last chunk is scanned up to the EOF token
+        chunks.add(new Chunk(start, Integer.MAX_VALUE));
+        return chunks.toArray(new Chunk[0]);
+    }
+
+    /**
+     * Counts the line breaks the way the scanner does: a CR LF pair counts once
+     */
+    private static int countLineBreaks(char[] buffer, int start, int end) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            char c = buffer[i];
+            if (c == SourceFile.CR
+                    || (c == SourceFile.EOL && (i == 0 || buffer[i - 1] != SourceFile.CR))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void scanChunk(Chunk chunk, char[] buffer, int length,
+                                  String filename, boolean skipComments) {
+        int capacity = Math.max(64, (Math.min(chunk.end, length) - chunk.start) / 3);
+        chunk.tokens = new TokenBuffer(buffer, filename, new NamePool(), capacity);
+        chunk.errors = new ErrorCollector();
+        chunk.errors.tokens = chunk.tokens;
+        TableDrivenScanner scanner = new TableDrivenScanner(buffer, length, filename,
+                chunk.errors, chunk.tokens.getNamePool(), chunk.start, chunk.startLine);
+        scanner.setSkipComments(skipComments);
+        chunk.reachedEof = scanner.scanUntil(chunk.tokens, chunk.end);
+        chunk.nextOffset = scanner.getOffset();
+        chunk.nextLine = scanner.getLine();
+    }
+
+    /**
+     * Joins the tokens of the chunks, scanning serially wherever a chunk
+     * started out in the wrong state
+     */
+    private static TokenBuffer merge(Chunk[] chunks, char[] buffer, int length,
+                                     String filename, ErrorHandler handler,
+                                     NamePool namePool, boolean skipComments) {
+        TokenBuffer merged = new TokenBuffer(buffer, filename, namePool,
+                Math.max(64, length / 3));
+
+        // the first chunk really does start between tokens
+        append(chunks[0], 0, merged, handler);
+        boolean eof = chunks[0].reachedEof;
+        int offset = chunks[0].nextOffset;
+        int line = chunks[0].nextLine;
+        TableDrivenScanner serialScanner = null;
+
+        for (int i = 1; i < chunks.length && !eof; i++) {
+            Chunk chunk = chunks[i];
+            while (!eof && offset < chunk.end) {
+                int index = chunk.tokens.indexOfStart(offset);
+                if (index >= 0) {
+                    append(chunk, index, merged, handler);
+                    eof = chunk.reachedEof;
+                    offset = chunk.nextOffset;
+                    line = chunk.nextLine;
+                    serialScanner = null;
+                    break;
+                }
+                // the chunk's guess was wrong here, so scan one token serially
+                if (serialScanner == null) {
+                    serialScanner = new TableDrivenScanner(buffer, length, filename,
+                            handler, namePool, offset, line);
+                    serialScanner.setSkipComments(skipComments);
+                }
+                eof = serialScanner.scanUntil(merged, offset + 1);
+                offset = serialScanner.getOffset();
+                line = serialScanner.getLine();
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Appends the tokens of a chunk from the given index on, registering their
+     * errors and interning their names
+     */
+    private static void append(Chunk chunk, int from, TokenBuffer merged,
+                               ErrorHandler handler) {
+        TokenBuffer tokens = chunk.tokens;
+        NamePool chunkNames = tokens.getNamePool();
+        NamePool names = merged.getNamePool();
+        int[] nameIds = new int[chunkNames.size()];
+        Arrays.fill(nameIds, -1);
+
+        ErrorCollector collector = chunk.errors;
+        int error = 0;
+        while (error < collector.errors.size() && collector.tokenIndexes[error] < from) {
+            error++;
+        }
+
+        for (int i = from; i < tokens.size(); i++) {
+            while (error < collector.errors.size() && collector.tokenIndexes[error] == i) {
+                handler.register(collector.errors.get(error++));
+            }
+            int nameId = tokens.getNameId(i);
+            if (nameId >= 0) {
+                if (nameIds[nameId] < 0) {
+                    nameIds[nameId] = names.intern(chunkNames.getName(nameId));
+                }
+                nameId = nameIds[nameId];
+            }
+            merged.add(tokens.getKind(i), tokens.ownSpelling(i), tokens.getStartOffset(i),
+                    tokens.getLength(i), tokens.getLine(i), nameId, tokens.valueBits(i),
+                    tokens.escapedValue(i));
+        }
+    }
+
+    /**
+     * Runs a task for each index on the pool and waits for all of them
+     */
+    private void runAll(int count, IntConsumer task) {
+        if (count == 1) {
+            task.accept(0);
+            return;
+        }
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            tasks.add(pool.submit(() -> task.accept(index)));
+        }
+        for (ForkJoinTask<?> submitted : tasks) {
+            submitted.join();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * File: PipelinedScanner.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.lexer;
+
+import proj10BittingCerratoCohenEllmer.bantam.util.CompilationException;
+import proj10BittingCerratoCohenEllmer.bantam.util.Error;
+import proj10BittingCerratoCohenEllmer.bantam.util.ErrorHandler;
+import proj10BittingCerratoCohenEllmer.bantam.util.LineIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Runs a Scanner on its own thread so that reading and scanning the source
+ * overlap with parsing. The scanner thread publishes the tokens in batches
+ * through a bounded single-producer/single-consumer ring of batches, and the
+ * thread calling scan drains them.
+ * <p>
+ * The errors the scanner finds are not registered from the scanner thread.
+ * They travel with the token being scanned when they were found and are
+ * registered with the ErrorHandler on the calling thread just before that token
+ * is returned, so they arrive in exactly the order a plain Scanner registers
+ * them.
+ * <p>
+ * close must be called if the tokens are not read all the way to EOF, so that
+ * the scanner thread stops.
+ */
+public class PipelinedScanner implements TokenSource, AutoCloseable {
+    /**
+     * the number of batches in the ring. Must be a power of 2.
+     */
+    private static final int RING_SIZE = 16;
+    /**
+     * the number of tokens in a full batch
+     */
+    private static final int BATCH_SIZE = 512;
+    /**
+     * how many times a thread waiting on the ring spins before parking
+     */
+    private static final int SPINS = 256;
+    private static final long PARK_NANOS = 20_000;
+
+    /**
+     * A group of consecutive tokens, along with the errors found while
+     * scanning them
+     */
+    private static final class Batch {
+        final Token[] tokens = new Token[BATCH_SIZE];
+        int size;
+        final List<Error> errors = new ArrayList<>();
+        /**
+         * errorEnds[i] is the number of errors found while scanning tokens 0..i
+         */
+        final int[] errorEnds = new int[BATCH_SIZE];
+    }
+
+    /**
+     * Records errors in the order they are registered instead of sorting them,
+     * so that they can be handed to the real ErrorHandler later
+     */
+    private static final class ErrorCollector extends ErrorHandler {
+        private List<Error> errors;
+
+        @Override
+        public void register(Error error) {
+            errors.add(error);
+        }
+    }
+
+    private final Batch[] ring = new Batch[RING_SIZE];
+    /**
+     * the number of batches published by the scanner thread
+     */
+    private volatile long published;
+    /**
+     * the number of batches the consumer is done with
+     */
+    private volatile long consumed;
+    private volatile boolean closed;
+    /**
+     * what stopped the scanner thread, if anything did
+     */
+    private volatile Throwable failure;
+    /**
+     * the Scanner on the scanner thread, set before the first batch is published
+     */
+    private volatile Scanner scanner;
+
+    private final ErrorHandler errorHandler;
+    private final String filename;
+    private final Thread scannerThread;
+
+    // the consumer's position in the ring
+    private Batch currentBatch;
+    private int tokenIndex;
+    private Token eofToken;
+
+    /**
+     * Starts scanning on a new thread. The Scanner itself is created on that
+     * thread so that reading the source also overlaps with parsing.
+     *
+     * @param filename       the name of the file being scanned, used for errors
+     * @param handler        the ErrorHandler that collects all the errors found
+     * @param scannerFactory creates the Scanner given the ErrorHandler it must
+     *                       register its errors with
+     */
+    public PipelinedScanner(String filename, ErrorHandler handler,
+                            Function<ErrorHandler, Scanner> scannerFactory) {
+        this.errorHandler = handler;
+        this.filename = filename;
+        for (int i = 0; i < RING_SIZE; i++) {
+            ring[i] = new Batch();
+        }
+        scannerThread = new Thread(() -> produce(scannerFactory), "bantam-scanner");
+        scannerThread.setDaemon(true);
+        scannerThread.start();
+    }
+
+    /**
+     * The body of the scanner thread
+     */
+    private void produce(Function<ErrorHandler, Scanner> scannerFactory) {
+        Batch batch = null;
+        try {
+            ErrorCollector collector = new ErrorCollector();
+            Scanner scanner = scannerFactory.apply(collector);
+            this.scanner = scanner;
+            boolean done = false;
+            while (!done) {
+                batch = awaitFreeBatch();
+                if (batch == null) {
+                    return;
+                }
+                batch.size = 0;
+                batch.errors.clear();
+                collector.errors = batch.errors;
+                while (batch.size < BATCH_SIZE && !done) {
+                    Token token = scanner.scan();
+                    batch.tokens[batch.size] = token;
+                    batch.errorEnds[batch.size] = batch.errors.size();
+                    batch.size++;
+                    done = token.kind == Token.Kind.EOF;
+                }
+                batch = null;
+                published++;
+            }
+        } catch (Throwable e) {
+            // the tokens scanned before the failure are still handed out first.
+            // Errors are caught too, since the parsing thread would otherwise
+            // wait forever for the next batch.
+            if (batch != null && batch.size > 0) {
+                published++;
+            }
+            failure = e;
+        }
+    }
+
+    /**
+     * @return the next batch the scanner thread may fill, or null if closed
+     */
+    private Batch awaitFreeBatch() {
+        int spins = 0;
+        while (published - consumed == RING_SIZE) {
+            if (closed) {
+                return null;
+            }
+            if (++spins < SPINS) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+        }
+        return closed ? null : ring[(int) (published & (RING_SIZE - 1))];
+    }
+
+    /**
+     * Returns the next token, first registering the errors found while scanning
+     * it. Once the EOF token has been returned, every further call returns it
+     * again.
+     *
+     * @return the next Token
+     */
+    public Token scan() {
+        if (eofToken != null) {
+            return eofToken;
+        }
+        if (currentBatch == null || tokenIndex == currentBatch.size) {
+            if (currentBatch != null) {
+                consumed++;
+            }
+            currentBatch = awaitPublishedBatch();
+            tokenIndex = 0;
+        }
+
+        Batch batch = currentBatch;
+        int firstError = tokenIndex == 0 ? 0 : batch.errorEnds[tokenIndex - 1];
+        for (int i = firstError; i < batch.errorEnds[tokenIndex]; i++) {
+            errorHandler.register(batch.errors.get(i));
+        }
+        Token token = batch.tokens[tokenIndex];
+        batch.tokens[tokenIndex++] = null;
+        if (token.kind == Token.Kind.EOF) {
+            eofToken = token;
+            consumed++;
+        }
+        return token;
+    }
+
+    /**
+     * @return the oldest batch the consumer has not read yet
+     * @throws RuntimeException the exception that stopped the scanner thread,
+     *                          wrapped in a CompilationException if it was checked
+     * @throws java.lang.Error  the Error that stopped the scanner thread
+     */
+    private Batch awaitPublishedBatch() {
+        int spins = 0;
+        while (published == consumed) {
+            Throwable cause = failure;
+            if (cause != null) {
+                // the last batch is published before the failure is set, so
+                // it may have arrived since published was read
+                if (published != consumed) {
+                    break;
+                }
+                closed = true;
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof java.lang.Error) {
+                    throw (java.lang.Error) cause;
+                }
+                throw new CompilationException("Scanning " + filename + " failed.",
+                        cause);
+            }
+            if (++spins < SPINS) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+        }
+        return ring[(int) (consumed & (RING_SIZE - 1))];
+    }
+
+    /**
+     * @return the name of the file being scanned
+     */
+    public String getFilename() {
+        return filename;
+    }
+
+    /**
+     * @return the index of the lines of the source, or null if the scanner thread
+     * has not created its Scanner yet. The source has been read in full by the
+     * time any token is returned.
+     */
+    public LineIndex getLineIndex() {
+        Scanner current = scanner;
+        return current == null ? null : current.getLineIndex();
+    }
+
+    /**
+     * Stops the scanner thread. Tokens not yet read are discarded along with
+     * their errors.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(scannerThread);
+    }
+}
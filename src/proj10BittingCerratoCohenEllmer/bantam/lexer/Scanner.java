@@ -9,6 +9,8 @@ import proj10BittingCerratoCohenEllmer.bantam.lexer.tokenbuilders.*;
 import proj10BittingCerratoCohenEllmer.bantam.util.CompilationException;
 import proj10BittingCerratoCohenEllmer.bantam.util.Error;
 import proj10BittingCerratoCohenEllmer.bantam.util.ErrorHandler;
+import proj10BittingCerratoCohenEllmer.bantam.util.LineIndex;
+import proj10BittingCerratoCohenEllmer.bantam.util.NamePool;
 
 import java.io.Reader;
 import java.util.List;
@@ -18,7 +20,22 @@ import java.util.Stack;
 /**
  * This class generates precursor tokens based on a passed character.
  */
-public class Scanner {
+public class Scanner implements TokenSource {
+    /**
+     * The engines that can be used to break the characters into tokens. Both produce
+     * the same tokens and errors for the same input.
+     */
+    public enum Engine {
+        /**
+         * builds each token with one of the TokenBuilder classes
+         */
+        TOKEN_BUILDER,
+        /**
+         * runs a single table-driven state machine over the source buffer
+         */
+        TABLE_DRIVEN
+    }
+
     /**
      * the source of the characters to be broken into tokens
      */
@@ -27,6 +44,15 @@ public class Scanner {
      * collector of all errors that occur
      */
     private final ErrorHandler errorHandler;
+    /**
+     * the pool the identifier names are interned in
+     */
+    private final NamePool namePool;
+
+    /**
+     * the table-driven engine, or null if the TokenBuilder engine is in use
+     */
+    private final TableDrivenScanner tableDrivenScanner;
 
     /**
      * INVARIANT: when the token is finished scanning, this field holds the first
@@ -34,6 +60,11 @@ public class Scanner {
      */
     private char currentChar;
 
+    /**
+     * whether terminated comments are passed over without producing tokens
+     */
+    private boolean skipComments;
+
     /**
      * creates a new scanner for the given file
      *
@@ -41,9 +72,45 @@ public class Scanner {
      * @param handler  the ErrorHandler that collects all the errors found
      */
     public Scanner(String filename, ErrorHandler handler) {
-        errorHandler = handler;
-        sourceFile = new SourceFile(filename);
-        currentChar = sourceFile.getNextChar(true);
+        this(filename, handler, Engine.TOKEN_BUILDER);
+    }
+
+    /**
+     * creates a new scanner for the given file
+     *
+     * @param filename the name of the file to be scanned
+     * @param handler  the ErrorHandler that collects all the errors found
+     * @param engine   the engine used to break the file into tokens
+     */
+    public Scanner(String filename, ErrorHandler handler, Engine engine) {
+        this(filename, handler, engine, new NamePool());
+    }
+
+    /**
+     * creates a new scanner for the given file
+     *
+     * @param filename the name of the file to be scanned
+     * @param handler  the ErrorHandler that collects all the errors found
+     * @param engine   the engine used to break the file into tokens
+     * @param namePool the pool to intern identifier names in
+     */
+    public Scanner(String filename, ErrorHandler handler, Engine engine,
+                   NamePool namePool) {
+        this(new SourceFile(filename), handler, engine, namePool);
+    }
+
+    /**
+     * creates a new scanner for a file whose bytes were already read
+     *
+     * @param filename the name of the file to be scanned
+     * @param bytes    all the bytes of the file
+     * @param handler  the ErrorHandler that collects all the errors found
+     * @param engine   the engine used to break the file into tokens
+     * @param namePool the pool to intern identifier names in
+     */
+    public Scanner(String filename, byte[] bytes, ErrorHandler handler, Engine engine,
+                   NamePool namePool) {
+        this(new SourceFile(filename, bytes), handler, engine, namePool);
     }
 
     /**
@@ -53,9 +120,67 @@ public class Scanner {
      * @param handler the ErrorHandler that collects all the errors found
      */
     public Scanner(Reader reader, ErrorHandler handler) {
-        errorHandler = handler;
-        sourceFile = new SourceFile(reader);
-        currentChar = sourceFile.getNextChar(true);
+        this(reader, handler, Engine.TOKEN_BUILDER);
+    }
+
+    /**
+     * creates a new scanner for the given file
+     *
+     * @param reader  reader object for the file to be scanned
+     * @param handler the ErrorHandler that collects all the errors found
+     * @param engine  the engine used to break the file into tokens
+     */
+    public Scanner(Reader reader, ErrorHandler handler, Engine engine) {
+        this(reader, handler, engine, new NamePool());
+    }
+
+    /**
+     * creates a new scanner for the given file
+     *
+     * @param reader   reader object for the file to be scanned
+     * @param handler  the ErrorHandler that collects all the errors found
+     * @param engine   the engine used to break the file into tokens
+     * @param namePool the pool to intern identifier names in
+     */
+    public Scanner(Reader reader, ErrorHandler handler, Engine engine,
+                   NamePool namePool) {
+        this(new SourceFile(reader), handler, engine, namePool);
+    }
+
+    private Scanner(SourceFile sourceFile, ErrorHandler handler, Engine engine,
+                    NamePool namePool) {
+        this.errorHandler = handler;
+        this.sourceFile = sourceFile;
+        this.namePool = namePool;
+        if (engine == Engine.TABLE_DRIVEN) {
+            tableDrivenScanner = new TableDrivenScanner(sourceFile, handler, namePool);
+        } else {
+            tableDrivenScanner = null;
+            currentChar = sourceFile.getNextChar(true);
+        }
+    }
+
+    /**
+     * @return the pool the identifier names of this file are interned in
+     */
+    public NamePool getNamePool() {
+        return namePool;
+    }
+
+    /**
+     * Chooses whether terminated comments are passed over without producing
+     * COMMENT tokens. A skipped comment is found by searching for its end
+     * instead of being built up a character at a time, and its text is never
+     * copied. Line numbers are counted as usual, and an unterminated comment
+     * still produces its ERROR token and error.
+     *
+     * @param skipComments whether to skip comments from the next token on
+     */
+    public void setSkipComments(boolean skipComments) {
+        this.skipComments = skipComments;
+        if (tableDrivenScanner != null) {
+            tableDrivenScanner.setSkipComments(skipComments);
+        }
     }
 
     /**
@@ -67,42 +192,141 @@ public class Scanner {
      * @return the Token containing the characters read
      */
     public Token scan() {
+        if (tableDrivenScanner != null) {
+            return tableDrivenScanner.scan();
+        }
+        if (skipComments) {
+            skipCommentTokens();
+        }
+
+        // the span of the token starts at currentChar, which has already been read
+        int startOffset = Math.min(sourceFile.getOffset() - 1, sourceFile.getLength());
+
         TokenBuilder tokenBuilder = createTokenBuilder(currentChar);
+        int lineBeforeLastChar = sourceFile.getCurrentLineNumber();
         while (!tokenBuilder.isComplete()) {
+            lineBeforeLastChar = sourceFile.getCurrentLineNumber();
             tokenBuilder.pushChar(sourceFile.getNextChar(false));
         }
 
-        // store last char in currentChar if needed
+        // the extra char, if any, was read but is not part of the token
         Optional<Character> extraChar = tokenBuilder.getExtraChar();
-        extraChar.ifPresentOrElse(
-                c -> currentChar = Character.isWhitespace(c)
-                        ? sourceFile.getNextChar(true)
-                        : c,
-                () -> currentChar = sourceFile.getNextChar(true)
-        );
+        int endOffset = sourceFile.getOffset();
+        int endLineNumber = sourceFile.getCurrentLineNumber();
+        if (extraChar.isPresent()) {
+            endOffset--;
+            endLineNumber = lineBeforeLastChar;
+        }
+        endOffset = Math.min(endOffset, sourceFile.getLength());
 
         // create the token from the precursor token
         // create token before extracting errors as some errors occur during creation
         Token finalToken;
         try {
-            finalToken = tokenBuilder.getFinalToken(sourceFile.getCurrentLineNumber());
+            Token builtToken = tokenBuilder.getFinalToken(endLineNumber);
+            String spelling = builtToken.getSpelling();
+            int nameId = -1;
+            if (builtToken.kind == Token.Kind.IDENTIFIER
+                    || builtToken.kind == Token.Kind.VAR) {
+                nameId = namePool.intern(spelling);
+                spelling = namePool.getName(nameId);
+            }
+            finalToken = new Token(builtToken.kind, spelling,
+                    sourceFile.getBuffer(), startOffset, endOffset - startOffset,
+                    builtToken.position, nameId, builtToken.getValueBits(),
+                    builtToken.getEscapedValue());
         } catch (MalformedSpellingStackException e) {
             // this will never happen because we call getExtraChar above
             e.printStackTrace();
             finalToken = null;
         }
 
-        // register any errors that occurred with the error handler
+        // store last char in currentChar if needed
+        extraChar.ifPresentOrElse(
+                c -> currentChar = Character.isWhitespace(c)
+                        ? sourceFile.getNextChar(true)
+                        : c,
+                () -> currentChar = sourceFile.getNextChar(true)
+        );
+
+        // register any errors that occurred with the error handler, placed at the
+        // same columns the table-driven engine places them
         Optional<List<Error>> errorList = tokenBuilder.getErrors();
+        int tokenLine = finalToken == null ? -1 : finalToken.position;
+        int tokenEnd = endOffset;
         errorList.ifPresent(el -> {
+            LineIndex lines = sourceFile.getLineIndex();
             for (Error e : el) {
-                errorHandler.register(e);
+                int line = e.getLineNum();
+                int column = -1;
+                if (line >= 1 && line <= lines.getLineCount()) {
+                    int lineStart = lines.getLineStart(line);
+                    column = line == tokenLine
+                            ? startOffset - lineStart + 1
+                            : TableDrivenScanner.errorColumn(tokenEnd, lineStart);
+                }
+                errorHandler.register(new Error(e.getKind(), e.getFilename(), line,
+                        column, e.getMessage()));
             }
         });
 
         return finalToken;
     }
 
+    /**
+     * Moves past any terminated comments starting at currentChar, leaving the
+     * first character after them in currentChar. An unterminated comment is left
+     * to the SlashTokenBuilder so that it reports the error.
+     */
+    private void skipCommentTokens() {
+        char[] buffer = sourceFile.getBuffer();
+        int length = sourceFile.getLength();
+        // currentChar is the character just before the offset
+        while (currentChar == '/' && sourceFile.getOffset() < length) {
+            char second = buffer[sourceFile.getOffset()];
+            if (second != '/' && second != '*') {
+                return;
+            }
+            int end = TableDrivenScanner.findCommentEnd(buffer, length,
+                    sourceFile.getOffset() - 1);
+            if (end < 0) {
+                return;
+            }
+            sourceFile.skipTo(end);
+            currentChar = sourceFile.getNextChar(true);
+        }
+    }
+
+    /**
+     * Scans all the remaining tokens straight into a TokenBuffer, if the engine
+     * in use can do that
+     *
+     * @param tokens the buffer to add the tokens to
+     * @return whether the tokens were added. If not, they must be taken one at a
+     * time with scan.
+     */
+    boolean scanAll(TokenBuffer tokens) {
+        if (tableDrivenScanner == null) {
+            return false;
+        }
+        tableDrivenScanner.scanAll(tokens);
+        return true;
+    }
+
+    /**
+     * @return the buffer holding the characters being scanned
+     */
+    char[] getSourceBuffer() {
+        return sourceFile.getBuffer();
+    }
+
+    /**
+     * @return the number of valid characters in the source buffer
+     */
+    int getSourceLength() {
+        return sourceFile.getLength();
+    }
+
     /**
      * Returns the filename of the internal source file
      *
@@ -112,6 +336,13 @@ public class Scanner {
         return sourceFile.getFilename();
     }
 
+    /**
+     * @return the index of the lines of the source file
+     */
+    public LineIndex getLineIndex() {
+        return sourceFile.getLineIndex();
+    }
+
     /**
      * Creates a TokenBuilder based on the passed character
      *
@@ -17,77 +17,263 @@
 package proj10BittingCerratoCohenEllmer.bantam.lexer;
 
 import proj10BittingCerratoCohenEllmer.bantam.util.CompilationException;
+import proj10BittingCerratoCohenEllmer.bantam.util.LineIndex;
 
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
 
 /**
  * A class for extracting the characters, one at a time, from a text file or a Reader.
+ * All of the characters are read into a single buffer up front, so handing out the
+ * next character is just an array index rather than a call into the Reader.
  */
 public class SourceFile {
     public static final char EOL = '\n';         // end of line character
     public static final char CR = '\r';  // carriage return character
     public static final char EOF = '\u0000';     // end of file character
 
-    private Reader sourceReader;   // the reader of the data
+    /**
+     * the number of chars pulled from a Reader in a single read call
+     */
+    private static final int READ_CHUNK_SIZE = 1 << 16;
+
+    private char[] buffer;         // all the characters of the source
+    private int length;            // the number of valid characters in the buffer
+    private int offset;            // index in the buffer of the next character to read
     private int currentLineNumber; // for bantam error messages
     private int prevChar;          // the previous character read
     private String filename;       // the file currently being scanned.
+    private LineIndex lineIndex;   // the line starts, built the first time they are needed
 
     /**
-     * creates a new SourceFile object for the file with the given name
+     * creates a new SourceFile object for the file with the given name.
+     * The file is read in full and decoded in one pass, with a fast path for
+     * the ASCII characters that Bantam sources are nearly always made of.
      *
      * @param filename the name of the file to be read.
-     * @throws CompilationException if the file is not found
+     * @throws CompilationException if the file is not found or cannot be read
      */
     public SourceFile(String filename) {
-        try {
-            sourceReader = new FileReader(filename);
-        } catch (FileNotFoundException e) {
-            throw new CompilationException("File " + filename + " not found.", e);
-        }
+        this(filename, readBytes(filename));
+    }
+
+    /**
+     * creates a new SourceFile object for a file whose bytes were already read,
+     * decoding them as the file would be decoded
+     *
+     * @param filename the name of the file
+     * @param bytes    all the bytes of the file
+     */
+    public SourceFile(String filename, byte[] bytes) {
+        decode(bytes, Charset.defaultCharset());
         currentLineNumber = 1;
         prevChar = -1;
         this.filename = filename;
     }
 
     /**
-     * creates a new SourceFile object for the given Reader
+     * Reads all the bytes of a file
+     *
+     * @param filename the name of the file
+     * @return its bytes
+     * @throws CompilationException if the file is not found or cannot be read
+     */
+    private static byte[] readBytes(String filename) {
+        try {
+            return Files.readAllBytes(Path.of(filename));
+        } catch (NoSuchFileException e) {
+            throw new CompilationException("File " + filename + " not found.", e);
+        } catch (IOException e) {
+            throw new CompilationException("File " + filename + " could not be read.", e);
+        }
+    }
+
+    /**
+     * creates a new SourceFile object for the given Reader.
+     * The Reader is drained into the internal buffer in large chunks.
      *
      * @param in the Reader that provides the characters to be processes
+     * @throws CompilationException if the Reader fails
      */
     public SourceFile(Reader in) {
-        sourceReader = in;
+        buffer = new char[READ_CHUNK_SIZE];
+        length = 0;
+        try {
+            int numRead;
+            while ((numRead = in.read(buffer, length, buffer.length - length)) != -1) {
+                length += numRead;
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+            }
+        } catch (IOException e) {
+            throw new CompilationException("Ran out of characters before" +
+                    " program scanning done", e);
+        }
         currentLineNumber = 1;
         prevChar = -1;
     }
 
+    /**
+     * Decodes all the bytes of a file into the buffer. In an ASCII-compatible
+     * charset an ASCII byte is just the character with the same code, so the
+     * bytes are widened straight into the buffer up to the first non-ASCII
+     * byte, and only the bytes from there on go through the charset's decoder.
+     *
+     * @param bytes   all the bytes of the file
+     * @param charset the charset the file is encoded in
+     */
+    private void decode(byte[] bytes, Charset charset) {
+        int size = bytes.length;
+        int asciiLength = 0;
+        if (isAsciiCompatible(charset)) {
+            asciiLength = widenAscii(bytes);
+            if (asciiLength == size) {
+                length = size;
+                return;
+            }
+        }
+
+        CharBuffer rest = charset.decode(
+                ByteBuffer.wrap(bytes, asciiLength, size - asciiLength));
+        if (asciiLength == 0) {
+            buffer = rest.array();
+            length = rest.limit();
+            return;
+        }
+        length = asciiLength + rest.remaining();
+        if (length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, length);
+        }
+        rest.get(buffer, asciiLength, rest.remaining());
+    }
+
+    /**
+     * Copies the leading ASCII bytes into a new buffer of one char per byte
+     *
+     * @param bytes all the bytes of the file
+     * @return the number of bytes before the first non-ASCII byte
+     */
+    private int widenAscii(byte[] bytes) {
+        buffer = new char[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            byte b = bytes[i];
+            if (b < 0) {
+                return i;
+            }
+            buffer[i] = (char) b;
+        }
+        return bytes.length;
+    }
+
+    /**
+     * @return whether every ASCII byte stands for its own character in the
+     * charset, whatever bytes surround it
+     */
+    private static boolean isAsciiCompatible(Charset charset) {
+        String name = charset.name();
+        return charset.equals(StandardCharsets.UTF_8)
+                || charset.equals(StandardCharsets.US_ASCII)
+                || name.startsWith("ISO-8859-") || name.startsWith("windows-125");
+    }
+
     int getCurrentLineNumber() {
         return currentLineNumber;
     }
 
+    /**
+     * @return the number of characters read so far. Reading past the end of the
+     * buffer counts as reading a single EOF character, so this is at most
+     * getLength() + 1.
+     */
+    int getOffset() {
+        return offset;
+    }
+
     String getFilename() {
         return filename;
     }
 
+    /**
+     * @return the buffer holding all the characters of the source. Only the
+     * first getLength() characters are valid.
+     */
+    char[] getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * @return the number of valid characters in the buffer
+     */
+    int getLength() {
+        return length;
+    }
+
+    /**
+     * @return the index of the lines of the source. It is built the first time it
+     * is asked for. Since a LineIndex never changes, a thread that races another
+     * one to build it just builds an equal one.
+     */
+    public LineIndex getLineIndex() {
+        LineIndex lines = lineIndex;
+        if (lines == null) {
+            lines = LineIndex.of(buffer, length);
+            lineIndex = lines;
+        }
+        return lines;
+    }
+
+    /**
+     * Hands over a LineIndex that was built while scanning, unless one was already
+     * built
+     *
+     * @param lines the index of the lines of this source
+     */
+    void setLineIndex(LineIndex lines) {
+        if (lineIndex == null) {
+            lineIndex = lines;
+        }
+    }
+
     /**
      * Finds and returns the next character in the source file.
      * The current line number is incremented if the end of a line is reached
      *
      * @return the next character in the source file
      */
-    private char getNextChar() throws IOException {
-        int c = sourceReader.read();
+    private char getNextChar() {
+        if (offset >= length) {
+            offset = length + 1;
+            prevChar = EOF;
+            return EOF;
+        }
 
-        if (c == -1) {
-            c = EOF;
-        } else if (c == CR || (c == EOL && prevChar != CR)) {
+        char c = buffer[offset++];
+        if (c == CR || (c == EOL && prevChar != CR)) {
             currentLineNumber++;
         }
         prevChar = c;
-        return (char) c;
+        return c;
+    }
+
+    /**
+     * Reads and discards the characters up to the given index, counting the
+     * line breaks among them
+     *
+     * @param end the index of the next character to read afterwards
+     */
+    void skipTo(int end) {
+        while (offset < end) {
+            getNextChar();
+        }
     }
 
     /**
@@ -101,21 +287,12 @@ public class SourceFile {
      * currentChar field
      */
     public char getNextChar(boolean ignoreWhitespace) {
-        // get the next character no matter what it is
-        char nextChar = 0;
-        try {
-            nextChar = getNextChar();
-        } catch (IOException e) {
-            throw new CompilationException("Ran out of characters before" +
-                    " program scanning done", new Throwable());
-        }
+        char nextChar = getNextChar();
 
-        // get the next character if we didn't want this whitespace character
-        if (ignoreWhitespace && Character.isWhitespace(nextChar)) {
-            return getNextChar(true);
-        } else {
-            return nextChar;
+        // keep going if we didn't want this whitespace character
+        while (ignoreWhitespace && Character.isWhitespace(nextChar)) {
+            nextChar = getNextChar();
         }
+        return nextChar;
     }
 }
-
@@ -0,0 +1,809 @@
+/*
+ * File: TableDrivenScanner.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.lexer;
+
+import proj10BittingCerratoCohenEllmer.bantam.util.Error;
+import proj10BittingCerratoCohenEllmer.bantam.util.ErrorHandler;
+import proj10BittingCerratoCohenEllmer.bantam.util.LineIndex;
+import proj10BittingCerratoCohenEllmer.bantam.util.NamePool;
+
+import java.util.Arrays;
+
+/**
+ * A scanner engine that runs a single state machine directly over the character
+ * buffer of a SourceFile. Characters are classified through lookup tables and the
+ * only object created for an ordinary token is the Token itself, which refers to
+ * its span of the buffer instead of holding a copy of its characters. Reserved
+ * words are recognized with the perfect hash of the Keywords class and identifier
+ * spellings are shared through a NamePool.
+ * <p>
+ * Instead of handing out one Token at a time, the engine can also fill a
+ * TokenBuffer directly.
+ * <p>
+ * When comments are skipped, a terminated comment produces no token at all. An
+ * unterminated comment still produces its ERROR token and error.
+ * <p>
+ * The tokens and the errors produced are exactly the ones the TokenBuilder
+ * classes in the tokenbuilders package produce for the same input.
+ */
+final class TableDrivenScanner {
+
+    // character classes
+    private static final byte WHITESPACE = 0;
+    private static final byte LETTER = 1;
+    private static final byte DIGIT = 2;
+    private static final byte SLASH = 3;
+    private static final byte MATH = 4;
+    private static final byte EQUALS = 5;
+    private static final byte QUOTE = 6;
+    private static final byte APOSTROPHE = 7;
+    private static final byte EXCLAMATION = 8;
+    private static final byte SINGLE = 9;
+    private static final byte END = 10;
+    private static final byte UNSUPPORTED = 11;
+
+    /**
+     * the class of every ASCII character
+     */
+    private static final byte[] CHAR_CLASS = new byte[128];
+
+    /**
+     * whether an ASCII character may continue an identifier
+     */
+    private static final boolean[] IDENTIFIER_PART = new boolean[128];
+
+    /**
+     * the kind of every single character token, indexed by character
+     */
+    private static final Token.Kind[] SINGLE_KIND = new Token.Kind[128];
+
+    /**
+     * the spelling of every one character token, indexed by character, so that
+     * punctuation and operators do not need a new String each time
+     */
+    private static final String[] ONE_CHAR_SPELLING = new String[128];
+
+    static {
+        for (char c = 0; c < 128; c++) {
+            if (Character.isWhitespace(c)) {
+                CHAR_CLASS[c] = WHITESPACE;
+            } else if (Character.isLetter(c)) {
+                CHAR_CLASS[c] = LETTER;
+            } else if (c >= '0' && c <= '9') {
+                CHAR_CLASS[c] = DIGIT;
+            } else {
+                CHAR_CLASS[c] = UNSUPPORTED;
+            }
+            IDENTIFIER_PART[c] = Character.isLetterOrDigit(c) || c == '_';
+            ONE_CHAR_SPELLING[c] = String.valueOf(c);
+        }
+        CHAR_CLASS['/'] = SLASH;
+        for (char c : "&|+-*%<>".toCharArray()) {
+            CHAR_CLASS[c] = MATH;
+        }
+        CHAR_CLASS['='] = EQUALS;
+        CHAR_CLASS['"'] = QUOTE;
+        CHAR_CLASS['\''] = APOSTROPHE;
+        CHAR_CLASS['!'] = EXCLAMATION;
+        CHAR_CLASS[SourceFile.EOF] = END;
+
+        SINGLE_KIND['('] = Token.Kind.LPAREN;
+        SINGLE_KIND[')'] = Token.Kind.RPAREN;
+        SINGLE_KIND['{'] = Token.Kind.LCURLY;
+        SINGLE_KIND['}'] = Token.Kind.RCURLY;
+        SINGLE_KIND[';'] = Token.Kind.SEMICOLON;
+        SINGLE_KIND['.'] = Token.Kind.DOT;
+        SINGLE_KIND[':'] = Token.Kind.COLON;
+        SINGLE_KIND[','] = Token.Kind.COMMA;
+        for (char c = 0; c < 128; c++) {
+            if (SINGLE_KIND[c] != null) {
+                CHAR_CLASS[c] = SINGLE;
+            }
+        }
+    }
+
+    /**
+     * the characters being scanned
+     */
+    private final char[] buffer;
+    /**
+     * the number of valid characters in the buffer
+     */
+    private final int length;
+    /**
+     * the name of the file being scanned, used for errors
+     */
+    private final String filename;
+    /**
+     * collector of all errors that occur
+     */
+    private final ErrorHandler errorHandler;
+    /**
+     * the pool the identifier names are interned in
+     */
+    private final NamePool namePool;
+
+    /**
+     * INVARIANT: between tokens, the index of the first character of the next token
+     */
+    private int pos;
+    /**
+     * INVARIANT: between tokens, the line number of the character at pos
+     */
+    private int line;
+    /**
+     * INVARIANT: between tokens, the index of the first character of the line
+     * holding pos
+     */
+    private int lineStart;
+    /**
+     * the index, line number and line start of the first character of the
+     * current token, used for the columns of its errors
+     */
+    private int tokenStart;
+    private int tokenLine;
+    private int tokenLineStart;
+    /**
+     * the source file whose lines are recorded while scanning it from the start,
+     * or null if the lines are not recorded
+     */
+    private SourceFile lineSource;
+    /**
+     * the starts of the lines passed so far, when they are recorded
+     */
+    private int[] lineStarts;
+    private int lineStartCount;
+    /**
+     * whether the current token had an error registered for it
+     */
+    private boolean tokenHasError;
+    /**
+     * the buffer the tokens go into while scanAll is running, or else null
+     */
+    private TokenBuffer sink;
+    /**
+     * whether terminated comments are passed over without producing tokens
+     */
+    private boolean skipComments;
+
+    /**
+     * creates a new scanner engine over the characters of the given source file
+     *
+     * @param sourceFile the source of the characters to be broken into tokens
+     * @param handler    the ErrorHandler that collects all the errors found
+     * @param namePool   the pool to intern identifier names in
+     */
+    TableDrivenScanner(SourceFile sourceFile, ErrorHandler handler, NamePool namePool) {
+        this(sourceFile.getBuffer(), sourceFile.getLength(), sourceFile.getFilename(),
+                handler, namePool, 0, 1);
+        // the line breaks are all passed over anyway, so the source's LineIndex is
+        // built along the way unless something asks for it first
+        lineSource = sourceFile;
+        lineStarts = new int[Math.max(16, sourceFile.getLength() / 32)];
+        lineStartCount = 1;
+        recordLineBreaks(pos);
+    }
+
+    /**
+     * creates a new scanner engine that starts part way through a buffer. The
+     * engine keeps no state between tokens other than its position and line
+     * number, so if the start offset is the start of a token (or whitespace before
+     * one) it produces exactly the tokens a scanner started at the beginning
+     * would produce from there on.
+     *
+     * @param buffer      the characters to be broken into tokens
+     * @param length      the number of valid characters in the buffer
+     * @param filename    the name of the file being scanned, used for errors
+     * @param handler     the ErrorHandler that collects all the errors found
+     * @param namePool    the pool to intern identifier names in
+     * @param startOffset the index in the buffer to start scanning at
+     * @param startLine   the line number of the character at startOffset
+     */
+    TableDrivenScanner(char[] buffer, int length, String filename, ErrorHandler handler,
+                       NamePool namePool, int startOffset, int startLine) {
+        this.buffer = buffer;
+        this.length = length;
+        this.filename = filename;
+        this.errorHandler = handler;
+        this.namePool = namePool;
+        this.pos = startOffset;
+        this.line = startLine;
+        int i = Math.min(startOffset, length);
+        while (i > 0 && buffer[i - 1] != SourceFile.CR && buffer[i - 1] != SourceFile.EOL) {
+            i--;
+        }
+        this.lineStart = i;
+        skipWhitespace();
+    }
+
+    /**
+     * read characters and collect them into a Token.
+     * It ignores white space unless it is inside a string or a comment.
+     * It returns an EOF Token if all characters have already been read.
+     *
+     * @return the Token containing the characters read, or null if the token
+     * went into the TokenBuffer being filled by scanAll
+     */
+    Token scan() {
+        if (skipComments) {
+            skipCommentTokens();
+        }
+        int start = pos;
+        int startLine = line;
+        tokenStart = start;
+        tokenLine = startLine;
+        tokenLineStart = lineStart;
+        tokenHasError = false;
+
+        if (start >= length) {
+            if (lineSource != null) {
+                lineSource.setLineIndex(LineIndex.fromLineStarts(lineStarts,
+                        lineStartCount, buffer, length));
+                lineSource = null;
+                lineStarts = null;
+            }
+            return emit(Token.Kind.EOF, ONE_CHAR_SPELLING[SourceFile.EOF], length, 0,
+                    line, -1, 0, null);
+        }
+
+        char c = buffer[start];
+        switch (c < 128 ? CHAR_CLASS[c] : classifyNonAscii(c)) {
+            case LETTER:
+                return scanIdentifier(start);
+            case DIGIT:
+                return scanNumber(start);
+            case SINGLE:
+            case END:
+                return finish(c == SourceFile.EOF ? Token.Kind.EOF : SINGLE_KIND[c],
+                        ONE_CHAR_SPELLING[c], start, 1, startLine);
+            case MATH:
+                return scanMath(start, c);
+            case EQUALS:
+                return scanOneOrTwo(start, charAt(start + 1) == '=',
+                        Token.Kind.ASSIGN, Token.Kind.COMPARE);
+            case EXCLAMATION:
+                return scanOneOrTwo(start, charAt(start + 1) == '=',
+                        Token.Kind.UNARYNOT, Token.Kind.COMPARE);
+            case SLASH:
+                return scanSlash(start, startLine);
+            case QUOTE:
+                return scanString(start, startLine);
+            case APOSTROPHE:
+                return scanChar(start, startLine);
+            default:
+                lexError(startLine, "Unsupported Character : " + Character.getNumericValue(c));
+                return finish(Token.Kind.ERROR, c < 128 ? ONE_CHAR_SPELLING[c] : null,
+                        start, 1, startLine);
+        }
+    }
+
+    /**
+     * Scans all the remaining tokens, up to and including the EOF token, straight
+     * into the given buffer. No Token objects are created.
+     *
+     * @param tokens the buffer to add the tokens to
+     */
+    void scanAll(TokenBuffer tokens) {
+        scanUntil(tokens, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Scans tokens straight into the given buffer until the EOF token has been
+     * scanned or the next token would start at or after the given offset.
+     *
+     * @param tokens     the buffer to add the tokens to
+     * @param stopOffset the offset at which to stop
+     * @return whether the EOF token was scanned
+     */
+    boolean scanUntil(TokenBuffer tokens, int stopOffset) {
+        sink = tokens;
+        try {
+            while (true) {
+                // the next token starts after any comments being skipped
+                if (skipComments) {
+                    skipCommentTokens();
+                }
+                if (pos >= stopOffset) {
+                    return false;
+                }
+                scan();
+                if (tokens.getKind(tokens.size() - 1) == Token.Kind.EOF) {
+                    return true;
+                }
+            }
+        } finally {
+            sink = null;
+        }
+    }
+
+    /**
+     * Chooses whether terminated comments are passed over without producing
+     * tokens
+     *
+     * @param skipComments whether to skip comments from the next token on
+     */
+    void setSkipComments(boolean skipComments) {
+        this.skipComments = skipComments;
+    }
+
+    /**
+     * @return the index in the buffer where the next token starts
+     */
+    int getOffset() {
+        return pos;
+    }
+
+    /**
+     * @return the line number where the next token starts
+     */
+    int getLine() {
+        return line;
+    }
+
+    /**
+     * Classifies a character outside of the ASCII range
+     *
+     * @param c the character to classify
+     * @return the character class of c
+     */
+    private static byte classifyNonAscii(char c) {
+        if (Character.isWhitespace(c)) {
+            return WHITESPACE;
+        } else if (Character.isLetter(c)) {
+            return LETTER;
+        }
+        return UNSUPPORTED;
+    }
+
+    /**
+     * Scans an identifier or reserved word. Reserved words, boolean constants and
+     * builtin type names get their constant spelling. Other identifiers and the
+     * type names, which the later phases look up by name, are interned.
+     */
+    private Token scanIdentifier(int start) {
+        int i = start + 1;
+        while (i < length) {
+            char c = buffer[i];
+            if (c < 128 ? !IDENTIFIER_PART[c] : !(Character.isLetterOrDigit(c))) {
+                break;
+            }
+            i++;
+        }
+        int count = i - start;
+        int startLine = line;
+        advanceTo(i);
+        skipWhitespace();
+
+        int keyword = Keywords.find(buffer, start, count);
+        if (keyword >= 0 && Keywords.kindAt(keyword) != Token.Kind.VAR) {
+            return emit(Keywords.kindAt(keyword), Keywords.wordAt(keyword), start,
+                    count, startLine, -1, 0, null);
+        }
+        int id = namePool.intern(buffer, start, count);
+        return emit(keyword >= 0 ? Token.Kind.VAR : Token.Kind.IDENTIFIER,
+                namePool.getName(id), start, count, startLine, id, 0, null);
+    }
+
+    /**
+     * Scans an int or double constant. Like the NumberTokenBuilder, every character
+     * that may appear in a double literal is swallowed and the result is validated
+     * with the library parsers.
+     */
+    private Token scanNumber(int start) {
+        boolean isDouble = false;
+        int i = start + 1;
+        while (i < length) {
+            char c = buffer[i];
+            if (Character.isDigit(c)) {
+                i++;
+            } else if (c == 'd' || c == 'e' || c == 'E' || c == 'f' || c == '+'
+                    || c == '-' || c == '.') {
+                isDouble = true;
+                i++;
+            } else {
+                break;
+            }
+        }
+        String spelling = spelling(start, i - start);
+
+        // the value is kept, since parsing it is how the constant is validated
+        Token.Kind kind = null;
+        long value = 0;
+        if (!isDouble) {
+            try {
+                value = Integer.parseInt(spelling);
+                kind = Token.Kind.INTCONST;
+            } catch (NumberFormatException e) {
+                // too large for an int, but it may still be a valid double
+            }
+        }
+        if (kind == null) {
+            try {
+                value = Double.doubleToRawLongBits(Double.parseDouble(spelling));
+                kind = Token.Kind.DBLCONST;
+            } catch (NumberFormatException e) {
+                lexError(line, "Number constant not valid");
+                kind = Token.Kind.ERROR;
+            }
+        }
+        return finish(kind, spelling, start, i - start, line, value, null);
+    }
+
+    /**
+     * Scans a token starting with one of &amp;|+-*%&lt;&gt;
+     */
+    private Token scanMath(int start, char first) {
+        char second = charAt(start + 1);
+        boolean doubled = second == first
+                && (first == '+' || first == '-' || first == '&' || first == '|');
+        boolean orEquals = second == '=' && (first == '<' || first == '>');
+
+        Token.Kind kind;
+        if (doubled || orEquals) {
+            switch (first) {
+                case '+':
+                    kind = Token.Kind.UNARYINCR;
+                    break;
+                case '-':
+                    kind = Token.Kind.UNARYDECR;
+                    break;
+                case '&':
+                case '|':
+                    kind = Token.Kind.BINARYLOGIC;
+                    break;
+                default:
+                    kind = Token.Kind.COMPARE;
+            }
+            return finish(kind, null, start, 2, line);
+        }
+
+        switch (first) {
+            case '<':
+            case '>':
+                kind = Token.Kind.COMPARE;
+                break;
+            case '+':
+            case '-':
+                kind = Token.Kind.PLUSMINUS;
+                break;
+            case '*':
+            case '%':
+                kind = Token.Kind.MULDIV;
+                break;
+            default: // a lone & or |
+                kind = null;
+        }
+        return finish(kind, ONE_CHAR_SPELLING[first], start, 1, line);
+    }
+
+    /**
+     * Scans a token that is either one character long or two characters long
+     * when the second character is '='
+     */
+    private Token scanOneOrTwo(int start, boolean twoChars, Token.Kind oneCharKind,
+                               Token.Kind twoCharKind) {
+        if (twoChars) {
+            return finish(twoCharKind, null, start, 2, line);
+        }
+        return finish(oneCharKind, ONE_CHAR_SPELLING[buffer[start]], start, 1, line);
+    }
+
+    /**
+     * Scans a division sign or a comment. As with the SlashTokenBuilder, both kinds
+     * of comment end at a "*&#47;" and a "//" comment also ends at a line break.
+     */
+    private Token scanSlash(int start, int startLine) {
+        char second = charAt(start + 1);
+        if (second != '/' && second != '*') {
+            return finish(Token.Kind.MULDIV, ONE_CHAR_SPELLING['/'], start, 1, line);
+        }
+
+        int end = findCommentEnd(buffer, length, start);
+        boolean unterminated = end < 0;
+        if (unterminated) {
+            end = ~end;
+            lexError(startLine, "Unterminated Block Comment!");
+        }
+        return finish(unterminated ? Token.Kind.ERROR : Token.Kind.COMMENT,
+                spellingWithEof(start, end), start, end - start, startLine);
+    }
+
+    /**
+     * Finds the end of the comment starting at the given index, without looking
+     * at the comment's characters any more than needed. Almost every character is
+     * ruled out by a single comparison, since the EOF character and the line
+     * breaks all come before any printable character.
+     *
+     * @param buffer the characters being scanned
+     * @param length the number of valid characters in the buffer
+     * @param start  the index of the '/' starting a "//" or "/*" comment
+     * @return the index just past the end of the comment, or the bitwise
+     * complement of that index if the comment is unterminated. An unterminated
+     * comment includes the EOF character that ended it, so its end may be one
+     * past the end of the buffer.
+     */
+    static int findCommentEnd(char[] buffer, int length, int start) {
+        boolean lineComment = buffer[start + 1] == '/';
+        for (int i = start + 2; i < length; i++) {
+            char c = buffer[i];
+            if (c == '/') {
+                if (i >= start + 3 && buffer[i - 1] == '*') {
+                    return i + 1;
+                }
+            } else if (c <= SourceFile.CR) {
+                if (c == SourceFile.EOF) {
+                    return ~(i + 1);
+                }
+                if (lineComment && (c == SourceFile.EOL || c == SourceFile.CR)) {
+                    return i;
+                }
+            }
+        }
+        return ~(length + 1);
+    }
+
+    /**
+     * Moves pos past any terminated comments and the whitespace after them. An
+     * unterminated comment is left to be scanned as an ERROR token.
+     */
+    private void skipCommentTokens() {
+        while (pos + 1 < length && buffer[pos] == '/'
+                && (buffer[pos + 1] == '/' || buffer[pos + 1] == '*')) {
+            int end = findCommentEnd(buffer, length, pos);
+            if (end < 0) {
+                return;
+            }
+            advanceTo(end);
+            skipWhitespace();
+        }
+    }
+
+    /**
+     * Scans a string constant, checking the escape sequences and the length the
+     * same way the StringTokenBuilder does.
+     */
+    private Token scanString(int start, int startLine) {
+        int i = start + 1;
+        boolean hasEscapes = false;
+        while (true) {
+            char c = charAt(i);
+            boolean escaped = buffer[i - 1] == '\\';
+            hasEscapes |= escaped;
+            boolean complete = false;
+            if (c == '"' && !escaped) {
+                complete = true;
+            }
+            if (c == SourceFile.EOF) {
+                lexError(startLine, "Unterminated String Constant!");
+                complete = true;
+            }
+            if (escaped && !isValidEscape(c)) {
+                lexError(startLine, "Invalid Escaped Character \\" + c + "!");
+            }
+            i++;
+            if (complete) {
+                break;
+            }
+        }
+
+        advanceTo(i);
+        if (startLine != line) {
+            lexError(line, "Multiline String found! Starting @ line: " + startLine);
+        }
+        if (i - start > 5000) {
+            lexError(startLine, "String Exceeds 5000 Characters!");
+        }
+        if (tokenHasError) {
+            return finish(Token.Kind.ERROR, spellingWithEof(start, i), start, i - start,
+                    startLine);
+        }
+        // the value is only decoded now if it differs from the characters
+        // between the quotes
+        String value = hasEscapes ? Literals.decodeEscapes(buffer, start + 1, i - 1) : null;
+        return finish(Token.Kind.STRCONST, null, start, i - start, startLine, 0, value);
+    }
+
+    private static boolean isValidEscape(char c) {
+        return c == 'n' || c == 't' || c == '"' || c == '\\' || c == 'f';
+    }
+
+    /**
+     * Scans a char constant. Anything up to the next apostrophe is part of the
+     * token; it is an error unless exactly one character is enclosed.
+     */
+    private Token scanChar(int start, int startLine) {
+        int i = start + 1;
+        while (i <= length && charAt(i) != '\'') {
+            i++;
+        }
+        i = Math.min(i + 1, length + 1);
+
+        advanceTo(i);
+        if (i - start != 3) {
+            lexError(line, "Char constant too large! A char is a single character");
+            return finish(Token.Kind.ERROR, spellingWithEof(start, i), start, i - start,
+                    startLine);
+        }
+        return finish(Token.Kind.CHRCONST, spellingWithEof(start, i), start, 3, startLine,
+                buffer[start + 1], null);
+    }
+
+    /**
+     * Finishes off a token: moves past its characters and any whitespace after it
+     * and creates the Token.
+     *
+     * @param kind      the kind of the token
+     * @param spelling  the spelling, or null to build it from the span when needed
+     * @param start     the index of the first character of the token
+     * @param count     the number of characters in the token. Its end may be one
+     *                  past the end of the buffer if the end of file was consumed.
+     * @param startLine the line number where the token starts
+     * @return the new Token
+     */
+    private Token finish(Token.Kind kind, String spelling, int start, int count,
+                         int startLine) {
+        return finish(kind, spelling, start, count, startLine, 0, null);
+    }
+
+    /**
+     * Finishes off a constant token along with its value
+     *
+     * @param value       the value of an int, double or char constant, kept as
+     *                    described in the Literals class
+     * @param stringValue the decoded value of a string constant with escape
+     *                    sequences, or null
+     * @return the new Token
+     */
+    private Token finish(Token.Kind kind, String spelling, int start, int count,
+                         int startLine, long value, String stringValue) {
+        advanceTo(start + count);
+        skipWhitespace();
+        return emit(kind, spelling, start, Math.min(count, length - start), startLine,
+                -1, value, stringValue);
+    }
+
+    /**
+     * Hands a finished token to the TokenBuffer being filled, if there is one, or
+     * else creates the Token.
+     *
+     * @return the new Token, or null if the token went into the TokenBuffer
+     */
+    private Token emit(Token.Kind kind, String spelling, int start, int count,
+                       int startLine, int nameId, long value, String stringValue) {
+        if (sink != null) {
+            sink.add(kind, spelling, start, count, startLine, nameId, value, stringValue);
+            return null;
+        }
+        return new Token(kind, spelling, buffer, start, count, startLine, nameId, value,
+                stringValue);
+    }
+
+    /**
+     * @return the character at index i, or EOF if i is past the end of the buffer
+     */
+    private char charAt(int i) {
+        return i < length ? buffer[i] : SourceFile.EOF;
+    }
+
+    private String spelling(int start, int count) {
+        return new String(buffer, start, count);
+    }
+
+    /**
+     * Builds the spelling of a token that was ended by reading past the end of the
+     * buffer. As with the TokenBuilders, that spelling ends with the EOF character.
+     *
+     * @return the spelling, or null if the token lies within the buffer and its
+     * spelling can be built from its span
+     */
+    private String spellingWithEof(int start, int end) {
+        if (end <= length) {
+            return null;
+        }
+        return spelling(start, length - start) + SourceFile.EOF;
+    }
+
+    /**
+     * Moves pos forward to the given index, counting the line breaks passed over.
+     * A CR LF pair counts as a single line break.
+     *
+     * @param end the index to move to. It is clamped to the end of the buffer.
+     */
+    private void advanceTo(int end) {
+        end = Math.min(end, length);
+        for (int i = pos; i < end; i++) {
+            char c = buffer[i];
+            if (c == SourceFile.CR || c == SourceFile.EOL) {
+                countLineBreak(i);
+            }
+        }
+        pos = end;
+    }
+
+    /**
+     * Moves pos past any whitespace, counting the line breaks passed over
+     */
+    private void skipWhitespace() {
+        int i = pos;
+        while (i < length) {
+            char c = buffer[i];
+            if (c < 128 ? CHAR_CLASS[c] != WHITESPACE : !Character.isWhitespace(c)) {
+                break;
+            }
+            if (c == SourceFile.CR || c == SourceFile.EOL) {
+                countLineBreak(i);
+            }
+            i++;
+        }
+        pos = i;
+    }
+
+    /**
+     * Updates the line number for the CR or LF at index i.
+     * A CR LF pair counts as a single line break.
+     */
+    private void countLineBreak(int i) {
+        if (buffer[i] == SourceFile.CR || i == 0 || buffer[i - 1] != SourceFile.CR) {
+            line++;
+            if (lineStarts != null) {
+                recordLineStart(i + 1);
+            }
+        }
+        // the line after a CR LF pair starts after the LF
+        lineStart = i + 1;
+    }
+
+    private void recordLineStart(int start) {
+        if (lineStartCount == lineStarts.length) {
+            lineStarts = Arrays.copyOf(lineStarts, lineStartCount * 2);
+        }
+        lineStarts[lineStartCount++] = start;
+    }
+
+    /**
+     * Records the line breaks before the first token, which the constructor
+     * passed over before there was anywhere to record them
+     */
+    private void recordLineBreaks(int end) {
+        for (int i = 0; i < end; i++) {
+            char c = buffer[i];
+            if (c == SourceFile.CR || (c == SourceFile.EOL
+                    && (i == 0 || buffer[i - 1] != SourceFile.CR))) {
+                recordLineStart(i + 1);
+            }
+        }
+    }
+
+    /**
+     * Registers a lexical error for the current token. An error reported on the
+     * line where the token starts is placed at the token's first character, and
+     * one reported on a later line at the token's last character.
+     *
+     * @param lineNum the line number to report
+     * @param message the error message
+     */
+    private void lexError(int lineNum, String message) {
+        tokenHasError = true;
+        int column = lineNum == tokenLine
+                ? tokenStart - tokenLineStart + 1
+                : errorColumn(pos, lineStart);
+        errorHandler.register(new Error(Error.Kind.LEX_ERROR, filename, lineNum, column,
+                message));
+    }
+
+    /**
+     * Finds the column of the last character of a token that ends on a later line
+     * than it starts. The Scanner places the errors of the TokenBuilders with
+     * this too, so that both engines report the same columns.
+     *
+     * @param end       the index just past the end of the token, clamped to the
+     *                  end of the buffer
+     * @param lineStart the index of the first character of the line it ends on
+     * @return the column, starting at 1
+     */
+    static int errorColumn(int end, int lineStart) {
+        return Math.max(1, end - lineStart);
+    }
+}
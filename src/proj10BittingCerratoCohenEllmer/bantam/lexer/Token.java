@@ -15,8 +15,6 @@
 
  package proj10BittingCerratoCohenEllmer.bantam.lexer;
 
- import java.util.Set;
-
  /**
   * This class represents a meaningful sequence of characters in the
   * source code.
@@ -27,18 +25,157 @@
       */
      public Kind kind;
      /**
-      * the string of characters making up the token
+      * the string of characters making up the token. When the token was created
+      * from a span of the source buffer this is only built when first requested.
       */
-     public String spelling;
+     private String spelling;
      /**
-      * the line number where the token was found in the source code
+      * the line number where the token starts in the source code
       */
      public int position;
+     /**
+      * the source buffer the span of this token refers to, or null if the
+      * token has no span
+      */
+     private final char[] source;
+     /**
+      * the offset in the source of the first character of the token
+      */
+     private final int startOffset;
+     /**
+      * the number of source characters making up the token
+      */
+     private final int length;
+     /**
+      * the id of the token's spelling in the compilation's NamePool, or -1 if
+      * the token is not a name
+      */
+     private final int nameId;
+     /**
+      * the value of an int, double or char constant, kept as described in the
+      * Literals class, or 0
+      */
+     private final long value;
+     /**
+      * the decoded value of a string constant. It is only decoded up front when
+      * the constant has escape sequences; otherwise it is just the characters
+      * between the quotes and is built when first requested.
+      */
+     private String stringValue;
 
+     /**
+      * @return the string of characters making up the token
+      */
      public String getSpelling() {
+         if (spelling == null) {
+             spelling = new String(source, startOffset, length);
+         }
          return spelling;
      }
 
+     /**
+      * @return the offset in the source of the first character of the token,
+      * or -1 if the token was not created from a source span
+      */
+     public int getStartOffset() {
+         return startOffset;
+     }
+
+     /**
+      * @return the offset in the source just past the last character of the
+      * token, or -1 if the token was not created from a source span
+      */
+     public int getEndOffset() {
+         return source == null ? -1 : startOffset + length;
+     }
+
+     /**
+      * @return the number of source characters making up the token
+      */
+     public int getLength() {
+         return length;
+     }
+
+     /**
+      * Finds the column of the token by looking back for the start of its line.
+      * Only diagnostics need the column, so it is not stored in every token.
+      *
+      * @return the column (starting at 1) of the first character of the token,
+      * or -1 if the token was not created from a source span
+      */
+     public int getColumn() {
+         if (source == null) {
+             return -1;
+         }
+         int lineStart = startOffset;
+         while (lineStart > 0 && source[lineStart - 1] != SourceFile.EOL
+                 && source[lineStart - 1] != SourceFile.CR) {
+             lineStart--;
+         }
+         return startOffset - lineStart + 1;
+     }
+
+     /**
+      * @return the id of the token's spelling in the NamePool of the compilation,
+      * or -1 if the token is not an identifier or a type name
+      */
+     public int getNameId() {
+         return nameId;
+     }
+
+     /**
+      * @return the value of an INTCONST token, or 0 for any other token
+      */
+     public int getIntValue() {
+         return kind == Kind.INTCONST ? (int) value : 0;
+     }
+
+     /**
+      * @return the value of a DBLCONST token, or 0 for any other token
+      */
+     public double getDoubleValue() {
+         return kind == Kind.DBLCONST ? Double.longBitsToDouble(value) : 0;
+     }
+
+     /**
+      * @return the character of a CHRCONST token, or 0 for any other token
+      */
+     public char getCharValue() {
+         return kind == Kind.CHRCONST ? (char) value : 0;
+     }
+
+     /**
+      * @return the value of a STRCONST token, without the quotes and with its
+      * escape sequences decoded, or null for any other token
+      */
+     public String getStringValue() {
+         if (kind != Kind.STRCONST) {
+             return null;
+         }
+         if (stringValue == null) {
+             String quoted = getSpelling();
+             stringValue = quoted.substring(1, quoted.length() - 1);
+         }
+         return stringValue;
+     }
+
+     /**
+      * @return the value of an int, double or char constant, kept as described
+      * in the Literals class
+      */
+     long getValueBits() {
+         return value;
+     }
+
+     /**
+      * @return the decoded value of a string constant with escape sequences, or
+      * null if the value is just the characters between the quotes
+      */
+     String getEscapedValue() {
+         return kind == Kind.STRCONST && stringValue != null
+                 && stringValue.length() != length - 2 ? stringValue : null;
+     }
+
 
      /**
       * constructor
@@ -50,27 +187,57 @@
      public Token(Kind kind, String spelling, int position) {
          this.spelling = spelling;
          this.position = position;
+         this.source = null;
+         this.startOffset = -1;
+         this.length = spelling.length();
+         this.nameId = -1;
 
-         // patch the kind field in the cases of boolean constants and keywords,
-         // which are not of kind IDENTIFIER
-         if (kind == Kind.IDENTIFIER && (spelling.equals("true") || spelling.equals("false"))) {
-             this.kind = Kind.BOOLEAN;
-         } else if (kind == Kind.IDENTIFIER && reservedWords.contains(spelling)) {
-             this.kind = Enum.valueOf(Kind.class, spelling.toUpperCase());
-         } else if(kind == Kind.IDENTIFIER && builtinTypes.contains(spelling)) {
-             this.kind = Enum.valueOf(Kind.class,"VAR"); //Converts builtin types to VAR for builtin type checking
-         } else{
-
-             this.kind = kind;
-         }
+         // patch the kind field in the cases of boolean constants, keywords and
+         // builtin types, which are not of kind IDENTIFIER
+         int keyword = kind == Kind.IDENTIFIER ? Keywords.find(spelling) : -1;
+         this.kind = keyword >= 0 ? Keywords.kindAt(keyword) : kind;
+         this.value = Literals.decodeValue(this.kind, spelling);
+         this.stringValue = this.kind == Kind.STRCONST
+                 ? Literals.decodeEscapes(spelling) : null;
+     }
+
+     /**
+      * constructor for a token that refers to a span of the source buffer.
+      * Unlike the other constructor the kind is used as given, so the scanner
+      * must already have told keywords apart from identifiers.
+      *
+      * @param kind        the Kind of token to be created
+      * @param spelling    the characters making up the token, or null to build
+      *                    them from the span when they are first needed
+      * @param source      the source buffer
+      * @param startOffset the offset in the source of the token's first character
+      * @param length      the number of characters in the span
+      * @param position    the line number in the source file where the token starts
+      * @param nameId      the id of the spelling in the NamePool, or -1
+      * @param value       the value of an int, double or char constant, kept as
+      *                    described in the Literals class, or 0
+      * @param stringValue the decoded value of a string constant with escape
+      *                    sequences, or null
+      */
+     Token(Kind kind, String spelling, char[] source, int startOffset, int length,
+           int position, int nameId, long value, String stringValue) {
+         this.kind = kind;
+         this.spelling = spelling;
+         this.source = source;
+         this.startOffset = startOffset;
+         this.length = length;
+         this.position = position;
+         this.nameId = nameId;
+         this.value = value;
+         this.stringValue = stringValue;
      }
 
      /**
       * @return information about this token
       */
      public String toString() {
-         return "Token: Kind=" + kind.name() + ", spelling=" + spelling + ", " +
-                 "position=" + position;
+         return "Token: Kind=" + kind.name() + ", spelling=" + getSpelling() + ", " +
+                 "position=" + position + ", column=" + getColumn();
      }
 
      /**
@@ -98,15 +265,6 @@
          RETURN, WHILE
      }
 
-     /**
-      * a set of all the reserved words of Bantam Java
-      */
-     private static Set<String> reservedWords = Set.of("break", "cast", "class", "var",
-             "else", "extends", "for", "if", "instanceof", "new", "return", "while");
-
-     private static Set<String> builtinTypes = Set.of("int","char", "boolean", "double",
-             "String");
-
  }
 
 	
@@ -0,0 +1,399 @@
+/*
+ * File: TokenBuffer.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.lexer;
+
+import proj10BittingCerratoCohenEllmer.bantam.util.LineIndex;
+import proj10BittingCerratoCohenEllmer.bantam.util.NamePool;
+
+import java.util.Arrays;
+
+/**
+ * All the tokens of a file, stored as parallel arrays of primitives instead of
+ * as Token objects. A token is identified by its index, and its kind, span and
+ * line can be read without creating anything. A Token is only created when
+ * getToken is called. With the table-driven engine the buffer is filled without
+ * creating any Token objects at all.
+ * <p>
+ * The last token in the buffer is always the EOF token.
+ */
+public final class TokenBuffer {
+    private static final Token.Kind[] KINDS = Token.Kind.values();
+    /**
+     * stored in the kinds array for a token without a kind
+     */
+    private static final byte NO_KIND = -1;
+
+    private final char[] source;
+    private final String filename;
+    private final NamePool namePool;
+
+    private byte[] kinds;
+    private int[] startOffsets;
+    private int[] lengths;
+    private int[] lines;
+    private int[] nameIds;
+    private int size;
+
+    /**
+     * the indexes, in increasing order, of the few tokens whose spelling is not
+     * just the characters of their span, such as tokens ended by the end of file
+     */
+    private int[] spellingIndexes = new int[4];
+    /**
+     * the spellings of the tokens in spellingIndexes
+     */
+    private String[] spellings = new String[4];
+    private int spellingCount;
+
+    /**
+     * the indexes, in increasing order, of the constants whose value is not 0
+     * and of the string constants with escape sequences
+     */
+    private int[] valueIndexes = new int[16];
+    /**
+     * the values of the int, double and char constants in valueIndexes, kept as
+     * described in the Literals class
+     */
+    private long[] values = new long[16];
+    /**
+     * the decoded values of the string constants in valueIndexes
+     */
+    private String[] stringValues = new String[16];
+    private int valueCount;
+
+    /**
+     * the index of the lines of the source, built the first time it is needed
+     */
+    private LineIndex lineIndex;
+
+    /**
+     * creates an empty buffer
+     *
+     * @param source   the source buffer the tokens' spans refer to
+     * @param filename the name of the file the tokens come from
+     * @param namePool the pool the names of the tokens are interned in
+     * @param capacity the number of tokens to make room for at first
+     */
+    TokenBuffer(char[] source, String filename, NamePool namePool, int capacity) {
+        this.source = source;
+        this.filename = filename;
+        this.namePool = namePool;
+        this.kinds = new byte[capacity];
+        this.startOffsets = new int[capacity];
+        this.lengths = new int[capacity];
+        this.lines = new int[capacity];
+        this.nameIds = new int[capacity];
+    }
+
+    /**
+     * Scans a whole file into a new TokenBuffer. The errors found are registered
+     * with the scanner's ErrorHandler as usual.
+     *
+     * @param scanner the scanner to take the tokens from. It is used up.
+     * @return the buffer holding every token up to and including EOF
+     */
+    public static TokenBuffer lex(Scanner scanner) {
+        char[] source = scanner.getSourceBuffer();
+        // typical source has about one token for every three or four characters
+        TokenBuffer buffer = new TokenBuffer(source, scanner.getFilename(),
+                scanner.getNamePool(), Math.max(64, scanner.getSourceLength() / 3));
+        if (scanner.scanAll(buffer)) {
+            return buffer;
+        }
+
+        Token token;
+        do {
+            token = scanner.scan();
+            buffer.add(token.kind, token.getSpelling(), token.getStartOffset(),
+                    token.getLength(), token.position, token.getNameId(),
+                    token.getValueBits(), token.getEscapedValue());
+        } while (token.kind != Token.Kind.EOF);
+        return buffer;
+    }
+
+    /**
+     * Adds a token to the end of the buffer
+     *
+     * @param kind        the kind of the token
+     * @param spelling    the spelling of the token, or null. It is only kept if
+     *                    it is not just the characters of the span.
+     * @param startOffset the offset in the source of the token's first character
+     * @param length      the number of characters in the span
+     * @param line        the line where the token starts
+     * @param nameId      the id of the spelling in the NamePool, or -1
+     * @param value       the value of an int, double or char constant, kept as
+     *                    described in the Literals class, or 0
+     * @param stringValue the decoded value of a string constant with escape
+     *                    sequences, or null
+     */
+    void add(Token.Kind kind, String spelling, int startOffset, int length, int line,
+             int nameId, long value, String stringValue) {
+        if (size == kinds.length) {
+            int capacity = size * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            startOffsets = Arrays.copyOf(startOffsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            lines = Arrays.copyOf(lines, capacity);
+            nameIds = Arrays.copyOf(nameIds, capacity);
+        }
+        kinds[size] = kind == null ? NO_KIND : (byte) kind.ordinal();
+        startOffsets[size] = startOffset;
+        lengths[size] = length;
+        lines[size] = line;
+        nameIds[size] = nameId;
+        if (spelling != null && spelling.length() != length) {
+            if (spellingCount == spellings.length) {
+                spellingIndexes = Arrays.copyOf(spellingIndexes, spellingCount * 2);
+                spellings = Arrays.copyOf(spellings, spellingCount * 2);
+            }
+            spellingIndexes[spellingCount] = size;
+            spellings[spellingCount++] = spelling;
+        }
+        if (value != 0 || stringValue != null) {
+            if (valueCount == values.length) {
+                valueIndexes = Arrays.copyOf(valueIndexes, valueCount * 2);
+                values = Arrays.copyOf(values, valueCount * 2);
+                stringValues = Arrays.copyOf(stringValues, valueCount * 2);
+            }
+            valueIndexes[valueCount] = size;
+            values[valueCount] = value;
+            stringValues[valueCount++] = stringValue;
+        }
+        size++;
+    }
+
+    /**
+     * @return the number of tokens, including the EOF token
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the name of the file the tokens come from
+     */
+    public String getFilename() {
+        return filename;
+    }
+
+    /**
+     * @return the pool the names of the tokens are interned in
+     */
+    public NamePool getNamePool() {
+        return namePool;
+    }
+
+    /**
+     * @return the index of the lines of the source, up to where the EOF token
+     * starts. It is built the first time it is asked for.
+     */
+    public LineIndex getLineIndex() {
+        if (lineIndex == null) {
+            lineIndex = LineIndex.of(source, size == 0 ? 0 : startOffsets[size - 1]);
+        }
+        return lineIndex;
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the kind of the token
+     */
+    public Token.Kind getKind(int index) {
+        byte kind = kinds[index];
+        return kind == NO_KIND ? null : KINDS[kind];
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the offset in the source of the first character of the token
+     */
+    public int getStartOffset(int index) {
+        return startOffsets[index];
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the number of source characters in the token
+     */
+    public int getLength(int index) {
+        return lengths[index];
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the line where the token starts
+     */
+    public int getLine(int index) {
+        return lines[index];
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the id of the token's spelling in the NamePool, or -1
+     */
+    public int getNameId(int index) {
+        return nameIds[index];
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the value of an INTCONST token, or 0 for any other token
+     */
+    public int getIntValue(int index) {
+        return getKind(index) == Token.Kind.INTCONST ? (int) valueBits(index) : 0;
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the value of a DBLCONST token, or 0 for any other token
+     */
+    public double getDoubleValue(int index) {
+        return getKind(index) == Token.Kind.DBLCONST
+                ? Double.longBitsToDouble(valueBits(index)) : 0;
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the character of a CHRCONST token, or 0 for any other token
+     */
+    public char getCharValue(int index) {
+        return getKind(index) == Token.Kind.CHRCONST ? (char) valueBits(index) : 0;
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the value of a STRCONST token, without the quotes and with its
+     * escape sequences decoded, or null for any other token
+     */
+    public String getStringValue(int index) {
+        if (getKind(index) != Token.Kind.STRCONST) {
+            return null;
+        }
+        String value = escapedValue(index);
+        return value != null ? value
+                : new String(source, startOffsets[index] + 1, lengths[index] - 2);
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the characters making up the token
+     */
+    public String getSpelling(int index) {
+        if (nameIds[index] >= 0) {
+            return namePool.getName(nameIds[index]);
+        }
+        String spelling = ownSpelling(index);
+        return spelling != null ? spelling
+                : new String(source, startOffsets[index], lengths[index]);
+    }
+
+    /**
+     * Creates a Token object for one of the tokens in the buffer
+     *
+     * @param index the index of a token
+     * @return a new Token equal to the one the scanner produced
+     */
+    public Token getToken(int index) {
+        String spelling = nameIds[index] >= 0 ? namePool.getName(nameIds[index])
+                : ownSpelling(index);
+        return new Token(getKind(index), spelling, source, startOffsets[index],
+                lengths[index], lines[index], nameIds[index], valueBits(index),
+                escapedValue(index));
+    }
+
+    /**
+     * Creates a Token object for one of the tokens in the buffer, for a reader
+     * going through the tokens in order. Instead of searching the spellings and
+     * values stored for a few tokens, it walks forward from where the reader's
+     * previous token left off.
+     *
+     * @param index     the index of a token
+     * @param positions the positions in the stored spellings and values to
+     *                  start from, updated for the next token. Both are 0 for
+     *                  a reader starting out.
+     * @return a new Token equal to the one the scanner produced
+     */
+    Token getToken(int index, int[] positions) {
+        int spelling = seek(spellingIndexes, spellingCount, positions[0], index);
+        int value = seek(valueIndexes, valueCount, positions[1], index);
+        positions[0] = spelling;
+        positions[1] = value;
+        boolean hasValue = value < valueCount && valueIndexes[value] == index;
+        return new Token(getKind(index), nameIds[index] >= 0
+                ? namePool.getName(nameIds[index])
+                : spelling < spellingCount && spellingIndexes[spelling] == index
+                ? spellings[spelling] : null, source, startOffsets[index],
+                lengths[index], lines[index], nameIds[index],
+                hasValue ? values[value] : 0, hasValue ? stringValues[value] : null);
+    }
+
+    /**
+     * Finds the first of the sorted indexes that is not below a token's index
+     *
+     * @param indexes  the sorted indexes
+     * @param count    the number of indexes
+     * @param position where the token before should have been found
+     * @param index    the token's index
+     * @return the position of the first of the indexes not below the token's
+     * index, or count if there is none
+     */
+    private static int seek(int[] indexes, int count, int position, int index) {
+        if (position <= count && (position == 0 || indexes[position - 1] < index)) {
+            // usually the token is just past the previous one, so a few steps do
+            for (int steps = 0; steps < 8; steps++, position++) {
+                if (position == count || indexes[position] >= index) {
+                    return position;
+                }
+            }
+        }
+        int found = Arrays.binarySearch(indexes, 0, count, index);
+        return found >= 0 ? found : -found - 1;
+    }
+
+    /**
+     * Finds the token that starts at the given offset
+     *
+     * @param startOffset an offset in the source
+     * @return the index of the token starting there, or a negative number if no
+     * token starts there
+     */
+    int indexOfStart(int startOffset) {
+        return Arrays.binarySearch(startOffsets, 0, size, startOffset);
+    }
+
+    /**
+     * @return the spelling stored for a token whose spelling is not just the
+     * characters of its span, or null
+     */
+    String ownSpelling(int index) {
+        int found = Arrays.binarySearch(spellingIndexes, 0, spellingCount, index);
+        return found >= 0 ? spellings[found] : null;
+    }
+
+    /**
+     * @return the value of an int, double or char constant, kept as described
+     * in the Literals class, or 0
+     */
+    long valueBits(int index) {
+        int found = Arrays.binarySearch(valueIndexes, 0, valueCount, index);
+        return found >= 0 ? values[found] : 0;
+    }
+
+    /**
+     * @return the decoded value of a string constant with escape sequences, or
+     * null
+     */
+    String escapedValue(int index) {
+        int found = Arrays.binarySearch(valueIndexes, 0, valueCount, index);
+        return found >= 0 ? stringValues[found] : null;
+    }
+
+    /**
+     * @return a new cursor positioned at the first token
+     */
+    public TokenCursor cursor() {
+        return new TokenCursor(this);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * File: TokenCursor.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.lexer;
+
+import proj10BittingCerratoCohenEllmer.bantam.util.LineIndex;
+
+/**
+ * A position in a TokenBuffer. It hands out the tokens in order like a Scanner
+ * does, but can also look ahead any distance and return to a marked position,
+ * so the same tokens can be parsed again without scanning them again.
+ */
+public class TokenCursor implements TokenSource {
+    private final TokenBuffer buffer;
+    /**
+     * the index of the token the next call to scan returns
+     */
+    private int index;
+    /**
+     * where the buffer's stored spellings and values were left off, for
+     * getting the tokens in order
+     */
+    private final int[] positions = new int[2];
+
+    /**
+     * creates a cursor positioned at the first token of the buffer
+     *
+     * @param buffer the tokens to go through
+     */
+    public TokenCursor(TokenBuffer buffer) {
+        this.buffer = buffer;
+        this.index = 0;
+    }
+
+    /**
+     * Returns the next token and moves past it. At the end of the buffer the EOF
+     * token is returned again and again.
+     *
+     * @return the next Token
+     */
+    public Token scan() {
+        Token token = buffer.getToken(index, positions);
+        if (index < buffer.size() - 1) {
+            index++;
+        }
+        return token;
+    }
+
+    /**
+     * @return the name of the file the tokens come from
+     */
+    public String getFilename() {
+        return buffer.getFilename();
+    }
+
+    /**
+     * @return the index of the lines of the source the tokens come from
+     */
+    public LineIndex getLineIndex() {
+        return buffer.getLineIndex();
+    }
+
+    /**
+     * Finds the kind of a token ahead without moving the cursor
+     *
+     * @param distance how far ahead to look. 0 is the token scan returns next.
+     * @return the kind of that token, or EOF if it is past the end of the buffer
+     */
+    public Token.Kind peekKind(int distance) {
+        return buffer.getKind(indexAhead(distance));
+    }
+
+    /**
+     * Finds a token ahead without moving the cursor
+     *
+     * @param distance how far ahead to look. 0 is the token scan returns next.
+     * @return that token, or the EOF token if it is past the end of the buffer
+     */
+    public Token peek(int distance) {
+        return buffer.getToken(indexAhead(distance));
+    }
+
+    /**
+     * @return a mark for the current position, to be passed to reset
+     */
+    public int mark() {
+        return index;
+    }
+
+    /**
+     * Moves the cursor back (or forward) to a marked position
+     *
+     * @param mark a value returned by mark
+     */
+    public void reset(int mark) {
+        if (mark < 0 || mark >= buffer.size()) {
+            throw new IllegalArgumentException("Invalid token mark " + mark);
+        }
+        index = mark;
+    }
+
+    /**
+     * @return the buffer this cursor goes through
+     */
+    public TokenBuffer getBuffer() {
+        return buffer;
+    }
+
+    private int indexAhead(int distance) {
+        return Math.min(index + distance, buffer.size() - 1);
+    }
+}
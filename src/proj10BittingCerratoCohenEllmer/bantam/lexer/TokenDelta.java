@@ -0,0 +1,93 @@
+/*
+ * File: TokenDelta.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.lexer;
+
+/**
+ * Describes how the tokens of an IncrementalLexer changed after an edit: a run
+ * of old tokens was replaced by a run of new tokens, and every token after them
+ * moved by the same number of characters and lines. An editor only needs to
+ * restyle the characters between getStartOffset and getEndOffset.
+ */
+public final class TokenDelta {
+    private final int firstIndex;
+    private final int removedCount;
+    private final int insertedCount;
+    private final int startOffset;
+    private final int endOffset;
+    private final int offsetDelta;
+    private final int lineDelta;
+
+    TokenDelta(int firstIndex, int removedCount, int insertedCount, int startOffset,
+               int endOffset, int offsetDelta, int lineDelta) {
+        this.firstIndex = firstIndex;
+        this.removedCount = removedCount;
+        this.insertedCount = insertedCount;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.offsetDelta = offsetDelta;
+        this.lineDelta = lineDelta;
+    }
+
+    /**
+     * @return the index of the first token that was replaced. The tokens before
+     * it did not change.
+     */
+    public int getFirstIndex() {
+        return firstIndex;
+    }
+
+    /**
+     * @return the number of old tokens that were removed
+     */
+    public int getRemovedCount() {
+        return removedCount;
+    }
+
+    /**
+     * @return the number of new tokens put in their place, starting at
+     * getFirstIndex
+     */
+    public int getInsertedCount() {
+        return insertedCount;
+    }
+
+    /**
+     * @return the offset in the new text where the scanning started
+     */
+    public int getStartOffset() {
+        return startOffset;
+    }
+
+    /**
+     * @return the offset in the new text where the new tokens met the old ones
+     * again. The text and tokens from here on are the old ones, moved.
+     */
+    public int getEndOffset() {
+        return endOffset;
+    }
+
+    /**
+     * @return how far the tokens after the new ones moved, in characters
+     */
+    public int getOffsetDelta() {
+        return offsetDelta;
+    }
+
+    /**
+     * @return how far the tokens after the new ones moved, in lines
+     */
+    public int getLineDelta() {
+        return lineDelta;
+    }
+
+    /**
+     * @return information about this delta
+     */
+    public String toString() {
+        return "TokenDelta: firstIndex=" + firstIndex + ", removed=" + removedCount +
+                ", inserted=" + insertedCount + ", range=" + startOffset + "-" +
+                endOffset + ", offsetDelta=" + offsetDelta + ", lineDelta=" + lineDelta;
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * File: TokenSource.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.lexer;
+
+import proj10BittingCerratoCohenEllmer.bantam.util.LineIndex;
+
+/**
+ * Anything the parser can pull tokens from: a Scanner working through the source
+ * or a cursor over tokens that were already scanned.
+ */
+public interface TokenSource {
+    /**
+     * Returns the next token. Once the EOF token has been returned, every
+     * further call returns an EOF token.
+     *
+     * @return the next Token
+     */
+    Token scan();
+
+    /**
+     * @return the name of the file the tokens come from
+     */
+    String getFilename();
+
+    /**
+     * @return the index of the lines of the source the tokens come from, for
+     * turning the offsets of tokens into columns, or null if it is not known
+     */
+    LineIndex getLineIndex();
+}
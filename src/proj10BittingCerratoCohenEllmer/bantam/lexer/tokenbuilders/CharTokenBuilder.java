@@ -40,6 +40,6 @@ public class CharTokenBuilder extends TokenBuilder {
             tokenKind = Token.Kind.CHRCONST;
         }
 
-        return new Token(tokenKind, makeStackString(false), currentLineNumber);
+        return new Token(tokenKind, makeStackString(false), startingLineNumber);
     }
 }
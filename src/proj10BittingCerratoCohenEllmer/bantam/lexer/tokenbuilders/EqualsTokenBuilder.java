@@ -46,6 +46,6 @@ public class EqualsTokenBuilder extends TokenBuilder {
             tokenKind = Token.Kind.COMPARE;
         }
 
-        return new Token(tokenKind, makeStackString(false), currentLineNumber);
+        return new Token(tokenKind, makeStackString(false), startingLineNumber);
     }
 }
@@ -42,9 +42,9 @@ public class ExclamationTokenBuilder extends TokenBuilder {
         }
         if(spellingStack.size() == 1){
             return new Token(Token.Kind.UNARYNOT,
-                makeStackString(false), currentLineNumber);
+                makeStackString(false), startingLineNumber);
         }
         return new Token(Token.Kind.COMPARE,
-            makeStackString(false), currentLineNumber);
+            makeStackString(false), startingLineNumber);
     }
 }
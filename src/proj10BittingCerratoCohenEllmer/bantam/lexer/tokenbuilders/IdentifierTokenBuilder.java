@@ -37,6 +37,6 @@ public class IdentifierTokenBuilder extends TokenBuilder {
         }
 
         return new Token(Token.Kind.IDENTIFIER,
-            makeStackString(false), currentLineNumber);
+            makeStackString(false), startingLineNumber);
     }
 }
@@ -46,7 +46,7 @@ public class MathTokenBuilder extends TokenBuilder {
             throw new MalformedSpellingStackException("You need to pop the stack first");
         }
 
-        return new Token(getTokenKind(), makeStackString(false), currentLineNumber);
+        return new Token(getTokenKind(), makeStackString(false), startingLineNumber);
     }
 
     /**
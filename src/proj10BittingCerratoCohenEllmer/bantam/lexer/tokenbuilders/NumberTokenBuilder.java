@@ -46,7 +46,7 @@ public class NumberTokenBuilder extends TokenBuilder {
         }
 
         return new Token(getTokenKind(currentLineNumber), makeStackString(false),
-                currentLineNumber);
+                startingLineNumber);
     }
 
     private Token.Kind getTokenKind(int currentLineNumber) {
@@ -27,7 +27,7 @@ public class SingleCharTokenBuilder extends TokenBuilder {
     @Override
     public Token getFinalToken(int currentLineNumber) {
         return new Token(getTokenType(),
-            makeStackString(false), currentLineNumber);
+            makeStackString(false), startingLineNumber);
     }
 
     /**
@@ -84,7 +84,7 @@ public class SlashTokenBuilder extends TokenBuilder {
             tokenKind = Token.Kind.MULDIV;
         }
 
-        return new Token(tokenKind, makeStackString(false), currentLineNumber);
+        return new Token(tokenKind, makeStackString(false), startingLineNumber);
 
     }
 }
@@ -92,6 +92,6 @@ public class StringTokenBuilder extends TokenBuilder {
             tokenKind = Token.Kind.STRCONST;
         }
 
-        return new Token(tokenKind, makeStackString(false), currentLineNumber);
+        return new Token(tokenKind, makeStackString(false), startingLineNumber);
     }
 }
@@ -136,7 +136,8 @@ public abstract class TokenBuilder {
      * if the flag for popLastBeforeCreation has been handled and raise a
      * MalformedSpellingStackException if it has not.
      *
-     * @param currentLineNumber the current line number. Used to identify multiline strings.
+     * @param currentLineNumber the line number of the last character of the token. Used
+     *                          to identify multiline strings.
      * @return Token with all the relevant information
      */
     public abstract Token getFinalToken(int currentLineNumber)
@@ -31,6 +31,6 @@ public class UnsupportedCharTokenBuilder extends TokenBuilder {
         tokenErrors.add(new Error(Error.Kind.LEX_ERROR, filename,
                 currentLineNumber,
                 "Unsupported Character : " + Character.getNumericValue(spellingStack.peek())));
-        return new Token(Token.Kind.ERROR, makeStackString(false), currentLineNumber);
+        return new Token(Token.Kind.ERROR, makeStackString(false), startingLineNumber);
     }
 }
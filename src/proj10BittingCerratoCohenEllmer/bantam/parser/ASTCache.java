@@ -0,0 +1,157 @@
+/*
+ * File: ASTCache.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.parser;
+
+import proj10BittingCerratoCohenEllmer.bantam.ast.ASTNode;
+import proj10BittingCerratoCohenEllmer.bantam.ast.FlatAST;
+import proj10BittingCerratoCohenEllmer.bantam.ast.Program;
+import proj10BittingCerratoCohenEllmer.bantam.util.NamePool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A directory of the ASTs of sources that were parsed before, so that a file
+ * that has not changed since is read back instead of being scanned and parsed
+ * again.
+ * <p>
+ * Each AST is kept in a file of its own, in the form written by
+ * FlatAST.toBytes, named after a SHA-256 hash of the bytes of the source, the
+ * name of the file (which the Class_ nodes hold) and Parser.VERSION. A source
+ * that changed, or that a different version of the parser would parse
+ * differently, is looked for under a different name and not found. Each file
+ * is read in full and decoded straight into the nodes of a new AST.
+ * <p>
+ * The cache is only a shortcut: when a file in it cannot be read, written or
+ * does not hold an AST, the source is simply parsed again.
+ */
+public class ASTCache {
+    /**
+     * the first four bytes of each file, "BAST"
+     */
+    private static final int MAGIC = 0x42415354;
+
+    private final Path directory;
+
+    /**
+     * Creates a cache keeping its files in the given directory, which is
+     * created when the first AST is stored
+     *
+     * @param directory the directory
+     */
+    public ASTCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the directory holding the files of the cache
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Reads back the AST of a source, if it was stored
+     *
+     * @param source   the bytes of the source
+     * @param filename the name of the file holding the source
+     * @param names     the pool to intern the names and types of the AST in
+     * @param constants the pool to share the spellings and values of the
+     *                  constants of the AST through, or null to leave them
+     *                  as they are read
+     * @return a new AST equal to the one stored, or null if there is none
+     */
+    public Program load(byte[] source, String filename, NamePool names,
+                        NamePool constants) {
+        Path path = directory.resolve(key(source, filename));
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(path));
+            if (bytes.remaining() < 4 || bytes.getInt() != MAGIC) {
+                return null;
+            }
+            ASTNode root = FlatAST.inflate(bytes, names::canonical,
+                    constants == null ? null : constants::canonical);
+            return root instanceof Program ? (Program) root : null;
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores the AST of a source, replacing any stored before for the same
+     * source. Method bodies that were not parsed yet are parsed. When the AST
+     * cannot be stored, the cache is left as it was.
+     *
+     * @param source   the bytes of the source
+     * @param filename the name of the file holding the source
+     * @param program  the AST the source was parsed into, without syntax errors
+     */
+    public void store(byte[] source, String filename, Program program) {
+        try {
+            byte[] ast = new FlatAST(program).toBytes();
+            ByteBuffer bytes = ByteBuffer.allocate(ast.length + 4);
+            bytes.putInt(MAGIC).put(ast);
+            Files.createDirectories(directory);
+            // written next to its final name and moved there, so that a file
+            // under that name always holds a whole AST
+            Path temporary = Files.createTempFile(directory, "ast", ".tmp");
+            try {
+                Files.write(temporary, bytes.array());
+                Files.move(temporary, directory.resolve(key(source, filename)),
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException | RuntimeException e) {
+            // the source is parsed again next time
+        }
+    }
+
+    /**
+     * Reads the bytes of a source file
+     *
+     * @param filename the name of the file
+     * @return its bytes, or null if it cannot be read
+     */
+    static byte[] readSource(String filename) {
+        try {
+            return Files.readAllBytes(Path.of(filename));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // the name of the file holding the AST of a source
+    private static String key(byte[] source, String filename) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has SHA-256
+            throw new IllegalStateException(e);
+        }
+        digest.update(ByteBuffer.allocate(4).putInt(Parser.VERSION).array());
+        byte[] name = filename.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(4).putInt(name.length).array());
+        digest.update(name);
+        digest.update(source);
+        StringBuilder key = new StringBuilder(72);
+        for (byte b : digest.digest()) {
+            key.append(Character.forDigit((b >> 4) & 0xf, 16))
+                    .append(Character.forDigit(b & 0xf, 16));
+        }
+        return key.append(".ast").toString();
+    }
+}
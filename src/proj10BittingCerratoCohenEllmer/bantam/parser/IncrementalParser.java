@@ -0,0 +1,489 @@
+/*
+ * File: IncrementalParser.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.parser;
+
+import proj10BittingCerratoCohenEllmer.bantam.ast.ASTNode;
+import proj10BittingCerratoCohenEllmer.bantam.ast.Class_;
+import proj10BittingCerratoCohenEllmer.bantam.ast.Member;
+import proj10BittingCerratoCohenEllmer.bantam.ast.Program;
+import proj10BittingCerratoCohenEllmer.bantam.lexer.IncrementalLexer;
+import proj10BittingCerratoCohenEllmer.bantam.lexer.Token;
+import proj10BittingCerratoCohenEllmer.bantam.lexer.TokenDelta;
+import proj10BittingCerratoCohenEllmer.bantam.lexer.TokenSource;
+import proj10BittingCerratoCohenEllmer.bantam.util.Error;
+import proj10BittingCerratoCohenEllmer.bantam.util.ErrorHandler;
+import proj10BittingCerratoCohenEllmer.bantam.util.KindIndex;
+import proj10BittingCerratoCohenEllmer.bantam.util.LineIndex;
+import proj10BittingCerratoCohenEllmer.bantam.util.NamePool;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the AST of a text that is being edited up to date without parsing the
+ * whole text after every edit.
+ * <p>
+ * The tokens are kept by an IncrementalLexer, and for every class and every
+ * field or method the parser keeps the run of tokens it was parsed from and the
+ * syntax errors found in it. After an edit, only the smallest member or class
+ * whose tokens hold all the tokens that changed is parsed again, and the new
+ * node takes the old one's place in its MemberList or ClassList. The rest of
+ * the AST is kept as it is, down to the identity of its nodes, except that the
+ * nodes after the edit move to their new lines. If the new node does not end
+ * exactly where the old one did, the edit changed the structure around it, so
+ * the enclosing class is parsed again instead, and failing that the whole text.
+ * The syntax errors after the edit move to their new lines too, but the whole
+ * text is parsed again when one of them is on the line the edit ends on, since
+ * its column may have changed.
+ * <p>
+ * The parser always goes on after syntax errors, so there is always an AST,
+ * with ErrorStmts and ErrorMembers where the errors were. It is always equal to
+ * the one a Parser that goes on after errors builds for the whole text, with
+ * the same syntax errors. Lexical errors are not collected; see
+ * IncrementalLexer.
+ * <p>
+ * A KindIndex of the AST is kept up to date along with it: the index of a class
+ * is built again when the class or one of its members is parsed again, and the
+ * rest of the index is kept.
+ */
+public class IncrementalParser {
+    /**
+     * the tokens and syntax errors a field or method was parsed from
+     */
+    private static class MemberRange {
+        Member member;
+        int start;
+        int end;
+        final List<Error> errors = new ArrayList<>();
+    }
+
+    /**
+     * the tokens and syntax errors a class was parsed from. The errors of its
+     * members are kept with the members.
+     */
+    private static class ClassRange {
+        Class_ aClass;
+        int start;
+        int end;
+        final List<MemberRange> members = new ArrayList<>();
+        final List<Error> headErrors = new ArrayList<>();
+        final List<Error> tailErrors = new ArrayList<>();
+    }
+
+    private final IncrementalLexer lexer;
+    private final Parser parser;
+    /**
+     * the list the errors the parser registers go to
+     */
+    private List<Error> errorTarget = new ArrayList<>();
+    private Program program;
+    private KindIndex kindIndex;
+    private List<ClassRange> classes = new ArrayList<>();
+    private ASTNode lastReparsed;
+
+    /**
+     * creates a parser for the given text and parses all of it
+     *
+     * @param text     the text to parse
+     * @param filename the name of the file holding the text
+     */
+    public IncrementalParser(String text, String filename) {
+        lexer = new IncrementalLexer(text, filename, new NamePool());
+        parser = new Parser(new ErrorHandler() {
+            @Override
+            public void register(Error error) {
+                errorTarget.add(error);
+            }
+        });
+        parser.setIndexing(true);
+        parseAll();
+    }
+
+    /**
+     * Replaces a range of the text and updates the tokens and the AST
+     *
+     * @param start       the offset of the first character to replace
+     * @param end         the offset just past the last character to replace
+     * @param replacement the characters to put in their place
+     * @return how the tokens changed
+     */
+    public TokenDelta edit(int start, int end, String replacement) {
+        TokenDelta delta = lexer.edit(start, end, replacement);
+        if (!reparseMember(delta) && !reparseClass(delta)) {
+            parseAll();
+        }
+        return delta;
+    }
+
+    /**
+     * @return the AST of the current text
+     */
+    public Program getProgram() {
+        return program;
+    }
+
+    /**
+     * @return the node built by the most recent parse: the Member or Class_
+     * that was parsed again after the last edit, or the Program if the whole
+     * text was parsed
+     */
+    public ASTNode getLastReparsed() {
+        return lastReparsed;
+    }
+
+    /**
+     * @return the syntax errors of the current text, in the order an
+     * ErrorHandler keeps them
+     */
+    public List<Error> getErrors() {
+        ErrorHandler errors = new ErrorHandler();
+        for (ClassRange range : classes) {
+            range.headErrors.forEach(errors::register);
+            for (MemberRange member : range.members) {
+                member.errors.forEach(errors::register);
+            }
+            range.tailErrors.forEach(errors::register);
+        }
+        return errors.getErrorList();
+    }
+
+    /**
+     * @return the index of the AST of the current text
+     */
+    public KindIndex getKindIndex() {
+        return kindIndex;
+    }
+
+    /**
+     * @return the lexer holding the text and its tokens
+     */
+    public IncrementalLexer getLexer() {
+        return lexer;
+    }
+
+    //parse the whole text again
+    private void parseAll() {
+        List<ClassRange> newClasses = new ArrayList<>();
+        LexerCursor cursor = new LexerCursor(0);
+        program = parser.parseWithListener(cursor, new Recorder(cursor, newClasses));
+        classes = newClasses;
+        kindIndex = parser.getKindIndex();
+        lastReparsed = program;
+    }
+
+    //parse again the member holding all the tokens that changed, if there is
+    //one and it still ends where it did. False if nothing was changed.
+    private boolean reparseMember(TokenDelta delta) {
+        int first = delta.getFirstIndex();
+        int changedEnd = first + delta.getRemovedCount();
+        int classIndex = findClass(first, changedEnd);
+        if (classIndex < 0) {
+            return false;
+        }
+        ClassRange range = classes.get(classIndex);
+        int memberIndex = -1;
+        for (int i = 0; i < range.members.size(); i++) {
+            MemberRange member = range.members.get(i);
+            if (member.start <= first && changedEnd <= member.end) {
+                memberIndex = i;
+                break;
+            }
+        }
+        if (range.aClass == null || memberIndex < 0) {
+            return false;
+        }
+        MemberRange old = range.members.get(memberIndex);
+        int tokenDelta = delta.getInsertedCount() - delta.getRemovedCount();
+        Token.Kind startKind = lexer.getKind(old.start);
+        if (old.end == range.end || startKind == Token.Kind.RCURLY
+                || startKind == Token.Kind.EOF
+                || errorsMove(delta, classIndex + 1, memberIndex + 1, range)) {
+            // the class ended right after the member without its closing brace,
+            // or would now end before the member, or errors after it change
+            // columns
+            return false;
+        }
+
+        ClassRange holder = new ClassRange();
+        LexerCursor cursor = new LexerCursor(old.start);
+        Recorder recorder = new Recorder(cursor, null);
+        recorder.currentClass = holder;
+        Member member = parser.parseMemberWithListener(cursor, recorder);
+        if (member == null || holder.members.get(0).end != old.end + tokenDelta) {
+            return false;
+        }
+
+        MemberRange replacement = holder.members.get(0);
+        range.members.set(memberIndex, replacement);
+        range.aClass.getMemberList().set(memberIndex, member);
+        kindIndex.classChanged(range.aClass);
+        shiftFollowing(delta, classIndex, memberIndex + 1);
+        range.end += tokenDelta;
+        // the class and its member list end after the edit
+        stretch(range.aClass, delta.getOffsetDelta());
+        stretch(range.aClass.getMemberList(), delta.getOffsetDelta());
+        lastReparsed = member;
+        return true;
+    }
+
+    //parse again the class holding all the tokens that changed, if there is one
+    //and it still ends where it did. False if nothing was changed.
+    private boolean reparseClass(TokenDelta delta) {
+        int first = delta.getFirstIndex();
+        int classIndex = findClass(first, first + delta.getRemovedCount());
+        if (classIndex < 0) {
+            return false;
+        }
+        ClassRange old = classes.get(classIndex);
+        int tokenDelta = delta.getInsertedCount() - delta.getRemovedCount();
+        Token.Kind startKind = lexer.getKind(old.start);
+        if (startKind == Token.Kind.EOF
+                || (first == old.start && classIndex > 0 && startKind != Token.Kind.CLASS)
+                || errorsMove(delta, classIndex + 1, 0, null)) {
+            // the class before might run on into this one, or errors after it
+            // change columns
+            return false;
+        }
+
+        List<ClassRange> holder = new ArrayList<>();
+        LexerCursor cursor = new LexerCursor(old.start);
+        Class_ aClass = parser.parseClassWithListener(cursor, new Recorder(cursor, holder));
+        ClassRange replacement = holder.get(0);
+        if (aClass == null || old.aClass == null
+                || replacement.end != old.end + tokenDelta) {
+            return false;
+        }
+
+        program.getClassList().set(listIndex(classIndex), aClass);
+        classes.set(classIndex, replacement);
+        kindIndex.replaceClass(old.aClass, aClass);
+        shiftFollowing(delta, classIndex + 1, 0);
+        lastReparsed = aClass;
+        return true;
+    }
+
+    //the index of the class whose tokens hold the tokens from first up to
+    //changedEnd, or -1 if there is none
+    private int findClass(int first, int changedEnd) {
+        for (int i = 0; i < classes.size(); i++) {
+            ClassRange range = classes.get(i);
+            if (range.start <= first && changedEnd <= range.end) {
+                return i;
+            }
+            if (range.start > first) {
+                break;
+            }
+        }
+        return -1;
+    }
+
+    //the index in the ClassList of the class with the given range, counting
+    //only the classes that were not skipped
+    private int listIndex(int classIndex) {
+        int index = 0;
+        for (int i = 0; i < classIndex; i++) {
+            if (classes.get(i).aClass != null) {
+                index++;
+            }
+        }
+        return index;
+    }
+
+    //whether the edit moves a syntax error found after it along its line, so
+    //that its column changes: one on the line the edit ends on, among the
+    //errors of the classes from firstClass on, of the members of range from
+    //firstMember on, and at the end of range
+    private boolean errorsMove(TokenDelta delta, int firstClass, int firstMember,
+                               ClassRange range) {
+        int line = lexer.getLine(delta.getFirstIndex() + delta.getInsertedCount())
+                - delta.getLineDelta();
+        if (range != null) {
+            if (onLine(range.tailErrors, line)) {
+                return true;
+            }
+            for (int i = firstMember; i < range.members.size(); i++) {
+                if (onLine(range.members.get(i).errors, line)) {
+                    return true;
+                }
+            }
+        }
+        for (int i = firstClass; i < classes.size(); i++) {
+            ClassRange later = classes.get(i);
+            if (onLine(later.headErrors, line) || onLine(later.tailErrors, line)) {
+                return true;
+            }
+            for (MemberRange member : later.members) {
+                if (onLine(member.errors, line)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean onLine(List<Error> errors, int line) {
+        for (Error error : errors) {
+            if (error.getLineNum() == line) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void stretch(ASTNode node, int offsetDelta) {
+        node.setRange(node.getStartOffset(), node.getEndOffset() + offsetDelta);
+    }
+
+    //move the ranges, nodes and errors after the edit to their new tokens,
+    //lines and offsets: the members of the class at classIndex from firstMember on and the
+    //errors at its end, if firstMember is not 0, and the classes after it
+    private void shiftFollowing(TokenDelta delta, int classIndex, int firstMember) {
+        int tokenDelta = delta.getInsertedCount() - delta.getRemovedCount();
+        int lineDelta = delta.getLineDelta();
+        PositionShifter shifter = lineDelta != 0 || delta.getOffsetDelta() != 0
+                ? new PositionShifter(lineDelta, delta.getOffsetDelta()) : null;
+        if (firstMember > 0) {
+            ClassRange range = classes.get(classIndex);
+            for (int i = firstMember; i < range.members.size(); i++) {
+                shift(range.members.get(i), tokenDelta, lineDelta, shifter);
+            }
+            moveErrors(range.tailErrors, lineDelta);
+            classIndex++;
+        }
+        for (int i = classIndex; i < classes.size(); i++) {
+            ClassRange range = classes.get(i);
+            range.start += tokenDelta;
+            range.end += tokenDelta;
+            for (MemberRange member : range.members) {
+                // the class's nodes are shifted all at once below
+                shift(member, tokenDelta, lineDelta, null);
+            }
+            moveErrors(range.headErrors, lineDelta);
+            moveErrors(range.tailErrors, lineDelta);
+            if (shifter != null && range.aClass != null) {
+                shifter.traverse(range.aClass);
+            }
+        }
+        // the program and its class list run from the first token to the last
+        int first = firstToken();
+        int last = lexer.getTokenCount() - 2;
+        while (last >= 0 && lexer.getKind(last) == Token.Kind.COMMENT) {
+            last--;
+        }
+        int end = last >= 0 ? lexer.getStartOffset(last) + lexer.getLength(last) : 0;
+        int start = last >= 0 ? lexer.getStartOffset(first) : 0;
+        for (ASTNode node : new ASTNode[]{program, program.getClassList()}) {
+            node.setLineNum(lexer.getLine(first));
+            node.setRange(start, end);
+        }
+    }
+
+    private static void shift(MemberRange member, int tokenDelta, int lineDelta,
+                              PositionShifter shifter) {
+        member.start += tokenDelta;
+        member.end += tokenDelta;
+        moveErrors(member.errors, lineDelta);
+        if (shifter != null) {
+            shifter.traverse(member.member);
+        }
+    }
+
+    //move syntax errors down by lineDelta lines, along with the line their
+    //messages give
+    private static void moveErrors(List<Error> errors, int lineDelta) {
+        if (lineDelta == 0) {
+            return;
+        }
+        errors.replaceAll(error -> {
+            int line = error.getLineNum() + lineDelta;
+            String message = error.getMessage();
+            String at = "At line " + error.getLineNum() + ",";
+            if (message.startsWith(at)) {
+                message = "At line " + line + "," + message.substring(at.length());
+            }
+            return new Error(error.getKind(), error.getFilename(), line,
+                    error.getColumn(), message);
+        });
+    }
+
+    //the index of the first token that is not a comment
+    private int firstToken() {
+        int index = 0;
+        while (lexer.getKind(index) == Token.Kind.COMMENT) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Hands the parser the tokens of the lexer from a given index on, and keeps
+     * track of the index of the parser's current token.
+     */
+    private class LexerCursor implements TokenSource {
+        private int next;
+        private int current = -1;
+
+        LexerCursor(int start) {
+            next = start;
+        }
+
+        public Token scan() {
+            current = next;
+            if (next < lexer.getTokenCount() - 1) {
+                next++;
+            }
+            return lexer.getToken(current);
+        }
+
+        public String getFilename() {
+            return lexer.getFilename();
+        }
+
+        public LineIndex getLineIndex() {
+            return lexer.getLineIndex();
+        }
+    }
+
+    /**
+     * Records the tokens and errors of each class and member as they are parsed
+     */
+    private class Recorder implements ParseListener {
+        private final LexerCursor cursor;
+        private final List<ClassRange> classRanges;
+        private ClassRange currentClass;
+        private MemberRange currentMember;
+
+        Recorder(LexerCursor cursor, List<ClassRange> classRanges) {
+            this.cursor = cursor;
+            this.classRanges = classRanges;
+        }
+
+        public void classStarted() {
+            currentClass = new ClassRange();
+            currentClass.start = cursor.current;
+            classRanges.add(currentClass);
+            errorTarget = currentClass.headErrors;
+        }
+
+        public void classEnded(Class_ aClass) {
+            currentClass.aClass = aClass;
+            currentClass.end = cursor.current;
+            errorTarget = new ArrayList<>();
+        }
+
+        public void memberStarted() {
+            currentMember = new MemberRange();
+            currentMember.start = cursor.current;
+            currentClass.members.add(currentMember);
+            errorTarget = currentMember.errors;
+        }
+
+        public void memberEnded(Member member) {
+            currentMember.member = member;
+            currentMember.end = cursor.current;
+            errorTarget = currentClass.tailErrors;
+        }
+    }
+}
@@ -0,0 +1,854 @@
+/*
+ * File: IterativeParser.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.parser;
+
+import proj10BittingCerratoCohenEllmer.bantam.ast.*;
+import proj10BittingCerratoCohenEllmer.bantam.lexer.Token;
+
+import static proj10BittingCerratoCohenEllmer.bantam.lexer.Token.Kind.*;
+
+/**
+ * Parses statements and expressions for a Parser the same way the Parser's own
+ * recursive methods do, but keeps the methods that are in progress on a stack of
+ * its own instead of on the thread's stack. Each frame on the stack stands for
+ * one call of a recursive method of the Parser and records how far that call
+ * got, so nesting only costs room in an array and any depth can be parsed.
+ * <p>
+ * The tokens are consumed, the errors reported and the nodes built in exactly
+ * the order the recursive methods do it, so the AST and the errors are the
+ * same. The methods that never recurse, such as parseIdentifier and parseNew,
+ * are the Parser's own.
+ * <p>
+ * The levels of the expression grammar are entered one after another without
+ * consuming any tokens, so a single frame stands for a whole run of them: it
+ * starts at the level that was called, parses the operand at the bottom, and
+ * then climbs back up a level at a time, calling a new run for the right
+ * operand of each operator it finds on the way.
+ */
+final class IterativeParser {
+    // the kinds of frames. Each is named after the Parser method it stands for.
+    private static final int BLOCK = 0;
+    private static final int IF = 1;
+    private static final int WHILE = 2;
+    private static final int FOR = 3;
+    private static final int RETURN = 4;
+    private static final int BREAK = 5;
+    private static final int DECL = 6;
+    private static final int EXPR_STMT = 7;
+    private static final int EXPRESSION = 8;
+    private static final int UNARY = 9;
+    private static final int PRIMARY = 10;
+    private static final int ARGUMENTS = 11;
+
+    // the levels of the expression grammar, from parseExpression down to
+    // parseMultExpr, whose operands are parsed by parseNewCastOrUnary
+    private static final int ASSIGN_LEVEL = 0;
+    private static final int OR_LEVEL = 1;
+    private static final int AND_LEVEL = 2;
+    private static final int COMPARISON_LEVEL = 3;
+    private static final int RELATIONAL_LEVEL = 4;
+    private static final int ADD_LEVEL = 5;
+    private static final int MULT_LEVEL = 6;
+
+    // the operators an expression frame may be waiting for the right operand of
+    private static final int NO_OP = 0;
+    private static final int OP_ASSIGN = 1;
+    private static final int OP_OR = 2;
+    private static final int OP_AND = 3;
+    private static final int OP_EQ = 4;
+    private static final int OP_NE = 5;
+    private static final int OP_LT = 6;
+    private static final int OP_LEQ = 7;
+    private static final int OP_GT = 8;
+    private static final int OP_GEQ = 9;
+    private static final int OP_PLUS = 10;
+    private static final int OP_MINUS = 11;
+    private static final int OP_DIVIDE = 12;
+    private static final int OP_TIMES = 13;
+    private static final int OP_MODULUS = 14;
+
+    /**
+     * A call in progress. The frames are reused, so only the fields the kind of
+     * frame uses are meaningful.
+     */
+    private static final class Frame {
+        int kind;
+        /**
+         * where to resume once the call this frame made returns
+         */
+        int state;
+        /**
+         * the line and the offset of the current token when the call started
+         */
+        int position;
+        int startOffset;
+        /**
+         * for an expression frame, the level the run of levels started at, the
+         * level it is at now and the operator waiting for its right operand
+         */
+        int topLevel;
+        int level;
+        int op;
+        /**
+         * for an UNARY frame, whether a new or cast expression may start here
+         */
+        boolean newOrCast;
+        // the partial results of the call
+        Object a;
+        Object b;
+        Object c;
+    }
+
+    private final Parser parser;
+    private Frame[] frames = new Frame[64];
+    private int depth;
+    /**
+     * the value returned by the call that returned last
+     */
+    private Object result;
+
+    /**
+     * creates a parser that parses for the given Parser
+     *
+     * @param parser the Parser whose tokens are parsed and whose errors are
+     *               reported
+     */
+    IterativeParser(Parser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * parses a block the way Parser.parseBlock does
+     *
+     * @return the BlockStmt
+     */
+    Stmt parseBlock() {
+        depth = 0;
+        push(BLOCK);
+        return (Stmt) run();
+    }
+
+    /**
+     * parses an expression the way Parser.parseExpression does
+     *
+     * @return the expression
+     */
+    Expr parseExpression() {
+        depth = 0;
+        callExpression(ASSIGN_LEVEL);
+        return (Expr) run();
+    }
+
+    /**
+     * Resumes the frame on top of the stack until the stack is empty
+     *
+     * @return the value returned by the bottom frame
+     */
+    private Object run() {
+        try {
+            while (depth > 0) {
+                Frame frame = frames[depth - 1];
+                try {
+                    switch (frame.kind) {
+                        case BLOCK:
+                            stepBlock(frame);
+                            break;
+                        case IF:
+                            stepIf(frame);
+                            break;
+                        case WHILE:
+                            stepWhile(frame);
+                            break;
+                        case FOR:
+                            stepFor(frame);
+                            break;
+                        case RETURN:
+                            stepReturn(frame);
+                            break;
+                        case BREAK:
+                            finish(parser.parseBreak());
+                            break;
+                        case DECL:
+                            stepDecl(frame);
+                            break;
+                        case EXPR_STMT:
+                            stepExpressionStmt(frame);
+                            break;
+                        case EXPRESSION:
+                            stepExpression(frame);
+                            break;
+                        case UNARY:
+                            stepUnary(frame);
+                            break;
+                        case PRIMARY:
+                            stepPrimary(frame);
+                            break;
+                        case ARGUMENTS:
+                            stepArguments(frame);
+                            break;
+                        default:
+                            throw new IllegalStateException("Unknown frame kind " + frame.kind);
+                    }
+                } catch (SyntaxErrorException e) {
+                    recover(e);
+                }
+            }
+            return result;
+        } finally {
+            // drop the partial results of any calls an error cut short
+            while (depth > 0) {
+                pop();
+            }
+        }
+    }
+
+    /**
+     * Goes on after a syntax error the way Parser.parseBlock does: the innermost
+     * block that was parsing its statements gets an ErrorStmt in place of the
+     * statement that failed, and the rest of that statement is skipped. The
+     * calls made for the statement are dropped.
+     *
+     * @param e the exception thrown for the error
+     * @throws SyntaxErrorException if there is no such block, or if the block
+     *                              runs into a class or the end of the file
+     */
+    private void recover(SyntaxErrorException e) {
+        // the frame on top made the failing call itself, so it cannot be the
+        // block that catches the error
+        int block = depth - 2;
+        while (block >= 0 && (frames[block].kind != BLOCK || frames[block].state == 0)) {
+            block--;
+        }
+        if (block < 0 || !parser.skipStatement()) {
+            throw e;
+        }
+        Frame failed = frames[block + 1];
+        result = range(new ErrorStmt(failed.position), failed);
+        while (depth > block + 1) {
+            pop();
+        }
+    }
+
+    //-----------------------------------
+    // Statements
+
+    //<Stmt>::= <IfStmt> | <BlockStmt> | <DeclStmt> | <ReturnStmt>
+    //          <ForStmt> | <WhileStmt> | <BreakStmt> | <ExpressionStmt>
+    private void callStatement() {
+        switch (parser.getCurrentKind()) {
+            case IF:
+                push(IF);
+                break;
+            case LCURLY:
+                push(BLOCK);
+                break;
+            case VAR:
+                push(DECL);
+                break;
+            case RETURN:
+                push(RETURN);
+                break;
+            case FOR:
+                push(FOR);
+                break;
+            case WHILE:
+                push(WHILE);
+                break;
+            case BREAK:
+                push(BREAK);
+                break;
+            default:
+                push(EXPR_STMT);
+        }
+    }
+
+    //<BlockStmt>::=  { <Body> }
+    //<Body>::= EMPTY | <Stmt> <Body>
+    private void stepBlock(Frame frame) {
+        if (frame.state == 0) {
+            frame.a = new StmtList(frame.position);
+            parser.advanceIfTokenMatches(LCURLY);
+            frame.state = 1;
+        } else {
+            ((StmtList) frame.a).addElement((Stmt) result);
+        }
+        if (token().kind != RCURLY) {
+            callStatement();
+            return;
+        }
+        parser.advanceIfTokenMatches(RCURLY);
+        ((StmtList) frame.a).freeze();
+        finish(range(new BlockStmt(frame.position, range((StmtList) frame.a, frame)), frame));
+    }
+
+    //<IfStmt>::= IF (<Expr>) <Stmt> | IF (<Expr>) <Stmt> ELSE <Stmt>
+    private void stepIf(Frame frame) {
+        switch (frame.state) {
+            case 0:
+                parser.advance();
+                parser.advanceIfTokenMatches(LPAREN);
+                frame.state = 1;
+                callExpression(ASSIGN_LEVEL);
+                break;
+            case 1:
+                frame.a = result;
+                parser.advanceIfTokenMatches(RPAREN);
+                frame.state = 2;
+                callStatement();
+                break;
+            case 2:
+                frame.b = result;
+                if (token().kind == ELSE) {
+                    parser.advance();
+                    frame.state = 3;
+                    callStatement();
+                    break;
+                }
+                finish(range(new IfStmt(frame.position, (Expr) frame.a, (Stmt) frame.b,
+                        null), frame));
+                break;
+            default:
+                finish(range(new IfStmt(frame.position, (Expr) frame.a, (Stmt) frame.b,
+                        (Stmt) result), frame));
+        }
+    }
+
+    //<WhileStmt>::= WHILE ( <Expression> ) <Stmt>
+    private void stepWhile(Frame frame) {
+        switch (frame.state) {
+            case 0:
+                parser.advance(); // past "while"
+                parser.advanceIfTokenMatches(LPAREN);
+                frame.state = 1;
+                callExpression(ASSIGN_LEVEL);
+                break;
+            case 1:
+                frame.a = result;
+                parser.advanceIfTokenMatches(RPAREN);
+                frame.state = 2;
+                callStatement();
+                break;
+            default:
+                finish(range(new WhileStmt(frame.position, (Expr) frame.a, (Stmt) result),
+                        frame));
+        }
+    }
+
+    //<ForStmt>::=FOR ( <Start> ; <Terminate> ; <Increment> ) <STMT>
+    //the start, terminate and increment expressions may each be missing, in
+    //which case the next state is entered directly with a null result
+    @SuppressWarnings("fallthrough")
+    private void stepFor(Frame frame) {
+        switch (frame.state) {
+            case 0:
+                parser.advance();
+                parser.advanceIfTokenMatches(LPAREN);
+                frame.state = 1;
+                if (token().kind != SEMICOLON) {
+                    callExpression(ASSIGN_LEVEL);
+                    return;
+                }
+                result = null;
+                // fall through
+            case 1:
+                frame.a = result;
+                parser.advanceIfTokenMatches(SEMICOLON);
+                frame.state = 2;
+                if (token().kind != SEMICOLON) {
+                    callExpression(ASSIGN_LEVEL);
+                    return;
+                }
+                result = null;
+                // fall through
+            case 2:
+                frame.b = result;
+                parser.advanceIfTokenMatches(SEMICOLON);
+                frame.state = 3;
+                if (token().kind != RPAREN) {
+                    callExpression(ASSIGN_LEVEL);
+                    return;
+                }
+                result = null;
+                // fall through
+            case 3:
+                frame.c = result;
+                parser.advanceIfTokenMatches(RPAREN);
+                frame.state = 4;
+                callStatement();
+                break;
+            default:
+                finish(range(new ForStmt(frame.position, (Expr) frame.a, (Expr) frame.b,
+                        (Expr) frame.c, (Stmt) result), frame));
+        }
+    }
+
+    //<ReturnStmt>::= RETURN <Expression> ; | RETURN ;
+    private void stepReturn(Frame frame) {
+        if (frame.state == 0) {
+            parser.advance();
+            if (token().kind == SEMICOLON) {
+                parser.advance();
+                finish(range(new ReturnStmt(frame.position, null), frame));
+            } else {
+                frame.state = 1;
+                callExpression(ASSIGN_LEVEL);
+            }
+        } else {
+            parser.advanceIfTokenMatches(SEMICOLON);
+            finish(range(new ReturnStmt(frame.position, (Expr) result), frame));
+        }
+    }
+
+    //<DeclStmt>::= VAR <Id> = <Expression>;
+    private void stepDecl(Frame frame) {
+        if (frame.state == 0) {
+            frame.a = token().getSpelling();
+            parser.advance(); // the keyword var
+            frame.b = parser.parseIdentifier();
+            parser.advanceIfTokenMatches(ASSIGN);
+            frame.state = 1;
+            callExpression(ASSIGN_LEVEL);
+        } else {
+            DeclStmt stmt = new DeclStmt(frame.position, (String) frame.b, (Expr) result);
+            stmt.setType((String) frame.a);
+            parser.advanceIfTokenMatches(SEMICOLON);
+            finish(range(stmt, frame));
+        }
+    }
+
+    //<ExpressionStmt>::= <Expression> ;
+    private void stepExpressionStmt(Frame frame) {
+        if (frame.state == 0) {
+            frame.state = 1;
+            callExpression(ASSIGN_LEVEL);
+        } else {
+            parser.advanceIfTokenMatches(SEMICOLON);
+            finish(range(new ExprStmt(frame.position, (Expr) result), frame));
+        }
+    }
+
+    //==============================================
+    // Expressions
+
+    /**
+     * Calls the expression method for the given level, which calls the methods
+     * for the levels below it in turn
+     *
+     * @param topLevel the level to start at, from ASSIGN_LEVEL for
+     *                 parseExpression to MULT_LEVEL for parseMultExpr
+     */
+    private void callExpression(int topLevel) {
+        Frame frame = push(EXPRESSION);
+        frame.topLevel = topLevel;
+        frame.level = MULT_LEVEL;
+        frame.op = NO_OP;
+    }
+
+    /**
+     * Runs the levels from parseMultExpr up to the level the frame started at.
+     * At each level frame.a holds the expression parsed so far, as the left
+     * variable does in the Parser's methods.
+     */
+    private void stepExpression(Frame frame) {
+        if (frame.state == 0) {
+            // the operand at the bottom of all the levels
+            frame.state = 1;
+            callUnary(true);
+            return;
+        }
+
+        if (frame.op == NO_OP) {
+            frame.a = result;
+        } else {
+            int op = frame.op;
+            frame.op = NO_OP;
+            frame.a = range(build(op, frame, (Expr) result), frame);
+            if (op == OP_ASSIGN) {
+                finish(frame.a);
+                return;
+            }
+            // the comparison levels take at most one operator
+            if (op >= OP_EQ && op <= OP_GEQ && leaveLevel(frame)) {
+                return;
+            }
+        }
+
+        while (true) {
+            Token token = token();
+            switch (frame.level) {
+                case MULT_LEVEL:
+                    if (token.kind == MULDIV) {
+                        String spelling = token.getSpelling();
+                        frame.op = spelling.equals("/") ? OP_DIVIDE
+                                : spelling.equals("*") ? OP_TIMES : OP_MODULUS;
+                        parser.advance();
+                        callUnary(true);
+                        return;
+                    }
+                    break;
+                case ADD_LEVEL:
+                    if (token.kind == PLUSMINUS) {
+                        frame.op = token.getSpelling().equals("+") ? OP_PLUS : OP_MINUS;
+                        parser.advance();
+                        callExpression(MULT_LEVEL);
+                        return;
+                    }
+                    break;
+                case RELATIONAL_LEVEL:
+                    switch (token.getSpelling()) {
+                        case "<":
+                            callRight(frame, OP_LT, ADD_LEVEL);
+                            return;
+                        case "<=":
+                            callRight(frame, OP_LEQ, ADD_LEVEL);
+                            return;
+                        case ">":
+                            callRight(frame, OP_GT, ADD_LEVEL);
+                            return;
+                        case ">=":
+                            callRight(frame, OP_GEQ, ADD_LEVEL);
+                            return;
+                        case "instanceof":
+                            parser.advance();
+                            String type = parser.parseType();
+                            frame.a = range(new InstanceofExpr(frame.position, (Expr) frame.a,
+                                    type), frame);
+                            break;
+                    }
+                    break;
+                case COMPARISON_LEVEL:
+                    if (token.getSpelling().equals("==")) {
+                        callRight(frame, OP_EQ, RELATIONAL_LEVEL);
+                        return;
+                    } else if (token.getSpelling().equals("!=")) {
+                        callRight(frame, OP_NE, RELATIONAL_LEVEL);
+                        return;
+                    }
+                    break;
+                case AND_LEVEL:
+                    if (token.getSpelling().equals("&&")) {
+                        callRight(frame, OP_AND, COMPARISON_LEVEL);
+                        return;
+                    }
+                    break;
+                case OR_LEVEL:
+                    if (token.getSpelling().equals("||")) {
+                        callRight(frame, OP_OR, AND_LEVEL);
+                        return;
+                    }
+                    break;
+                default: // ASSIGN_LEVEL
+                    if (token.kind == ASSIGN && frame.a instanceof VarExpr) {
+                        parser.advance();
+                        Expr lhsRef = ((VarExpr) frame.a).getRef();
+                        if (lhsRef != null && (!(lhsRef instanceof VarExpr)
+                                || ((VarExpr) lhsRef).getRef() != null))
+                            parser.reportSyntacticError(frame.position, frame.startOffset,
+                                    "a name or a name.name", "expr.name.name");
+                        frame.op = OP_ASSIGN;
+                        callExpression(ASSIGN_LEVEL);
+                        return;
+                    }
+            }
+            if (leaveLevel(frame)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Moves past an operator and calls the levels for its right operand
+     */
+    private void callRight(Frame frame, int op, int rightLevel) {
+        frame.op = op;
+        parser.advance();
+        callExpression(rightLevel);
+    }
+
+    /**
+     * Returns from the current level to the one above it
+     *
+     * @return whether the frame returned, because the current level was the one
+     * it started at
+     */
+    private boolean leaveLevel(Frame frame) {
+        if (frame.level == frame.topLevel) {
+            finish(frame.a);
+            return true;
+        }
+        frame.level--;
+        return false;
+    }
+
+    /**
+     * Builds the node for an operator once its right operand is parsed
+     */
+    private Expr build(int op, Frame frame, Expr right) {
+        int position = frame.position;
+        Expr left = (Expr) frame.a;
+        switch (op) {
+            case OP_ASSIGN:
+                VarExpr lhs = (VarExpr) left;
+                String lhsName = lhs.getName();
+                String lhsRefName = (lhs.getRef() == null ? null :
+                        ((VarExpr) lhs.getRef()).getName());
+                return new AssignExpr(position, lhsRefName, lhsName, right);
+            case OP_OR:
+                return new BinaryLogicOrExpr(position, left, right);
+            case OP_AND:
+                return new BinaryLogicAndExpr(position, left, right);
+            case OP_EQ:
+                return new BinaryCompEqExpr(position, left, right);
+            case OP_NE:
+                return new BinaryCompNeExpr(position, left, right);
+            case OP_LT:
+                return new BinaryCompLtExpr(position, left, right);
+            case OP_LEQ:
+                return new BinaryCompLeqExpr(position, left, right);
+            case OP_GT:
+                return new BinaryCompGtExpr(position, left, right);
+            case OP_GEQ:
+                return new BinaryCompGeqExpr(position, left, right);
+            case OP_PLUS:
+                return new BinaryArithPlusExpr(position, left, right);
+            case OP_MINUS:
+                return new BinaryArithMinusExpr(position, left, right);
+            case OP_DIVIDE:
+                return new BinaryArithDivideExpr(position, left, right);
+            case OP_TIMES:
+                return new BinaryArithTimesExpr(position, left, right);
+            default: // OP_MODULUS
+                return new BinaryArithModulusExpr(position, left, right);
+        }
+    }
+
+    /**
+     * Calls parseNewCastOrUnary, or parseUnaryPrefix if a new or cast
+     * expression may not start here
+     */
+    private void callUnary(boolean newOrCast) {
+        push(UNARY).newOrCast = newOrCast;
+    }
+
+    //<NewCastOrUnary>::= <NewExpression> | <CastExpression> | <UnaryPrefix>
+    //<CastExpression>::= (<Type>) <Expression>
+    //<UnaryPrefix>::= <PrefixOp> <UnaryPreFix> | <UnaryPostfix>
+    //<UnaryPostfix>::= <Primary> <PostfixOp>
+    private void stepUnary(Frame frame) {
+        switch (frame.state) {
+            case 0:
+                Token.Kind kind = token().kind;
+                if (frame.newOrCast && kind == NEW) {
+                    finish(parser.parseNew());
+                } else if (frame.newOrCast && kind == LPAREN) {
+                    parser.advance(); // move from '(' to type
+                    frame.a = parser.parseType();
+                    parser.advanceIfTokenMatches(RPAREN);
+                    frame.state = 1;
+                    callExpression(ASSIGN_LEVEL);
+                } else if (token().getSpelling().equals("-") || kind == UNARYDECR
+                        || kind == UNARYINCR || kind == UNARYNOT) {
+                    frame.a = kind;
+                    parser.advance();
+                    frame.state = 2;
+                    callUnary(false);
+                } else {
+                    frame.state = 3;
+                    push(PRIMARY);
+                }
+                break;
+            case 1:
+                finish(range(new CastExpr(frame.position, (String) frame.a, (Expr) result),
+                        frame));
+                break;
+            case 2:
+                Expr expr = (Expr) result;
+                if (frame.a == PLUSMINUS) {
+                    finish(range(new UnaryNegExpr(frame.position, expr), frame));
+                } else if (frame.a == UNARYDECR) {
+                    finish(range(new UnaryDecrExpr(frame.position, expr, false), frame));
+                } else if (frame.a == UNARYINCR) {
+                    finish(range(new UnaryIncrExpr(frame.position, expr, false), frame));
+                } else { // UNARYNOT
+                    finish(range(new UnaryNotExpr(frame.position, expr), frame));
+                }
+                break;
+            default:
+                Expr unary = (Expr) result;
+                if (token().kind == UNARYINCR) {
+                    unary = new UnaryIncrExpr(frame.position, unary, true);
+                    parser.advance();
+                    range(unary, frame);
+                } else if (token().kind == UNARYDECR) {
+                    unary = new UnaryDecrExpr(frame.position, unary, true);
+                    parser.advance();
+                    range(unary, frame);
+                }
+                finish(unary);
+        }
+    }
+
+    /*
+     * <Primary> ::= ( <Expression> ) <ExprSuffix> | <IntegerConst> | <BooleanConst> |
+     *                                <DoubleConst> <StringConst> <IdSuffix> | <Identifier>
+     *                                <Suffix>
+     * <IdSuffix>    ::=  . <Identifier> <Suffix> | EMPTY
+     * <DispSuffix>  ::=  ( <Arguments> ) <IdSuffix> | EMPTY
+     * <ExprSuffix>  ::=  <IdSuffix> | <IndexSuffix>
+     * <Suffix>      ::=  <IdSuffix> | <DispSuffix> | <IndexSuffix>
+     */
+    private void stepPrimary(Frame frame) {
+        switch (frame.state) {
+            case 0:
+                switch (parser.getCurrentKind()) {
+                    case CHRCONST:
+                        finish(parser.parseChrConst());
+                        return;
+                    case DBLCONST:
+                        finish(parser.parseDblConst());
+                        return;
+                    case INTCONST:
+                        finish(parser.parseIntConst());
+                        return;
+                    case BOOLEAN:
+                        finish(parser.parseBoolean());
+                        return;
+                    case STRCONST:
+                        frame.a = parser.parseStringConst();
+                        break;
+                    case LPAREN:
+                        parser.advance();
+                        frame.state = 1;
+                        callExpression(ASSIGN_LEVEL);
+                        return;
+                    default:
+                        String id = parser.parseIdentifier();
+                        frame.a = range(new VarExpr(token().position, null, id), frame);
+                }
+                break;
+            case 1:
+                frame.a = result;
+                parser.advanceIfTokenMatches(RPAREN);
+                range((Expr) frame.a, frame); // take in the parentheses
+                if (token().kind == LPAREN) //cannot have ( expr )( args )
+                    parser.reportSyntacticError(token().position,
+                            token().getStartOffset(),
+                            "something other than \"(\"",
+                            token().kind.name());
+                break;
+            default:
+                ExprList args = (ExprList) result;
+                parser.advanceIfTokenMatches(RPAREN);
+                Expr primary = (Expr) frame.a;
+                VarExpr varExpr = (VarExpr) primary;
+                // if no ref, then add "this" as the ref
+                if (varExpr.getRef() == null) {
+                    varExpr = new VarExpr(varExpr.getLineNum(),
+                            new VarExpr(-1, null, "this"),
+                            varExpr.getName());
+                }
+                frame.a = range(new DispatchExpr(primary.getLineNum(), varExpr.getRef(),
+                        varExpr.getName(), args), frame);
+        }
+
+        // now add the suffixes
+        while (token().kind == DOT
+                || token().kind == LPAREN && frame.a instanceof VarExpr) {
+            if (token().kind == LPAREN) {
+                parser.advance();
+                frame.state = 2;
+                push(ARGUMENTS);
+                return;
+            } else { // currentToken is a DOT
+                parser.advance();
+                String id = parser.parseIdentifier();
+                frame.a = range(new VarExpr(token().position, (Expr) frame.a, id), frame);
+            }
+        }
+        finish(frame.a);
+    }
+
+    //<Arguments> ::= EMPTY | <Expression> <MoreArgs>
+    //<MoreArgs> ::= EMPTY | , <Expression> <MoreArgs>
+    private void stepArguments(Frame frame) {
+        if (frame.state == 0) {
+            frame.a = new ExprList(frame.position);
+            if (token().kind == RPAREN) {
+                ((ExprList) frame.a).freeze();
+                finish(range((ExprList) frame.a, frame));
+                return;
+            }
+            frame.state = 1;
+            callExpression(ASSIGN_LEVEL);
+            return;
+        }
+
+        ((ExprList) frame.a).addElement((Expr) result);
+        if (token().kind != RPAREN) {
+            parser.advanceIfTokenMatches(COMMA);
+            callExpression(ASSIGN_LEVEL);
+            return;
+        }
+        ((ExprList) frame.a).freeze();
+        finish(range((ExprList) frame.a, frame));
+    }
+
+    //----------------------------------------
+    // The stack
+
+    private Token token() {
+        return parser.getCurrentToken();
+    }
+
+    /**
+     * Gives a node the range from the token the call started at to the last
+     * token consumed
+     */
+    private <T extends ASTNode> T range(T node, Frame frame) {
+        return parser.range(node, frame.startOffset);
+    }
+
+    /**
+     * Starts a call, recording the line and offset of the current token as the
+     * Parser's methods do on entry
+     *
+     * @return the frame of the new call
+     */
+    private Frame push(int kind) {
+        if (depth == frames.length) {
+            Frame[] bigger = new Frame[depth * 2];
+            System.arraycopy(frames, 0, bigger, 0, depth);
+            frames = bigger;
+        }
+        Frame frame = frames[depth];
+        if (frame == null) {
+            frame = new Frame();
+            frames[depth] = frame;
+        }
+        depth++;
+        frame.kind = kind;
+        frame.state = 0;
+        frame.position = token().position;
+        frame.startOffset = token().getStartOffset();
+        return frame;
+    }
+
+    private void pop() {
+        Frame frame = frames[--depth];
+        frame.a = null;
+        frame.b = null;
+        frame.c = null;
+    }
+
+    /**
+     * Returns from the call on top of the stack
+     *
+     * @param value the value the call returns
+     */
+    private void finish(Object value) {
+        pop();
+        result = value;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * File: LazyBody.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.parser;
+
+import proj10BittingCerratoCohenEllmer.bantam.ast.StmtList;
+import proj10BittingCerratoCohenEllmer.bantam.lexer.TokenBuffer;
+import proj10BittingCerratoCohenEllmer.bantam.util.ErrorHandler;
+import proj10BittingCerratoCohenEllmer.bantam.util.NamePool;
+
+import java.util.function.Supplier;
+
+/**
+ * The body of a method that a Parser skipped over. It is parsed when a Method
+ * first asks for it, by a new Parser with the options the skipping Parser had,
+ * since that one may be parsing another file by then. Its constants share
+ * their spellings with those of the rest of the parse when the skipping
+ * Parser was sharing constants.
+ */
+final class LazyBody implements Supplier<StmtList> {
+    private final ErrorHandler errorHandler;
+    private final TokenBuffer tokens;
+    /**
+     * the index in tokens of the opening brace of the body
+     */
+    private final int index;
+    private final boolean iterative;
+    private final boolean precedenceClimbing;
+    private final boolean errorRecovery;
+    /**
+     * the pool the constants of the skipping parse were shared through, or
+     * null if they were not
+     */
+    private final NamePool constantPool;
+
+    LazyBody(ErrorHandler errorHandler, TokenBuffer tokens, int index,
+             boolean iterative, boolean precedenceClimbing, boolean errorRecovery,
+             NamePool constantPool) {
+        this.errorHandler = errorHandler;
+        this.tokens = tokens;
+        this.index = index;
+        this.iterative = iterative;
+        this.precedenceClimbing = precedenceClimbing;
+        this.errorRecovery = errorRecovery;
+        this.constantPool = constantPool;
+    }
+
+    /**
+     * Parses the body, registering its syntax errors
+     *
+     * @return the statements of the body
+     */
+    public StmtList get() {
+        Parser parser = new Parser(errorHandler);
+        parser.setIterative(iterative);
+        parser.setPrecedenceClimbing(precedenceClimbing);
+        parser.setErrorRecovery(errorRecovery);
+        return parser.parseBody(tokens, index, constantPool);
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * File: ParseListener.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.parser;
+
+import proj10BittingCerratoCohenEllmer.bantam.ast.Class_;
+import proj10BittingCerratoCohenEllmer.bantam.ast.Member;
+
+/**
+ * Told by the Parser where each class and member starts and ends, so that it
+ * can tell which tokens and which syntax errors belong to which of them. At
+ * each call the parser's current token is the first token of the class or
+ * member, or the first token after it.
+ */
+interface ParseListener {
+    /**
+     * A class is about to be parsed from the current token
+     */
+    void classStarted();
+
+    /**
+     * The class that started last ended just before the current token
+     *
+     * @param aClass the class, or null if it had a syntax error and was skipped
+     */
+    void classEnded(Class_ aClass);
+
+    /**
+     * A field or method is about to be parsed from the current token
+     */
+    void memberStarted();
+
+    /**
+     * The member that started last ended just before the current token
+     *
+     * @param member the member, an ErrorMember if it had a syntax error
+     */
+    void memberEnded(Member member);
+}
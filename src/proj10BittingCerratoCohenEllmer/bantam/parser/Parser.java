@@ -32,24 +32,97 @@
 package proj10BittingCerratoCohenEllmer.bantam.parser;
 
 import proj10BittingCerratoCohenEllmer.bantam.ast.*;
+import proj10BittingCerratoCohenEllmer.bantam.lexer.ParallelLexer;
+import proj10BittingCerratoCohenEllmer.bantam.lexer.PipelinedScanner;
 import proj10BittingCerratoCohenEllmer.bantam.lexer.Scanner;
 import proj10BittingCerratoCohenEllmer.bantam.lexer.Token;
+import proj10BittingCerratoCohenEllmer.bantam.lexer.TokenBuffer;
+import proj10BittingCerratoCohenEllmer.bantam.lexer.TokenCursor;
+import proj10BittingCerratoCohenEllmer.bantam.lexer.TokenSource;
 import proj10BittingCerratoCohenEllmer.bantam.treedrawer.Drawer;
 import proj10BittingCerratoCohenEllmer.bantam.util.CompilationException;
 import proj10BittingCerratoCohenEllmer.bantam.util.Error;
 import proj10BittingCerratoCohenEllmer.bantam.util.ErrorHandler;
+import proj10BittingCerratoCohenEllmer.bantam.util.KindIndex;
+import proj10BittingCerratoCohenEllmer.bantam.util.LineIndex;
+import proj10BittingCerratoCohenEllmer.bantam.util.NamePool;
 
 import java.io.Reader;
+import java.util.Arrays;
 import java.util.List;
 
 import static proj10BittingCerratoCohenEllmer.bantam.lexer.Token.Kind.*;
 
 
 public class Parser {
+    /**
+     * the version of the parser, to be changed whenever the AST it builds for
+     * some source changes, so that ASTs cached by an older version are not used
+     */
+    public static final int VERSION = 1;
+
+    // the precedence levels of the binary operators, from the loosest binding.
+    // Each is the level of the grammar's expression method that handles it.
+    private static final int NO_LEVEL = -1;
+    private static final int ASSIGN_LEVEL = 0;
+    private static final int OR_LEVEL = 1;
+    private static final int AND_LEVEL = 2;
+    private static final int COMPARISON_LEVEL = 3;
+    private static final int RELATIONAL_LEVEL = 4;
+    private static final int ADD_LEVEL = 5;
+    private static final int MULT_LEVEL = 6;
+    /**
+     * marks the kinds of token whose level depends on their spelling
+     */
+    private static final int BY_SPELLING = -2;
+    /**
+     * the level of each kind of token, indexed by the ordinal of the kind
+     */
+    private static final int[] KIND_LEVEL = new int[Token.Kind.values().length];
+
+    static {
+        Arrays.fill(KIND_LEVEL, NO_LEVEL);
+        KIND_LEVEL[ASSIGN.ordinal()] = ASSIGN_LEVEL;
+        KIND_LEVEL[PLUSMINUS.ordinal()] = ADD_LEVEL;
+        KIND_LEVEL[MULDIV.ordinal()] = MULT_LEVEL;
+        KIND_LEVEL[BINARYLOGIC.ordinal()] = BY_SPELLING;
+        KIND_LEVEL[COMPARE.ordinal()] = BY_SPELLING;
+        KIND_LEVEL[INSTANCEOF.ordinal()] = BY_SPELLING;
+    }
+
     // instance variables
-    private Scanner scanner;
+    private TokenSource scanner;
     private Token currentToken;
+    /**
+     * the offset just past the last token consumed
+     */
+    private int previousEnd;
     private ErrorHandler errorHandler;
+    private Scanner.Engine scannerEngine = Scanner.Engine.TOKEN_BUILDER;
+    private NamePool namePool = new NamePool();
+    private boolean bufferTokens = false;
+    private boolean pipelined = false;
+    private boolean skipComments = false;
+    private boolean iterative = false;
+    private boolean precedenceClimbing = false;
+    private boolean errorRecovery = true;
+    private boolean lazyBodies = false;
+    private boolean indexing = false;
+    private boolean sharingConstants = false;
+    private ASTCache astCache;
+    /**
+     * the pool the spellings of constants are shared through, or null if they
+     * are not shared
+     */
+    private NamePool constantPool;
+    private KindIndex kindIndex;
+    private int syntaxErrorCount;
+    private Program recoveredProgram;
+    private final IterativeParser iterativeParser = new IterativeParser(this);
+    private ParallelLexer parallelLexer;
+    private TokenBuffer tokenBuffer;
+    private ParseListener listener;
+    private boolean classCutShort;
 
 
     // constructor
@@ -57,6 +130,226 @@ public class Parser {
         this.errorHandler = errorHandler;
     }
 
+    /**
+     * Chooses the engine the scanner uses to break the source into tokens.
+     * Both engines produce the same tokens.
+     *
+     * @param scannerEngine the engine to use for subsequent calls to parse
+     */
+    public void setScannerEngine(Scanner.Engine scannerEngine) {
+        this.scannerEngine = scannerEngine;
+    }
+
+    /**
+     * Chooses whether parse first scans the whole file into a TokenBuffer and
+     * then parses from the buffer, instead of scanning one token at a time as
+     * the parser asks for them. The buffer of the most recent parse is available
+     * from getTokenBuffer, so the same tokens can be parsed again cheaply.
+     * Since the whole file is scanned before parsing starts, every lexical error
+     * in the file is registered, even ones after a syntax error.
+     *
+     * @param bufferTokens whether subsequent calls to parse buffer the tokens
+     */
+    public void setBufferTokens(boolean bufferTokens) {
+        this.bufferTokens = bufferTokens;
+    }
+
+    /**
+     * Chooses whether parse runs the scanner on a separate thread, so that
+     * reading and scanning the source overlap with parsing. The tokens, the AST
+     * and the errors registered are the same either way. This setting has no
+     * effect when the tokens are buffered, since then the whole file is scanned
+     * before parsing starts.
+     *
+     * @param pipelined whether subsequent calls to parse scan on another thread
+     */
+    public void setPipelined(boolean pipelined) {
+        this.pipelined = pipelined;
+    }
+
+    /**
+     * Chooses whether the scanner passes over comments without producing
+     * COMMENT tokens, so that their text is never built. The parser ignores
+     * comments anyway, so the AST and the errors are the same either way. A
+     * ParallelLexer given to setParallelLexer uses its own setting instead.
+     *
+     * @param skipComments whether subsequent calls to parse skip comments
+     *                     in the scanner
+     */
+    public void setSkipComments(boolean skipComments) {
+        this.skipComments = skipComments;
+    }
+
+    /**
+     * Chooses whether statements and expressions are parsed with an explicit
+     * stack instead of by recursive calls. Parsing a deeply nested block or
+     * expression recursively needs a deep thread stack and fails with a
+     * StackOverflowError past some depth, while the explicit stack only grows an
+     * array. The AST and the errors are the same either way.
+     *
+     * @param iterative whether subsequent calls to parse use an explicit stack
+     */
+    public void setIterative(boolean iterative) {
+        this.iterative = iterative;
+    }
+
+    /**
+     * Chooses whether binary expressions are parsed by precedence climbing
+     * instead of by a chain of methods, one for each precedence level. With
+     * precedence climbing an operand is parsed without passing through the
+     * methods of all the levels, and the level of an operator is looked up in a
+     * table. The AST and the errors are the same either way. In the iterative
+     * mode the levels are always climbed in a single stack frame, so this
+     * setting has no effect there.
+     *
+     * @param precedenceClimbing whether subsequent calls to parse climb the
+     *                           precedence levels
+     */
+    public void setPrecedenceClimbing(boolean precedenceClimbing) {
+        this.precedenceClimbing = precedenceClimbing;
+    }
+
+    /**
+     * Chooses whether parse goes on after a syntax error, so that all the syntax
+     * errors in a file are registered in one pass, up to the number the
+     * ErrorHandler keeps. A statement with an error is skipped up to the next
+     * semicolon or the next token that can start a statement, a field or method
+     * declaration up to the end of its semicolon or body, and a class up to the
+     * next class. Once the whole file is parsed, parse throws a
+     * CompilationException if there were syntax errors, as it does right away
+     * after the first one when it does not go on.
+     *
+     * @param errorRecovery whether subsequent calls to parse go on after
+     *                      syntax errors
+     * @see #getRecoveredProgram
+     */
+    public void setErrorRecovery(boolean errorRecovery) {
+        this.errorRecovery = errorRecovery;
+    }
+
+    /**
+     * Chooses whether parse skips over the bodies of methods, finding where each
+     * ends by matching its braces, and leaves them to be parsed the first time
+     * Method.getStmtList is called. Classes, fields and method signatures can
+     * then be looked at without paying for parsing the bodies. The tokens are
+     * buffered, as with setBufferTokens, and the AST holds on to the buffer for
+     * the bodies not yet parsed.
+     * <p>
+     * The syntax errors of a body are registered when the body is parsed, so
+     * parse does not report them. When the parser goes on after errors, the
+     * statements with errors are ErrorStmts; otherwise getStmtList throws the
+     * CompilationException. A body whose braces do not match before the next
+     * class or the end of the file is parsed right away.
+     *
+     * @param lazyBodies whether subsequent calls to parse put off parsing
+     *                   method bodies
+     */
+    public void setLazyBodies(boolean lazyBodies) {
+        this.lazyBodies = lazyBodies;
+    }
+
+    /**
+     * Has parse(String) look for the AST of the file in the given cache before
+     * scanning it, and store the AST there after parsing a file without
+     * errors. An AST read from the cache is equal to the one parsing the file
+     * would build, down to the line numbers and ranges, with every method body
+     * parsed; its tokens are not buffered. Its constants share their
+     * spellings when sharing constants, as those of a parse would. ASTs are not
+     * stored while method bodies are left unparsed, since storing them would
+     * parse the bodies. A file that is not in the cache is read only once.
+     *
+     * @param astCache the cache to use, or null to always parse
+     */
+    public void setCache(ASTCache astCache) {
+        this.astCache = astCache;
+    }
+
+    /**
+     * Chooses whether the constants of each parse share their spellings and
+     * values, so that the thousands of 0s, 1s, trues and "" of a large program
+     * hold one String for each distinct spelling instead of one each.
+     * Identifier, type and class names are always shared through the NamePool.
+     * <p>
+     * Only the Strings are shared, not the nodes holding them: each node keeps
+     * its own position, parent and type, so passes such as the TypeChecker can
+     * still set the type of one constant without changing the others.
+     *
+     * @param sharingConstants whether subsequent calls to parse share the
+     *                         spellings of constants
+     */
+    public void setSharingConstants(boolean sharingConstants) {
+        this.sharingConstants = sharingConstants;
+    }
+
+    /**
+     * Chooses whether parse builds a KindIndex of the classes it parses, so
+     * that tools can find classes, fields, methods and the nodes of each kind
+     * without going through the AST themselves. The index only reads the
+     * classes and their member lists while parsing; the rest is found when it
+     * is first asked for.
+     *
+     * @param indexing whether subsequent calls to parse build an index
+     */
+    public void setIndexing(boolean indexing) {
+        this.indexing = indexing;
+    }
+
+    /**
+     * @return the index of the AST of the most recent parse, including the
+     * AST built after syntax errors, or null if that parse did not build one
+     */
+    public KindIndex getKindIndex() {
+        return kindIndex;
+    }
+
+    /**
+     * When the most recent parse went on after syntax errors, the AST it built
+     * has an ErrorStmt in place of each statement that was skipped and an
+     * ErrorMember in place of each field or method declaration that was skipped
+     * outside of a method body. Classes that were skipped are left out.
+     *
+     * @return the AST of the most recent parse, if it had syntax errors and went
+     * on parsing after them to the end of the file, and null otherwise
+     */
+    public Program getRecoveredProgram() {
+        return recoveredProgram;
+    }
+
+    /**
+     * Has parse scan the source in parallel chunks with the given lexer and then
+     * parse from the resulting TokenBuffer. The tokens and the errors are the
+     * same as with a serial scan. As when buffering tokens, every lexical error
+     * in the file is registered.
+     * <p>
+     * Experimental, and off by default: on a single core the parallel scan is
+     * slower than a serial one, and its speedup on several cores has not been
+     * measured.
+     *
+     * @param parallelLexer the lexer to use, or null (the default) to scan
+     *                      serially
+     */
+    public void setParallelLexer(ParallelLexer parallelLexer) {
+        this.parallelLexer = parallelLexer;
+    }
+
+    /**
+     * @return the tokens of the most recent parse, or null if that parse did not
+     * buffer its tokens
+     */
+    public TokenBuffer getTokenBuffer() {
+        return tokenBuffer;
+    }
+
+    /**
+     * Each call to parse interns the identifier names it finds in a fresh pool,
+     * so the names of the AST it returns can be compared by reference.
+     *
+     * @return the pool holding the names found by the most recent parse
+     */
+    public NamePool getNamePool() {
+        return namePool;
+    }
+
     //----------------------------------
     // checks whether the kind of the current token matches tokenKindExpected.
     // If so, fetches the next token.
@@ -85,7 +378,7 @@ public class Parser {
         }
     }
 
-    private void advanceIfTokenMatches(Token.Kind tokenKindExpected) {
+    void advanceIfTokenMatches(Token.Kind tokenKindExpected) {
         if (currentToken.kind == COMMENT) {
             advance();
         }
@@ -96,22 +389,115 @@ public class Parser {
             // and we can continue parsing without issue, we pass any issues on to the semantic
             // analyzer
         } else {
-            reportSyntacticError(currentToken.position, tokenKindExpected.name(),
-                    currentToken.getSpelling());
+            reportSyntacticError(currentToken.position, currentToken.getStartOffset(),
+                    tokenKindExpected.name(), currentToken.getSpelling());
         }
     }
 
     //----------------------------------
-    //register a SyntaxError and throw a CompilationException to exit from parsing
-    private void reportSyntacticError(int position, String expectedToken,
+    //register a SyntaxError and throw a CompilationException to exit from parsing,
+    //or a SyntaxErrorException to skip to where parsing can go on.
+    //the column is found from the offset when the source's lines are known
+    void reportSyntacticError(int position, int offset, String expectedToken,
                                       String metToken) {
         String message =
                 "At line " + position + ", expected " + expectedToken + ", " + "got" +
                         " " + metToken + " instead.\n ";
-        errorHandler.register(Error.Kind.PARSE_ERROR, scanner.getFilename(), position,
-                message);
-        // exit immediately because the parser can't continue
-        throw new CompilationException(message, new Throwable());
+        LineIndex lines = scanner.getLineIndex();
+        int column = -1;
+        if (lines != null && offset >= 0 && offset <= lines.getLength()
+                && lines.getLine(offset) == position) {
+            column = lines.getColumn(offset);
+        }
+        errorHandler.register(new Error(Error.Kind.PARSE_ERROR, scanner.getFilename(),
+                position, column, message));
+        if (!errorRecovery) {
+            // exit immediately because the parser can't continue
+            throw new CompilationException(message, new Throwable());
+        }
+        syntaxErrorCount++;
+        if (errorHandler.isFull()) {
+            // no further errors would be kept, so there is no point going on
+            throw new CompilationException(errorHandler);
+        }
+        throw SyntaxErrorException.INSTANCE;
+    }
+
+    //----------------------------------
+    //Skipping after a syntax error.
+    //Each method skips tokens from the one the error was found at and returns
+    //whether parsing can go on at the level it skips at. The token that stops
+    //the skipping is either consumed or one that the next parse at that level
+    //consumes, so parsing always moves on.
+
+    //skip the rest of a statement: up to and including a semicolon, or up to a
+    //token that starts a statement or ends the block. False if a class or the
+    //end of the file is met first.
+    boolean skipStatement() {
+        while (true) {
+            switch (getCurrentKind()) {
+                case SEMICOLON:
+                    advance();
+                    return true;
+                case IF:
+                case WHILE:
+                case FOR:
+                case RETURN:
+                case BREAK:
+                case VAR:
+                case LCURLY:
+                case RCURLY:
+                    return true;
+                case CLASS:
+                case EOF:
+                    return false;
+                default:
+                    advance();
+            }
+        }
+    }
+
+    //skip the rest of a field or method declaration: up to and including a
+    //semicolon or a closing brace outside of any braces it opens, or up to the
+    //closing brace of the class. False if a class or the end of the file is
+    //met first.
+    private boolean skipMember() {
+        int braces = 0;
+        while (true) {
+            switch (getCurrentKind()) {
+                case SEMICOLON:
+                    advance();
+                    if (braces == 0) {
+                        return true;
+                    }
+                    break;
+                case LCURLY:
+                    braces++;
+                    advance();
+                    break;
+                case RCURLY:
+                    if (braces == 0) {
+                        return true;
+                    }
+                    advance();
+                    if (--braces == 0) {
+                        return true;
+                    }
+                    break;
+                case CLASS:
+                case EOF:
+                    return false;
+                default:
+                    advance();
+            }
+        }
+    }
+
+    //skip the rest of a class: up to the next class or the end of the file
+    private void skipClass() {
+        while (currentToken.kind != CLASS && currentToken.kind != EOF) {
+            advance();
+        }
     }
 
     /**
@@ -121,26 +507,129 @@ public class Parser {
      * @return The Program node forming the root of the AST generated by the parser
      */
     public Program parse(String filename) {
+        byte[] source = astCache == null ? null : ASTCache.readSource(filename);
+        if (source == null) {
+            return scanAndParse(filename, null);
+        }
+        namePool = new NamePool();
+        NamePool constants = sharingConstants ? new NamePool() : null;
+        Program program = astCache.load(source, filename, namePool, constants);
+        if (program != null) {
+            tokenBuffer = null;
+            recoveredProgram = null;
+            syntaxErrorCount = 0;
+            kindIndex = indexing ? new KindIndex(program) : null;
+            constantPool = constants;
+            return program;
+        }
+        int errorCount = errorHandler.getErrorList().size();
+        // the source is scanned from the bytes already read for the key
+        program = scanAndParse(filename, source);
+        if (!lazyBodies && !errorHandler.isFull()
+                && errorHandler.getErrorList().size() == errorCount) {
+            astCache.store(source, filename, program);
+        }
+        return program;
+    }
+
+    // scan and parse the given file, from its bytes if they were already read
+    private Program scanAndParse(String filename, byte[] bytes) {
 
         //set up scanner
-        scanner = new Scanner(filename, errorHandler);
+        namePool = new NamePool();
+        if (parallelLexer != null) {
+            return parse(bytes == null
+                    ? parallelLexer.lex(filename, errorHandler, namePool)
+                    : parallelLexer.lex(filename, bytes, errorHandler, namePool));
+        }
+        if (pipelined && !bufferTokens && !lazyBodies) {
+            Scanner.Engine engine = scannerEngine;
+            NamePool names = namePool;
+            boolean skip = skipComments;
+            return parse(new PipelinedScanner(filename, errorHandler,
+                    handler -> applyScannerOptions(
+                            newScanner(filename, bytes, handler, engine, names), skip)));
+        }
+        return parse(applyScannerOptions(
+                newScanner(filename, bytes, errorHandler, scannerEngine, namePool),
+                skipComments));
+    }
 
-        // start scanning and parsing
-        advance();
-        return parseProgram();
+    // a scanner for the given file, reading it unless its bytes were already read
+    private static Scanner newScanner(String filename, byte[] bytes, ErrorHandler handler,
+                                      Scanner.Engine engine, NamePool names) {
+        return bytes == null ? new Scanner(filename, handler, engine, names)
+                : new Scanner(filename, bytes, handler, engine, names);
     }
 
     // parse the characters in the reader and return the AST
     public Program parse(Reader reader) {
 
         //set up scanner
-        scanner = new Scanner(reader, errorHandler);
+        namePool = new NamePool();
+        if (parallelLexer != null) {
+            return parse(parallelLexer.lex(reader, errorHandler, namePool));
+        }
+        if (pipelined && !bufferTokens && !lazyBodies) {
+            Scanner.Engine engine = scannerEngine;
+            NamePool names = namePool;
+            boolean skip = skipComments;
+            return parse(new PipelinedScanner(null, errorHandler,
+                    handler -> applyScannerOptions(
+                            new Scanner(reader, handler, engine, names), skip)));
+        }
+        return parse(applyScannerOptions(
+                new Scanner(reader, errorHandler, scannerEngine, namePool), skipComments));
+    }
+
+    /**
+     * Applies the scanner options to a new Scanner
+     */
+    private static Scanner applyScannerOptions(Scanner newScanner, boolean skipComments) {
+        newScanner.setSkipComments(skipComments);
+        return newScanner;
+    }
+
+    /**
+     * parse tokens that were already scanned and return the root node of the AST.
+     * Parsing the same buffer again gives an equal AST without scanning again.
+     * Scanning errors were registered when the buffer was filled, so they are
+     * not registered again.
+     *
+     * @param tokens all the tokens of a file
+     * @return The Program node forming the root of the AST generated by the parser
+     */
+    public Program parse(TokenBuffer tokens) {
+        namePool = tokens.getNamePool();
+        tokenBuffer = tokens;
+
+        // start parsing
+        startScanning(tokens.cursor());
+        return parseProgram();
+    }
+
+    private Program parse(Scanner fileScanner) {
+        if (bufferTokens || lazyBodies) {
+            return parse(TokenBuffer.lex(fileScanner));
+        }
+        tokenBuffer = null;
 
         // start scanning and parsing
-        advance();
+        startScanning(fileScanner);
         return parseProgram();
     }
 
+    private Program parse(PipelinedScanner pipelinedScanner) {
+        tokenBuffer = null;
+        try {
+            startScanning(pipelinedScanner);
+            return parseProgram();
+        } finally {
+            // stop the scanner thread if parsing ended early with an error
+            pipelinedScanner.close();
+        }
+    }
+
 
     //------------------------------
     //Begin Parsing
@@ -149,14 +638,49 @@ public class Parser {
     private Program parseProgram() {
 
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
         ClassList clist = new ClassList(position);
+        syntaxErrorCount = 0;
+        recoveredProgram = null;
+        kindIndex = indexing ? new KindIndex() : null;
+        constantPool = sharingConstants ? new NamePool() : null;
 
         while (currentToken.kind != EOF) {
-            Class_ aClass = parseClass();
-            clist.addElement(aClass);
+            Class_ aClass = parseClassOrSkip();
+            if (aClass != null) {
+                clist.addElement(aClass);
+                if (kindIndex != null) {
+                    kindIndex.addClass(aClass);
+                }
+            }
+        }
+
+        clist.freeze();
+        range(clist, start);
+        Program program = range(new Program(position, clist), start);
+        if (syntaxErrorCount > 0) {
+            recoveredProgram = program;
+            throw new CompilationException(errorHandler);
         }
+        return program;
+    }
 
-        return new Program(position, clist);
+    //parse a class, or skip it up to the next class after a syntax error and
+    //return null
+    private Class_ parseClassOrSkip() {
+        if (listener != null) {
+            listener.classStarted();
+        }
+        Class_ aClass = null;
+        try {
+            aClass = parseClass();
+        } catch (SyntaxErrorException e) {
+            skipClass();
+        }
+        if (listener != null) {
+            listener.classEnded(aClass);
+        }
+        return aClass;
     }
 
     //-----------------------------
@@ -167,6 +691,7 @@ public class Parser {
 
         Class_ aClass;
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
 
         advanceIfTokenMatches(CLASS);
         Token className = currentToken;
@@ -180,19 +705,52 @@ public class Parser {
         }
 
         MemberList memberList = new MemberList(currentToken.position);
+        int listStart = currentToken.getStartOffset();
         advanceIfTokenMatches(LCURLY);
-        while (currentToken.kind != RCURLY && currentToken.kind != EOF) {
-            Member member = parseMember();
-            memberList.addElement(member);
+        classCutShort = false;
+        while (currentToken.kind != RCURLY && currentToken.kind != EOF
+                && !classCutShort) {
+            memberList.addElement(parseMemberOrSkip());
+        }
+        if (!classCutShort) {
+            try {
+                advanceIfTokenMatches(RCURLY);
+            } catch (SyntaxErrorException e) {
+                // the file ends without closing the class, so keep its members
+            }
         }
-        advanceIfTokenMatches(RCURLY);
 
-        aClass = new Class_(position, scanner.getFilename(), className.spelling,
+        memberList.freeze();
+        range(memberList, listStart);
+        aClass = new Class_(position, scanner.getFilename(), className.getSpelling(),
                 parentName, memberList);
-        return aClass;
+        return range(aClass, start);
     }
 
 
+    //parse a field or method, or skip it after a syntax error and return an
+    //ErrorMember in its place. If the skipping runs into the next class or the
+    //end of the file, classCutShort is set, and the class ends there without
+    //asking for its closing brace.
+    private Member parseMemberOrSkip() {
+        if (listener != null) {
+            listener.memberStarted();
+        }
+        int memberPosition = currentToken.position;
+        int memberStart = currentToken.getStartOffset();
+        Member member;
+        try {
+            member = parseMember();
+        } catch (SyntaxErrorException e) {
+            classCutShort = !skipMember();
+            member = range(new ErrorMember(memberPosition), memberStart);
+        }
+        if (listener != null) {
+            listener.memberEnded(member);
+        }
+        return member;
+    }
+
     //-----------------------------------
     //Fields and Methods
 
@@ -202,6 +760,7 @@ public class Parser {
     //<OptInitialValue> ::= EMPTY | = <Expression>
     private Member parseMember() {
         Method method;
+        int start = currentToken.getStartOffset();
         String type = parseType();
 
         String id = parseIdentifier();
@@ -213,23 +772,127 @@ public class Parser {
             advance();
             FormalList parameters = parseParameters();
             advanceIfTokenMatches(RPAREN);
-            stmt = (BlockStmt) parseBlock();
+            if (lazyBodies && currentToken.kind == LCURLY
+                    && scanner instanceof TokenCursor) {
+                TokenCursor cursor = (TokenCursor) scanner;
+                int bodyIndex = cursor.mark() - 1; // the index of currentToken
+                int bodyEnd = findClosingBrace(cursor.getBuffer(), bodyIndex);
+                if (bodyEnd >= 0) {
+                    cursor.reset(bodyEnd + 1);
+                    advance();
+                    // the body's closing brace is the last token of the method
+                    TokenBuffer tokens = cursor.getBuffer();
+                    previousEnd = tokens.getStartOffset(bodyEnd) + tokens.getLength(bodyEnd);
+                    return range(new Method(position, type, id, parameters,
+                            new LazyBody(errorHandler, cursor.getBuffer(), bodyIndex,
+                                    iterative, precedenceClimbing, errorRecovery,
+                                    constantPool)), start);
+                }
+            }
+            stmt = (BlockStmt) (iterative ? iterativeParser.parseBlock()
+                    : parseBlock());
             method = new Method(position, type, id, parameters, stmt.getStmtList());
-            return method;
+            return range(method, start);
         } else {
             Expr init = null;
 
             if (currentToken.kind == ASSIGN) {
                 advance();
-                init = parseExpression();
+                init = iterative ? iterativeParser.parseExpression()
+                        : parseExpression();
             }
             advanceIfTokenMatches(SEMICOLON);
 
-            return new Field(position, type, id, init);
+            return range(new Field(position, type, id, init), start);
+        }
+
+    }
+
+
+    //find the brace closing the one at the given index, looking only at the kinds
+    //of the tokens. -1 if the next class or the end of the file comes first.
+    private static int findClosingBrace(TokenBuffer tokens, int index) {
+        int depth = 0;
+        for (int i = index; i < tokens.size(); i++) {
+            Token.Kind kind = tokens.getKind(i);
+            if (kind == LCURLY) {
+                depth++;
+            } else if (kind == RCURLY) {
+                if (--depth == 0) {
+                    return i;
+                }
+            } else if (kind == CLASS || kind == EOF) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    //parse a method body that was skipped, from its opening brace at the
+    //given index, and return its statements. Its constants are shared through
+    //the given pool, or not shared if it is null.
+    StmtList parseBody(TokenBuffer tokens, int index, NamePool constantPool) {
+        namePool = tokens.getNamePool();
+        this.constantPool = constantPool;
+        tokenBuffer = tokens;
+        TokenCursor cursor = tokens.cursor();
+        cursor.reset(index);
+        startScanning(cursor);
+        BlockStmt stmt = (BlockStmt) (iterative ? iterativeParser.parseBlock()
+                : parseBlock());
+        return stmt.getStmtList();
+    }
+
+
+    //parse the whole of the given tokens, telling the listener where each
+    //class and member is. When going on after syntax errors, the program is
+    //returned even if there were some.
+    Program parseWithListener(TokenSource tokens, ParseListener parseListener) {
+        startListening(tokens, parseListener);
+        try {
+            return parseProgram();
+        } catch (CompilationException e) {
+            if (recoveredProgram == null) {
+                throw e;
+            }
+            return recoveredProgram;
+        } finally {
+            listener = null;
+        }
+    }
+
+    //parse one class from the first of the given tokens, telling the listener
+    //where it and its members are. null if it had a syntax error and was
+    //skipped.
+    Class_ parseClassWithListener(TokenSource tokens, ParseListener parseListener) {
+        startListening(tokens, parseListener);
+        try {
+            return parseClassOrSkip();
+        } finally {
+            listener = null;
         }
+    }
 
+    //parse one field or method from the first of the given tokens, telling
+    //the listener where it is. null if it had a syntax error and the skipping
+    //ran into the next class or the end of the file, which ends its class.
+    Member parseMemberWithListener(TokenSource tokens, ParseListener parseListener) {
+        startListening(tokens, parseListener);
+        try {
+            classCutShort = false;
+            Member member = parseMemberOrSkip();
+            return classCutShort ? null : member;
+        } finally {
+            listener = null;
+        }
     }
 
+    private void startListening(TokenSource tokens, ParseListener parseListener) {
+        tokenBuffer = null;
+        listener = parseListener;
+        syntaxErrorCount = 0;
+        startScanning(tokens);
+    }
 
     //-----------------------------------
     //<Stmt>::= <IfStmt> | <BlockStmt> | <DeclStmt> | <ReturnStmt>
@@ -237,7 +900,7 @@ public class Parser {
     private Stmt parseStatement() {
         Stmt stmt;
 
-        switch (currentToken.kind) {
+        switch (getCurrentKind()) {
             case IF:
                 stmt = parseIf();
                 break;
@@ -270,6 +933,7 @@ public class Parser {
     //<WhileStmt>::= WHILE ( <Expression> ) <Stmt>
     private Stmt parseWhile() {
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
 
         advance(); // past "while"
         advanceIfTokenMatches(LPAREN);
@@ -277,7 +941,7 @@ public class Parser {
         advanceIfTokenMatches(RPAREN);
         Stmt execution = parseStatement();
 
-        return new WhileStmt(position, expression, execution);
+        return range(new WhileStmt(position, expression, execution), start);
     }
 
 
@@ -298,36 +962,39 @@ public class Parser {
     private Stmt parseReturn() {
         // currentToken is “return" at the start of this method
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
         Expr expr = null;
 
         advance();
 
         if (currentToken.kind == SEMICOLON) {
             advance();
-            return new ReturnStmt(position, null);
+            return range(new ReturnStmt(position, null), start);
         } else {
             expr = parseExpression();
             advanceIfTokenMatches(SEMICOLON);
-            return new ReturnStmt(position, expr);
+            return range(new ReturnStmt(position, expr), start);
         }
     }
 
 
     //<BreakStmt>::= BREAK ;
-    private Stmt parseBreak() {
+    Stmt parseBreak() {
         Stmt stmt = new BreakStmt(currentToken.position);
+        int start = currentToken.getStartOffset();
         advance();
         advanceIfTokenMatches(SEMICOLON);
-        return stmt;
+        return range(stmt, start);
     }
 
 
     //<ExpressionStmt>::= <Expression> ;
     private ExprStmt parseExpressionStmt() {
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
         Expr expr = parseExpression();
         advanceIfTokenMatches(SEMICOLON);
-        return new ExprStmt(position, expr);
+        return range(new ExprStmt(position, expr), start);
     }
 
 
@@ -336,8 +1003,9 @@ public class Parser {
     private Stmt parseDeclStmt() {
 
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
         DeclStmt stmt;
-        String type = currentToken.spelling;
+        String type = currentToken.getSpelling();
         advance(); // the keyword var
 
         String id = parseIdentifier();
@@ -348,7 +1016,7 @@ public class Parser {
         stmt.setType(type);
         advanceIfTokenMatches(SEMICOLON);
 
-        return stmt;
+        return range(stmt, start);
     }
 
 
@@ -359,6 +1027,7 @@ public class Parser {
     private Stmt parseFor() {
 
         int position = currentToken.position;
+        int startOffset = currentToken.getStartOffset();
         Expr start = null;
         Expr terminate = null;
         Expr increment = null;
@@ -385,7 +1054,8 @@ public class Parser {
 
         execute = parseStatement();
 
-        return new ForStmt(position, start, terminate, increment, execute);
+        return range(new ForStmt(position, start, terminate, increment, execute),
+                startOffset);
     }
 
 
@@ -394,15 +1064,29 @@ public class Parser {
     private Stmt parseBlock() {
 
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
         StmtList stmtList = new StmtList(position);
         advanceIfTokenMatches(LCURLY);
 
         while (currentToken.kind != RCURLY) {
-            stmtList.addElement(parseStatement());
+            int stmtPosition = currentToken.position;
+            int stmtStart = currentToken.getStartOffset();
+            try {
+                stmtList.addElement(parseStatement());
+            } catch (SyntaxErrorException e) {
+                if (!skipStatement()) {
+                    // leave the block to the member that holds it
+                    throw e;
+                }
+                stmtList.addElement(range(new ErrorStmt(stmtPosition), stmtStart));
+            }
         }
         advanceIfTokenMatches(RCURLY);
 
-        return new BlockStmt(position, stmtList);
+        // the list takes in the braces too, as a method's body has no block
+        stmtList.freeze();
+        range(stmtList, start);
+        return range(new BlockStmt(position, stmtList), start);
     }
 
 
@@ -410,6 +1094,7 @@ public class Parser {
     private Stmt parseIf() {
 
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
         Expr condition;
         Stmt thenStmt;
         Stmt elseStmt = null;
@@ -425,7 +1110,7 @@ public class Parser {
             elseStmt = parseStatement();
         }
 
-        return new IfStmt(position, condition, thenStmt, elseStmt);
+        return range(new IfStmt(position, condition, thenStmt, elseStmt), start);
     }
 
 
@@ -436,8 +1121,12 @@ public class Parser {
     //<Expression>::= <LogicalOrExpr> <OptionalAssignment>
     // <OptionalAssignment>::=  = <Expression> | EMPTY
     private Expr parseExpression() {
+        if (precedenceClimbing) {
+            return parseBinaryExpr(ASSIGN_LEVEL);
+        }
         Expr result;
         int position = currentToken.position;
+        int startOffset = currentToken.getStartOffset();
         result = parseOrExpr();
         if (currentToken.kind == ASSIGN && result instanceof VarExpr) {
             advance();
@@ -445,28 +1134,160 @@ public class Parser {
             Expr lhsRef = lhs.getRef();
             if (lhsRef != null && (!(lhsRef instanceof VarExpr)
                     || ((VarExpr) lhsRef).getRef() != null))
-                reportSyntacticError(position, "a name or a name.name", "expr.name.name");
+                reportSyntacticError(position, startOffset, "a name or a name.name",
+                        "expr.name.name");
             Expr right = parseExpression();
             String lhsName = lhs.getName();
             String lhsRefName = (lhs.getRef() == null ? null :
                     ((VarExpr) lhs.getRef()).getName());
-            result = new AssignExpr(position, lhsRefName, lhsName, right);
+            result = range(new AssignExpr(position, lhsRefName, lhsName, right),
+                    startOffset);
         }
         return result;
     }
 
 
+    // Parses the expression of the given level by precedence climbing. Starting
+    // from the operand at the bottom, it takes each operator of the level or
+    // above, parsing the right operand at the level below the operator's, just
+    // as the method for the operator's level would. The comparison levels take at
+    // most one operator and the assignment is right associative. Every node built
+    // gets the line where the expression starts, as with the methods of the
+    // levels, since all those methods are entered at the same token.
+    private Expr parseBinaryExpr(int minLevel) {
+        int position = currentToken.position;
+        int startOffset = currentToken.getStartOffset();
+        Expr left = parseNewCastOrUnary();
+        // the highest level whose operators may still be taken
+        int maxLevel = MULT_LEVEL;
+
+        while (true) {
+            int level = getBinaryLevel(currentToken);
+            if (level < minLevel || level > maxLevel) {
+                return left;
+            }
+            String op = currentToken.getSpelling();
+            switch (level) {
+                case ASSIGN_LEVEL:
+                    if (!(left instanceof VarExpr)) {
+                        return left;
+                    }
+                    advance();
+                    VarExpr lhs = (VarExpr) left;
+                    Expr lhsRef = lhs.getRef();
+                    if (lhsRef != null && (!(lhsRef instanceof VarExpr)
+                            || ((VarExpr) lhsRef).getRef() != null))
+                        reportSyntacticError(position, startOffset, "a name or a name.name",
+                                "expr.name.name");
+                    Expr right = parseBinaryExpr(ASSIGN_LEVEL);
+                    String lhsRefName = (lhsRef == null ? null : ((VarExpr) lhsRef).getName());
+                    return range(new AssignExpr(position, lhsRefName, lhs.getName(), right),
+                            startOffset);
+                case RELATIONAL_LEVEL:
+                    advance();
+                    if (op.equals("instanceof")) {
+                        left = new InstanceofExpr(position, left, parseType());
+                    } else {
+                        left = buildBinaryExpr(op, position, left,
+                                parseBinaryExpr(ADD_LEVEL));
+                    }
+                    range(left, startOffset);
+                    maxLevel = COMPARISON_LEVEL;
+                    break;
+                case COMPARISON_LEVEL:
+                    advance();
+                    left = range(buildBinaryExpr(op, position, left,
+                            parseBinaryExpr(RELATIONAL_LEVEL)), startOffset);
+                    maxLevel = AND_LEVEL;
+                    break;
+                case MULT_LEVEL:
+                    advance();
+                    left = range(buildBinaryExpr(op, position, left, parseNewCastOrUnary()),
+                            startOffset);
+                    break;
+                default: // the other levels are left associative
+                    advance();
+                    left = range(buildBinaryExpr(op, position, left,
+                            parseBinaryExpr(level + 1)), startOffset);
+                    maxLevel = level;
+            }
+        }
+    }
+
+    // the precedence level of the binary operator the token stands for, or
+    // NO_LEVEL if it is not one
+    private static int getBinaryLevel(Token token) {
+        if (token.kind == null) {
+            return NO_LEVEL;
+        }
+        int level = KIND_LEVEL[token.kind.ordinal()];
+        if (level != BY_SPELLING) {
+            return level;
+        }
+        switch (token.getSpelling()) {
+            case "||":
+                return OR_LEVEL;
+            case "&&":
+                return AND_LEVEL;
+            case "==":
+            case "!=":
+                return COMPARISON_LEVEL;
+            case "<":
+            case "<=":
+            case ">":
+            case ">=":
+            case "instanceof":
+                return RELATIONAL_LEVEL;
+            default:
+                return NO_LEVEL;
+        }
+    }
+
+    // builds the node of a binary operator other than = and instanceof
+    private static Expr buildBinaryExpr(String op, int position, Expr left, Expr right) {
+        switch (op) {
+            case "||":
+                return new BinaryLogicOrExpr(position, left, right);
+            case "&&":
+                return new BinaryLogicAndExpr(position, left, right);
+            case "==":
+                return new BinaryCompEqExpr(position, left, right);
+            case "!=":
+                return new BinaryCompNeExpr(position, left, right);
+            case "<":
+                return new BinaryCompLtExpr(position, left, right);
+            case "<=":
+                return new BinaryCompLeqExpr(position, left, right);
+            case ">":
+                return new BinaryCompGtExpr(position, left, right);
+            case ">=":
+                return new BinaryCompGeqExpr(position, left, right);
+            case "+":
+                return new BinaryArithPlusExpr(position, left, right);
+            case "/":
+                return new BinaryArithDivideExpr(position, left, right);
+            case "*":
+                return new BinaryArithTimesExpr(position, left, right);
+            case "%":
+                return new BinaryArithModulusExpr(position, left, right);
+            default: // any other PLUSMINUS is a minus, as in parseAddExpr
+                return new BinaryArithMinusExpr(position, left, right);
+        }
+    }
+
+
     //<LogicalOR>::= <logicalAND> <LogicalORRest>
     //<LogicalORRest>::= || <LogicalAND> <LogicalORRest> | EMPTY
     private Expr parseOrExpr() {
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
         Expr left;
 
         left = parseAndExpr();
-        while (currentToken.spelling.equals("||")) {
+        while (currentToken.getSpelling().equals("||")) {
             advance();
             Expr right = parseAndExpr();
-            left = new BinaryLogicOrExpr(position, left, right);
+            left = range(new BinaryLogicOrExpr(position, left, right), start);
         }
 
         return left;
@@ -477,11 +1298,12 @@ public class Parser {
     //<LogicalANDRest>::= && <ComparisonExpr> <LogicalANDRest> | EMPTY
     private Expr parseAndExpr() {
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
         Expr left = parseComparisonExpr();
-        while (currentToken.spelling.equals("&&")) {
+        while (currentToken.getSpelling().equals("&&")) {
             advance();
             Expr right = parseComparisonExpr();
-            left = new BinaryLogicAndExpr(position, left, right);
+            left = range(new BinaryLogicAndExpr(position, left, right), start);
         }
 
         return left;
@@ -493,16 +1315,17 @@ public class Parser {
     //<EqualOrNotEqual>::=   == | !=
     private Expr parseComparisonExpr() {
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
         Expr left = parseRelationalExpr();
 
-        if (currentToken.spelling.equals("==")) {
+        if (currentToken.getSpelling().equals("==")) {
             advance();
             Expr right = parseRelationalExpr();
-            left = new BinaryCompEqExpr(position, left, right);
-        } else if (currentToken.spelling.equals("!=")) {
+            left = range(new BinaryCompEqExpr(position, left, right), start);
+        } else if (currentToken.getSpelling().equals("!=")) {
             advance();
             Expr right = parseRelationalExpr();
-            left = new BinaryCompNeExpr(position, left, right);
+            left = range(new BinaryCompNeExpr(position, left, right), start);
         }
 
         return left;
@@ -513,30 +1336,31 @@ public class Parser {
     //<ComparisonOp>::= < | > | <= | >= | INSTANCEOF
     private Expr parseRelationalExpr() {
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
         Expr left, right;
 
         left = parseAddExpr();
-        switch (currentToken.spelling) {
+        switch (currentToken.getSpelling()) {
             case "<":
                 advance();
                 right = parseAddExpr();
-                return new BinaryCompLtExpr(position, left, right);
+                return range(new BinaryCompLtExpr(position, left, right), start);
             case "<=":
                 advance();
                 right = parseAddExpr();
-                return new BinaryCompLeqExpr(position, left, right);
+                return range(new BinaryCompLeqExpr(position, left, right), start);
             case ">":
                 advance();
                 right = parseAddExpr();
-                return new BinaryCompGtExpr(position, left, right);
+                return range(new BinaryCompGtExpr(position, left, right), start);
             case ">=":
                 advance();
                 right = parseAddExpr();
-                return new BinaryCompGeqExpr(position, left, right);
+                return range(new BinaryCompGeqExpr(position, left, right), start);
             case "instanceof":
                 advance();
                 String type = parseType();
-                return new InstanceofExpr(position, left, type);
+                return range(new InstanceofExpr(position, left, type), start);
         }
 
         return left;
@@ -547,17 +1371,18 @@ public class Parser {
     //<MoreMult>::= + <MultExpr> <MoreMult> | - <MultiExpr> <MoreMult> | EMPTY
     private Expr parseAddExpr() {
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
         Expr left = parseMultExpr();
 
         while (currentToken.kind == PLUSMINUS) {
-            if (currentToken.spelling.equals("+")) {
+            if (currentToken.getSpelling().equals("+")) {
                 advance();
                 Expr right = parseMultExpr();
-                left = new BinaryArithPlusExpr(position, left, right);
+                left = range(new BinaryArithPlusExpr(position, left, right), start);
             } else {
                 advance();
                 Expr right = parseMultExpr();
-                left = new BinaryArithMinusExpr(position, left, right);
+                left = range(new BinaryArithMinusExpr(position, left, right), start);
             }
         }
 
@@ -572,26 +1397,27 @@ public class Parser {
     //             EMPTY
     private Expr parseMultExpr() {
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
         Expr left, right;
 
 
         left = parseNewCastOrUnary();
         while (currentToken.kind == MULDIV) {
-            switch (currentToken.spelling) {
+            switch (currentToken.getSpelling()) {
                 case "/":
                     advance();
                     right = parseNewCastOrUnary();
-                    left = new BinaryArithDivideExpr(position, left, right);
+                    left = range(new BinaryArithDivideExpr(position, left, right), start);
                     break;
                 case "*":
                     advance();
                     right = parseNewCastOrUnary();
-                    left = new BinaryArithTimesExpr(position, left, right);
+                    left = range(new BinaryArithTimesExpr(position, left, right), start);
                     break;
                 case "%":
                     advance();
                     right = parseNewCastOrUnary();
-                    left = new BinaryArithModulusExpr(position, left, right);
+                    left = range(new BinaryArithModulusExpr(position, left, right), start);
                     break;
             }
         }
@@ -603,7 +1429,7 @@ public class Parser {
     private Expr parseNewCastOrUnary() {
         Expr result;
 
-        switch (currentToken.kind) {
+        switch (getCurrentKind()) {
             case NEW:
                 result = parseNew();
                 break;
@@ -619,13 +1445,14 @@ public class Parser {
 
 
     //<NewExpression>::= NEW <Identifier>()
-    private Expr parseNew() {
+    Expr parseNew() {
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
         advance();
         String type = parseIdentifier();
         advanceIfTokenMatches(LPAREN);
         advanceIfTokenMatches(RPAREN);
-        return new NewExpr(position, type);
+        return range(new NewExpr(position, type), start);
     }
 
     //<CastExpression>::= (<Type>) <Expression> 
@@ -633,13 +1460,14 @@ public class Parser {
 
         Expr castExpression;
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
         advance(); // move from '(' to type
         String type = parseType(); // should end with ')'
         advanceIfTokenMatches(RPAREN);
         Expr expression = parseExpression(); // Expression to re-type
 
         castExpression = new CastExpr(position, type, expression);
-        return castExpression;
+        return range(castExpression, start);
     }
 
 
@@ -647,21 +1475,22 @@ public class Parser {
     //<PrefixOp>::= - | ! | ++ | --
     private Expr parseUnaryPrefix() {
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
         Token.Kind kind = currentToken.kind;
 
-        if (currentToken.spelling.equals("-") || kind == UNARYDECR || kind == UNARYINCR ||
+        if (currentToken.getSpelling().equals("-") || kind == UNARYDECR || kind == UNARYINCR ||
                 kind == UNARYNOT) {
             advance();
             Expr expr = parseUnaryPrefix();
             if (kind == PLUSMINUS) {
-                return new UnaryNegExpr(position, expr);
+                return range(new UnaryNegExpr(position, expr), start);
             } else if (kind == UNARYDECR) {
-                return new UnaryDecrExpr(position, expr, false);
+                return range(new UnaryDecrExpr(position, expr, false), start);
             } else if (kind == UNARYINCR) {
-                return new UnaryIncrExpr(position, expr, false);
+                return range(new UnaryIncrExpr(position, expr, false), start);
             } else // kind == UNARYNOT
             {
-                return new UnaryNotExpr(position, expr);
+                return range(new UnaryNotExpr(position, expr), start);
             }
         } else {
             return parseUnaryPostfix();
@@ -676,14 +1505,17 @@ public class Parser {
 
         Expr unary;
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
 
         unary = parsePrimary();
         if (currentToken.kind == UNARYINCR) {
             unary = new UnaryIncrExpr(position, unary, true);
             advance();
+            range(unary, start);
         } else if (currentToken.kind == UNARYDECR) {
             unary = new UnaryDecrExpr(position, unary, true);
             advance();
+            range(unary, start);
         }
 
         return unary;
@@ -709,8 +1541,9 @@ public class Parser {
      */
     private Expr parsePrimary() {
         Expr primary;
+        int start = currentToken.getStartOffset();
 
-        switch (currentToken.kind) {
+        switch (getCurrentKind()) {
             case CHRCONST:
                 return parseChrConst();
             case DBLCONST:
@@ -726,14 +1559,16 @@ public class Parser {
                 advance();
                 primary = parseExpression();
                 advanceIfTokenMatches(RPAREN);
+                range(primary, start); // take in the parentheses
                 if (currentToken.kind == LPAREN) //cannot have ( expr )( args )
                     reportSyntacticError(currentToken.position,
+                            currentToken.getStartOffset(),
                             "something other than \"(\"",
                             currentToken.kind.name());
                 break;
             default:
                 String id = parseIdentifier();
-                primary = new VarExpr(currentToken.position, null, id);
+                primary = range(new VarExpr(currentToken.position, null, id), start);
         }
         // now add the suffixes
         while (currentToken.kind == DOT
@@ -749,12 +1584,12 @@ public class Parser {
                             new VarExpr(-1, null, "this"),
                             varExpr.getName());
                 }
-                primary = new DispatchExpr(primary.getLineNum(), varExpr.getRef(),
-                        varExpr.getName(), args);
+                primary = range(new DispatchExpr(primary.getLineNum(), varExpr.getRef(),
+                        varExpr.getName(), args), start);
             } else { // currentToken is a DOT
                 advance();
                 String id = parseIdentifier();
-                primary = new VarExpr(currentToken.position, primary, id);
+                primary = range(new VarExpr(currentToken.position, primary, id), start);
             }
         }
 
@@ -766,12 +1601,11 @@ public class Parser {
     //<MoreArgs> ::= EMPTY | , <Expression> <MoreArgs>
     private ExprList parseArguments() {
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
 
         ExprList ar = new ExprList(position);
 
-        if (currentToken.kind == RPAREN) {
-            return ar;
-        } else {
+        if (currentToken.kind != RPAREN) {
             ar.addElement(parseExpression());
             while (currentToken.kind != RPAREN) {
                 advanceIfTokenMatches(COMMA);
@@ -779,7 +1613,8 @@ public class Parser {
             }
         }
 
-        return ar;
+        ar.freeze();
+        return range(ar, start);
     }
 
 
@@ -787,12 +1622,11 @@ public class Parser {
     //<MoreFormals> ::= EMPTY | , <Formal> <MoreFormals
     private FormalList parseParameters() {
         int position = currentToken.position;
+        int start = currentToken.getStartOffset();
 
         FormalList parameters = new FormalList(position);
 
-        if (currentToken.kind == RPAREN) {
-            return parameters;
-        } else {
+        if (currentToken.kind != RPAREN) {
             parameters.addElement(parseFormal());
             while (currentToken.kind != RPAREN) {
                 advanceIfTokenMatches(COMMA);
@@ -800,18 +1634,21 @@ public class Parser {
             }
         }
 
-        return parameters;
+        parameters.freeze();
+        return range(parameters, start);
     }
 
 
     //<Formal> ::= <Type> <Identifier>
     private Formal parseFormal() {
-        return new Formal(currentToken.position, parseType(), parseIdentifier());
+        int start = currentToken.getStartOffset();
+        return range(new Formal(currentToken.position, parseType(), parseIdentifier()),
+                start);
     }
 
 
     //<Type> ::= <Identifier>
-    private String parseType() {
+    String parseType() {
         String id = parseIdentifier();
         return id;
     }
@@ -827,52 +1664,105 @@ public class Parser {
         return op;
     }
 
+    Token getCurrentToken() {
+        return currentToken;
+    }
+
+    // give a node the range from the given offset to the end of the last token
+    // consumed, and return it. A node that consumed no tokens, such as an empty
+    // list, gets an empty range just past the last token consumed, so that it
+    // stays within its parent.
+    <T extends ASTNode> T range(T node, int startOffset) {
+        if (previousEnd <= startOffset) {
+            node.setRange(previousEnd, previousEnd);
+        } else {
+            node.setRange(startOffset, previousEnd);
+        }
+        return node;
+    }
+
+    // the kind of the current token to switch on. A token the scanner could not
+    // tell the kind of counts as an ERROR token, which no rule starts with.
+    Token.Kind getCurrentKind() {
+        return currentToken.kind == null ? ERROR : currentToken.kind;
+    }
+
+    // start taking tokens from the given source
+    private void startScanning(TokenSource tokens) {
+        scanner = tokens;
+        currentToken = null;
+        previousEnd = 0;
+        advance();
+    }
+
     // unconditionally fetch the next token
-    private void advance() {
+    void advance() {
+        if (currentToken != null) {
+            previousEnd = currentToken.getEndOffset();
+        }
         do {
             currentToken = scanner.scan();
         } while (currentToken.kind == COMMENT);
     }
 
-    private String parseIdentifier() {
+    String parseIdentifier() {
         String name = currentToken.getSpelling();
         advanceIfTokenMatches(IDENTIFIER);
         return name;
     }
 
-    private ConstStringExpr parseStringConst() {
+    //the spelling of the current token, which is a constant, shared with the
+    //other constants spelled the same way when sharing constants
+    private String constantSpelling() {
+        String spelling = currentToken.getSpelling();
+        return constantPool == null ? spelling : constantPool.canonical(spelling);
+    }
+
+    ConstStringExpr parseStringConst() {
         int position = currentToken.position;
-        String spelling = currentToken.spelling;
+        int start = currentToken.getStartOffset();
+        String spelling = constantSpelling();
+        String value = currentToken.getStringValue();
+        if (constantPool != null) {
+            value = constantPool.canonical(value);
+        }
         advanceIfTokenMatches(STRCONST);
-        return new ConstStringExpr(position, spelling);
+        return range(new ConstStringExpr(position, spelling, value), start);
     }
 
-    private ConstChrExpr parseChrConst() {
+    ConstChrExpr parseChrConst() {
         int position = currentToken.position;
-        String spelling = currentToken.spelling;
+        int start = currentToken.getStartOffset();
+        String spelling = constantSpelling();
+        char value = currentToken.getCharValue();
         advanceIfTokenMatches(CHRCONST);
-        return new ConstChrExpr(position, spelling);
+        return range(new ConstChrExpr(position, spelling, value), start);
     }
 
-    private ConstDblExpr parseDblConst() {
+    ConstDblExpr parseDblConst() {
         int position = currentToken.position;
-        String spelling = currentToken.spelling;
+        int start = currentToken.getStartOffset();
+        String spelling = constantSpelling();
+        double value = currentToken.getDoubleValue();
         advanceIfTokenMatches(DBLCONST);
-        return new ConstDblExpr(position, spelling);
+        return range(new ConstDblExpr(position, spelling, value), start);
     }
 
-    private ConstIntExpr parseIntConst() {
+    ConstIntExpr parseIntConst() {
         int position = currentToken.position;
-        String spelling = currentToken.spelling;
+        int start = currentToken.getStartOffset();
+        String spelling = constantSpelling();
+        int value = currentToken.getIntValue();
         advanceIfTokenMatches(INTCONST);
-        return new ConstIntExpr(position, spelling);
+        return range(new ConstIntExpr(position, spelling, value), start);
     }
 
-    private ConstBooleanExpr parseBoolean() {
+    ConstBooleanExpr parseBoolean() {
         int position = currentToken.position;
-        String spelling = currentToken.spelling;
+        int start = currentToken.getStartOffset();
+        String spelling = constantSpelling();
         advanceIfTokenMatches(BOOLEAN);
-        return new ConstBooleanExpr(position, spelling);
+        return range(new ConstBooleanExpr(position, spelling), start);
     }
 
 }
@@ -0,0 +1,35 @@
+/*
+ * File: PositionShifter.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.parser;
+
+import proj10BittingCerratoCohenEllmer.bantam.ast.ASTNode;
+import proj10BittingCerratoCohenEllmer.bantam.visitor.TreeTraversal;
+
+/**
+ * Moves every node of a subtree by the same number of lines and characters,
+ * for subtrees the IncrementalParser keeps after text was added or removed
+ * before them. Nodes with no line or range, such as the implicit <tt>this</tt>
+ * of a dispatch, keep theirs.
+ */
+class PositionShifter extends TreeTraversal {
+    private final int lineDelta;
+    private final int offsetDelta;
+
+    PositionShifter(int lineDelta, int offsetDelta) {
+        this.lineDelta = lineDelta;
+        this.offsetDelta = offsetDelta;
+    }
+
+    protected boolean enter(ASTNode node) {
+        if (node.getLineNum() >= 0) {
+            node.setLineNum(node.getLineNum() + lineDelta);
+        }
+        if (node.getStartOffset() >= 0) {
+            node.setRange(node.getStartOffset() + offsetDelta,
+                    node.getEndOffset() + offsetDelta);
+        }
+        return true;
+    }
+}
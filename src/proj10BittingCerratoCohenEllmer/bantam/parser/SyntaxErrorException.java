@@ -0,0 +1,24 @@
+/*
+ * File: SyntaxErrorException.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.parser;
+
+/**
+ * Thrown by the Parser once it has registered a syntax error, when it goes on
+ * parsing after errors, to give up on the statement, member or class being
+ * parsed. The method parsing the enclosing block, class or program catches it
+ * and resumes after the part that failed.
+ * <p>
+ * The error itself is in the ErrorHandler, so the exception carries nothing,
+ * and the same instance is always thrown. It never fills in a stack trace.
+ */
+final class SyntaxErrorException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    static final SyntaxErrorException INSTANCE = new SyntaxErrorException();
+
+    private SyntaxErrorException() {
+        super(null, null, false, false);
+    }
+}
@@ -7,11 +7,11 @@ package proj10BittingCerratoCohenEllmer.bantam.semant;
 
 import proj10BittingCerratoCohenEllmer.bantam.ast.ASTNode;
 import proj10BittingCerratoCohenEllmer.bantam.ast.Class_;
-import proj10BittingCerratoCohenEllmer.bantam.ast.Field;
 import proj10BittingCerratoCohenEllmer.bantam.ast.Method;
-import proj10BittingCerratoCohenEllmer.bantam.visitor.Visitor;
+import proj10BittingCerratoCohenEllmer.bantam.ast.NodeKind;
+import proj10BittingCerratoCohenEllmer.bantam.visitor.TreeTraversal;
 
-public class MainMethodVisitor extends Visitor {
+public class MainMethodVisitor extends TreeTraversal {
 
     /**
      * Internal used to register whether there is a valid method
@@ -20,38 +20,39 @@ public class MainMethodVisitor extends Visitor {
 
     /**
      * Returns true if there is a void method with no parameters named 'main' in a class
-     * named 'Main' else returns false
+     * named 'Main' else returns false. Only the classes and the members of
+     * the class 'Main' are looked at.
      *
      * @param rootNode node to start searching from. Should be the root node.
      * @return whether there is a valid method
      */
     public boolean hasMain(ASTNode rootNode) {
         hasAppropriateMainMethod = false;
-        rootNode.accept(this);
+        traverse(rootNode);
         return hasAppropriateMainMethod;
     }
 
     @Override
-    public Object visit(Class_ node) {
-        if ("Main".equals(node.getName())) {
-            node.getMemberList().accept(this);
+    protected boolean enter(ASTNode node) {
+        switch (node.getKind()) {
+            case NodeKind.PROGRAM:
+            case NodeKind.CLASS_LIST:
+            case NodeKind.MEMBER_LIST:
+                return true;
+            case NodeKind.CLASS:
+                return "Main".equals(((Class_) node).getName());
+            case NodeKind.METHOD:
+                Method method = (Method) node;
+                boolean nameMain = "main".equals(method.getName());
+                boolean voidMethod = "void".equals(method.getReturnType());
+                boolean noParameters = (method.getFormalList().getSize() == 0);
+                if (nameMain && voidMethod && noParameters) {
+                    hasAppropriateMainMethod = true;
+                    stop();
+                }
+                return false;
+            default:
+                return false;
         }
-        return null;
-    }
-
-    @Override
-    public Object visit(Method node) {
-        boolean nameMain = "main".equals(node.getName());
-        boolean voidMethod = "void".equals(node.getReturnType());
-        boolean noParameters = (node.getFormalList().getSize() == 0);
-        if (nameMain && voidMethod && noParameters) {
-            hasAppropriateMainMethod = true;
-        }
-        return null;
-    }
-
-    @Override
-    public Object visit(Field node) {
-        return null;
     }
 }
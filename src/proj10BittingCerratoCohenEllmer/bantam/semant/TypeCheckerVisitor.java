@@ -427,9 +427,10 @@ public class TypeCheckerVisitor extends Visitor
      */
     public Object visit(ExprList node) {
         List<String> typesList = new ArrayList<>();
-        for (ASTNode expr : node) {
+        for (int i = 0; i < node.getSize(); i++) {
+            Expr expr = (Expr) node.get(i);
             expr.accept(this);
-            typesList.add(((Expr) expr).getExprType());
+            typesList.add(expr.getExprType());
         }
         //return a List<String> of the types of the expressions
         return typesList;
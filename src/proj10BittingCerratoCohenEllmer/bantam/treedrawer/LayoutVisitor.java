@@ -57,6 +57,10 @@ public class LayoutVisitor extends Visitor {
                     node.getInit());
     }
 
+    public Object visit(ErrorMember node) {
+        return layoutNullary("Error");
+    }
+
     public Object visit(Method node) {
         return layoutBinary("Method " + node.getName() + ":" + node.getReturnType(),
                 node.getFormalList(), node.getStmtList());
@@ -124,6 +128,10 @@ public class LayoutVisitor extends Visitor {
         return layoutNullary("Break");
     }
 
+    public Object visit(ErrorStmt node) {
+        return layoutNullary("Error");
+    }
+
     // Expressions
 
     public Object visit(ExprList node) {
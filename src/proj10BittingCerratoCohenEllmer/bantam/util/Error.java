@@ -25,6 +25,10 @@ public class Error {
      * Line number in the source file where the error occurred
      */
     private int lineNum;
+    /**
+     * Column in the source line where the error occurred, or -1 if unknown
+     */
+    private int column;
     /**
      * Error message
      */
@@ -39,9 +43,24 @@ public class Error {
      * @param message  error message
      */
     public Error(Kind kind, String filename, int lineNum, String message) {
+        this(kind, filename, lineNum, -1, message);
+    }
+
+    /**
+     * Error constructor
+     *
+     * @param kind     the type of error (lex, parse, semantic)
+     * @param filename name of the file that contains the error
+     * @param lineNum  line number where the error occurred
+     * @param column   column where the error occurred, starting at 1, or -1
+     *                 if unknown
+     * @param message  error message
+     */
+    public Error(Kind kind, String filename, int lineNum, int column, String message) {
         this.kind = kind;
         this.filename = filename;
         this.lineNum = lineNum;
+        this.column = column;
         this.message = message;
     }
 
@@ -72,6 +91,15 @@ public class Error {
         return lineNum;
     }
 
+    /**
+     * Get the column in the source line where the error occurred
+     *
+     * @return the column, starting at 1, or -1 if unknown
+     */
+    public int getColumn() {
+        return column;
+    }
+
     /**
      * Get the error message
      *
@@ -89,6 +117,7 @@ public class Error {
             return getTypeString(getKind()) + getMessage();
         } else {
             return getFilename() + ":" + getLineNum() + ":" +
+                    (getColumn() > 0 ? getColumn() + ":" : "") +
                     getTypeString(getKind()) + getMessage();
         }
     }
@@ -37,6 +37,11 @@ import java.util.List;
  * of a list of errors that the compiler finds.
  */
 public class ErrorHandler {
+    /**
+     * The most errors that are kept
+     */
+    public static final int MAX_ERRORS = 100;
+
     /**
      * The list of errors
      */
@@ -50,7 +55,7 @@ public class ErrorHandler {
     public void register(Error error) {
         // insert a new error into the error list
         // but keep at most 100 errors.
-        if (errorList.size() < 100) {
+        if (errorList.size() < MAX_ERRORS) {
             insert(error);
         }
     }
@@ -68,6 +73,22 @@ public class ErrorHandler {
         register((new Error(kind, filename, lineNum, errorMessage)));
     }
 
+    /**
+     * Register an error at a character of the source, finding its line and
+     * column in the source's line index
+     *
+     * @param kind         the type (lex, parse, semantic) of error
+     * @param filename     the name of the filename where the error occurred
+     * @param lines        the line index of the source
+     * @param offset       the offset in the source where the error occurred
+     * @param errorMessage the error message
+     */
+    public void register(Error.Kind kind, String filename, LineIndex lines, int offset,
+                         String errorMessage) {
+        register(new Error(kind, filename, lines.getLine(offset),
+                lines.getColumn(offset), errorMessage));
+    }
+
     /**
      * Register an error
      *
@@ -88,6 +109,13 @@ public class ErrorHandler {
         return errorList.size() > 0;
     }
 
+    /**
+     * return true if no more errors will be kept
+     */
+    public boolean isFull() {
+        return errorList.size() >= MAX_ERRORS;
+    }
+
     /**
      * Insert an error onto the error list
      *
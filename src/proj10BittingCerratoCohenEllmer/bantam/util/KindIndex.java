@@ -0,0 +1,281 @@
+/*
+ * File: KindIndex.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.util;
+
+import proj10BittingCerratoCohenEllmer.bantam.ast.*;
+import proj10BittingCerratoCohenEllmer.bantam.visitor.TreeTraversal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * The classes of an AST by name, their fields and methods by name, and the
+ * nodes of each kind in each class, so that tools can find declarations and
+ * nodes without going through the whole tree.
+ * <p>
+ * Adding a class only records its name. The fields and methods of a class are
+ * read from its member list, without looking into the method bodies, the
+ * first time one is asked for. The nodes of each kind in a class are found the
+ * first time they are asked for, by going through that class once, and kept
+ * until the class changes; method bodies that were not parsed yet are parsed
+ * then. When there are two classes with the same name,
+ * or two members of a class with the same name, the first one is the one
+ * found by name.
+ * <p>
+ * The Parser builds an index of each program it parses when asked to, and the
+ * IncrementalParser keeps one up to date as members and classes are parsed
+ * again. Other changes to the AST need a new index or a call to classChanged.
+ */
+public final class KindIndex {
+    /**
+     * the names and nodes of one class
+     */
+    private static class ClassEntry {
+        final Class_ aClass;
+        /**
+         * the fields and methods of the class by name, or null until they are
+         * asked for
+         */
+        HashMap<String, Field> fields;
+        HashMap<String, Method> methods;
+        /**
+         * the nodes of the class by kind, from the Class_ down, or null until
+         * they are asked for
+         */
+        List<List<ASTNode>> nodes;
+
+        ClassEntry(Class_ aClass) {
+            this.aClass = aClass;
+        }
+
+        void forget() {
+            fields = null;
+            methods = null;
+            nodes = null;
+        }
+
+        void readMembers() {
+            fields = new HashMap<>();
+            methods = new HashMap<>();
+            MemberList memberList = aClass.getMemberList();
+            for (int i = 0; i < memberList.getSize(); i++) {
+                ASTNode member = memberList.get(i);
+                if (member instanceof Field) {
+                    fields.putIfAbsent(((Field) member).getName(), (Field) member);
+                } else if (member instanceof Method) {
+                    methods.putIfAbsent(((Method) member).getName(), (Method) member);
+                }
+            }
+        }
+
+        Field getField(String name) {
+            if (fields == null) {
+                readMembers();
+            }
+            return fields.get(name);
+        }
+
+        Method getMethod(String name) {
+            if (methods == null) {
+                readMembers();
+            }
+            return methods.get(name);
+        }
+
+        List<ASTNode> getNodes(int kind) {
+            if (nodes == null) {
+                List<List<ASTNode>> lists = emptyLists();
+                new TreeTraversal() {
+                    protected boolean enter(ASTNode node) {
+                        int kind = node.getKind();
+                        if (lists.get(kind) == null) {
+                            lists.set(kind, new ArrayList<>());
+                        }
+                        lists.get(kind).add(node);
+                        return true;
+                    }
+                }.traverse(aClass);
+                nodes = lists;
+            }
+            List<ASTNode> list = nodes.get(kind);
+            return list == null ? Collections.emptyList() : list;
+        }
+    }
+
+    /**
+     * the classes in the order they were added
+     */
+    private final List<ClassEntry> classes = new ArrayList<>();
+    private final HashMap<String, ClassEntry> byName = new HashMap<>();
+    private final IdentityHashMap<Class_, ClassEntry> byNode = new IdentityHashMap<>();
+    /**
+     * the nodes of each kind in all the classes, or null until asked for or
+     * after a class changes
+     */
+    private List<List<ASTNode>> allNodes;
+
+    /**
+     * Creates an index without classes
+     */
+    public KindIndex() {
+    }
+
+    /**
+     * Creates an index of the classes of a program
+     *
+     * @param program the program
+     */
+    public KindIndex(Program program) {
+        ClassList classList = program.getClassList();
+        for (int i = 0; i < classList.getSize(); i++) {
+            addClass((Class_) classList.get(i));
+        }
+    }
+
+    /**
+     * Adds a class after the ones already in the index
+     *
+     * @param aClass the class
+     */
+    public void addClass(Class_ aClass) {
+        ClassEntry entry = new ClassEntry(aClass);
+        classes.add(entry);
+        byName.putIfAbsent(aClass.getName(), entry);
+        byNode.put(aClass, entry);
+        allNodes = null;
+    }
+
+    /**
+     * Puts a class in the place of one in the index
+     *
+     * @param old         the class in the index
+     * @param replacement the class taking its place
+     * @throws IllegalArgumentException if old is not in the index
+     */
+    public void replaceClass(Class_ old, Class_ replacement) {
+        ClassEntry entry = byNode.remove(old);
+        if (entry == null) {
+            throw new IllegalArgumentException("The class is not in the index");
+        }
+        ClassEntry newEntry = new ClassEntry(replacement);
+        classes.set(classes.indexOf(entry), newEntry);
+        byNode.put(replacement, newEntry);
+        allNodes = null;
+        // the first class with each name may have changed
+        byName.clear();
+        for (ClassEntry each : classes) {
+            byName.putIfAbsent(each.aClass.getName(), each);
+        }
+    }
+
+    /**
+     * Forgets the members and nodes found in a class in the index, after some
+     * of its members were replaced
+     *
+     * @param aClass the class
+     * @throws IllegalArgumentException if the class is not in the index
+     */
+    public void classChanged(Class_ aClass) {
+        ClassEntry entry = byNode.get(aClass);
+        if (entry == null) {
+            throw new IllegalArgumentException("The class is not in the index");
+        }
+        entry.forget();
+        allNodes = null;
+    }
+
+    /**
+     * Finds a class by name
+     *
+     * @param className the name of the class
+     * @return the first class with that name, or null if there is none
+     */
+    public Class_ findClass(String className) {
+        ClassEntry entry = byName.get(className);
+        return entry == null ? null : entry.aClass;
+    }
+
+    /**
+     * Finds a method declared in a class
+     *
+     * @param className  the name of the class
+     * @param methodName the name of the method
+     * @return the first method with that name in the first class with that
+     * name, or null if there is none. Methods inherited by the class are not
+     * found.
+     */
+    public Method findMethod(String className, String methodName) {
+        ClassEntry entry = byName.get(className);
+        return entry == null ? null : entry.getMethod(methodName);
+    }
+
+    /**
+     * Finds a field declared in a class
+     *
+     * @param className the name of the class
+     * @param fieldName the name of the field
+     * @return the first field with that name in the first class with that
+     * name, or null if there is none. Fields inherited by the class are not
+     * found.
+     */
+    public Field findField(String className, String fieldName) {
+        ClassEntry entry = byName.get(className);
+        return entry == null ? null : entry.getField(fieldName);
+    }
+
+    /**
+     * Gets the nodes of a kind in a class
+     *
+     * @param kind      one of the NodeKind constants
+     * @param className the name of the class
+     * @return the nodes of that kind from the first class with that name down,
+     * in the order they appear in the source; empty if there is no such class
+     */
+    public List<ASTNode> getNodes(int kind, String className) {
+        ClassEntry entry = byName.get(className);
+        return entry == null ? Collections.emptyList()
+                : Collections.unmodifiableList(entry.getNodes(kind));
+    }
+
+    /**
+     * Gets the nodes of a kind in all the classes
+     *
+     * @param kind one of the NodeKind constants
+     * @return the nodes of that kind from the Class_ nodes down, in the order
+     * they appear in the source
+     */
+    public List<ASTNode> getNodes(int kind) {
+        if (allNodes == null) {
+            allNodes = emptyLists();
+        }
+        if (allNodes.get(kind) == null) {
+            List<ASTNode> result = new ArrayList<>();
+            for (ClassEntry entry : classes) {
+                result.addAll(entry.getNodes(kind));
+            }
+            allNodes.set(kind, Collections.unmodifiableList(result));
+        }
+        return allNodes.get(kind);
+    }
+
+    /**
+     * @return the classes in the index, in the order they appear in the source
+     */
+    public List<Class_> getClasses() {
+        List<Class_> result = new ArrayList<>(classes.size());
+        for (ClassEntry entry : classes) {
+            result.add(entry.aClass);
+        }
+        return result;
+    }
+
+    // a list with a null in place of the list of nodes of each kind
+    private static List<List<ASTNode>> emptyLists() {
+        return new ArrayList<>(Collections.nCopies(NodeKind.COUNT, null));
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * File: LineIndex.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The offsets where the lines of one version of a source text start. Lines and
+ * columns are numbered from 1, as in Token.position and Error.getLineNum, and
+ * the line breaks are the ones the scanner counts: a CR, an LF, or a CR LF pair
+ * counting once. A line break belongs to the line it ends.
+ * <p>
+ * Finding the start of a line takes constant time and finding the line of an
+ * offset takes a binary search, so no text needs to be scanned again to turn
+ * a line into an offset or an offset into a line and column. A LineIndex never
+ * changes; an edited text needs a new one.
+ */
+public final class LineIndex {
+    private static final char CR = '\r';
+    private static final char LF = '\n';
+
+    /**
+     * lineStarts[i] is the offset of the first character of line i + 1
+     */
+    private final int[] lineStarts;
+    private final int lineCount;
+    /**
+     * bit i is set when line i + 1 ends with a CR LF pair rather than one character
+     */
+    private final BitSet crLfBreaks;
+    /**
+     * the number of characters in the text
+     */
+    private final int length;
+
+    private LineIndex(int[] lineStarts, int lineCount, BitSet crLfBreaks, int length) {
+        this.lineStarts = lineStarts;
+        this.lineCount = lineCount;
+        this.crLfBreaks = crLfBreaks;
+        this.length = length;
+    }
+
+    /**
+     * Builds the index of a text held in a buffer
+     *
+     * @param text   the buffer holding the text
+     * @param length the number of characters of the text in the buffer
+     * @return the new index
+     */
+    public static LineIndex of(char[] text, int length) {
+        int[] starts = new int[Math.max(16, length / 32)];
+        BitSet crLfBreaks = new BitSet();
+        int count = 1;
+        for (int i = 0; i < length; i++) {
+            char c = text[i];
+            if (c > CR) {
+                continue;
+            }
+            if (c == CR || (c == LF && (i == 0 || text[i - 1] != CR))) {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                }
+                // the line after a CR LF pair starts after the LF
+                if (c == CR && i + 1 < length && text[i + 1] == LF) {
+                    crLfBreaks.set(count - 1);
+                    starts[count++] = i + 2;
+                } else {
+                    starts[count++] = i + 1;
+                }
+            }
+        }
+        return new LineIndex(starts, count, crLfBreaks, length);
+    }
+
+    /**
+     * Builds the index of a text
+     *
+     * @param text the text
+     * @return the new index
+     */
+    public static LineIndex of(CharSequence text) {
+        char[] chars = text.toString().toCharArray();
+        return of(chars, chars.length);
+    }
+
+    /**
+     * Creates an index from line starts that are already known
+     *
+     * @param lineStarts the offset of the first character of each line, in
+     *                   increasing order, the first one being 0. It is copied.
+     *                   A line after a CR LF pair may be given as starting at
+     *                   the LF or after it.
+     * @param lineCount  the number of lines
+     * @param text       the buffer holding the text
+     * @param length     the number of characters of the text in the buffer
+     * @return the new index
+     */
+    public static LineIndex fromLineStarts(int[] lineStarts, int lineCount,
+                                           char[] text, int length) {
+        if (lineCount < 1 || lineStarts[0] != 0) {
+            throw new IllegalArgumentException("The first line must start at 0");
+        }
+        int[] starts = Arrays.copyOf(lineStarts, lineCount);
+        BitSet crLfBreaks = new BitSet();
+        for (int i = 1; i < lineCount; i++) {
+            int start = starts[i];
+            if (text[start - 1] == CR && start < length && text[start] == LF) {
+                // a line counted from the CR of a CR LF pair starts after the LF
+                starts[i] = start + 1;
+                crLfBreaks.set(i - 1);
+            } else if (start >= 2 && text[start - 1] == LF && text[start - 2] == CR) {
+                crLfBreaks.set(i - 1);
+            }
+        }
+        return new LineIndex(starts, lineCount, crLfBreaks, length);
+    }
+
+    /**
+     * @return the number of lines. A text ending with a line break has an empty
+     * last line after it.
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * @return the number of characters in the text
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @param line a line number, starting at 1
+     * @return the offset of the first character of the line
+     */
+    public int getLineStart(int line) {
+        return lineStarts[checkLine(line) - 1];
+    }
+
+    /**
+     * @param line a line number, starting at 1
+     * @return the offset of the line break ending the line, or the length of
+     * the text for the last line
+     */
+    public int getLineEnd(int line) {
+        if (checkLine(line) == lineCount) {
+            return length;
+        }
+        return lineStarts[line] - (crLfBreaks.get(line - 1) ? 2 : 1);
+    }
+
+    /**
+     * Finds the line holding the character at an offset
+     *
+     * @param offset an offset from 0 to the length of the text. The length
+     *               itself is on the last line.
+     * @return the line number, starting at 1
+     */
+    public int getLine(int offset) {
+        if (offset < 0 || offset > length) {
+            throw new IndexOutOfBoundsException("Offset " + offset + " is outside "
+                    + "a text of length " + length);
+        }
+        int index = Arrays.binarySearch(lineStarts, 0, lineCount, offset);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * @param offset an offset from 0 to the length of the text
+     * @return the column of the character at the offset, starting at 1
+     */
+    public int getColumn(int offset) {
+        return offset - lineStarts[getLine(offset) - 1] + 1;
+    }
+
+    /**
+     * @param line   a line number, starting at 1
+     * @param column a column number, starting at 1
+     * @return the offset of the character at the line and column
+     */
+    public int getOffset(int line, int column) {
+        return getLineStart(line) + column - 1;
+    }
+
+    /**
+     * @return information about this index
+     */
+    public String toString() {
+        return "LineIndex: lines=" + lineCount + ", length=" + length;
+    }
+
+    private int checkLine(int line) {
+        if (line < 1 || line > lineCount) {
+            throw new IndexOutOfBoundsException("Line " + line + " is not between 1 "
+                    + "and " + lineCount);
+        }
+        return line;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * File: NamePool.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.util;
+
+import java.util.Arrays;
+
+/**
+ * A pool of the identifier names seen during one compilation. Every distinct
+ * spelling is stored once and given a small integer id, so later phases can
+ * compare names by id or by reference instead of with String.equals.
+ */
+public class NamePool {
+    /**
+     * the canonical String of each name, indexed by id
+     */
+    private String[] names = new String[256];
+    /**
+     * the hash code of each name, indexed by id
+     */
+    private int[] hashes = new int[256];
+    /**
+     * open-addressed hash table holding id + 1 of each name, or 0 if empty
+     */
+    private int[] table = new int[512];
+    /**
+     * the number of names in the pool
+     */
+    private int size = 0;
+
+    /**
+     * Finds the id of the name spelled by the given characters, adding the name to
+     * the pool if it is not already there. No String is created for a name that is
+     * already in the pool.
+     *
+     * @param chars  the buffer holding the name
+     * @param start  the index of the first character of the name
+     * @param length the number of characters in the name
+     * @return the id of the name
+     */
+    public int intern(char[] chars, int start, int length) {
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+
+        int mask = table.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return add(new String(chars, start, length), hash, slot);
+            }
+            int id = entry - 1;
+            if (hashes[id] == hash && matches(names[id], chars, start, length)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Finds the id of the given name, adding the name to the pool if it is not
+     * already there.
+     *
+     * @param name the name
+     * @return the id of the name
+     */
+    public int intern(String name) {
+        int hash = name.hashCode();
+        int mask = table.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return add(name, hash, slot);
+            }
+            int id = entry - 1;
+            if (hashes[id] == hash && names[id].equals(name)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Get the canonical String for a name
+     *
+     * @param id the id of the name
+     * @return the single String instance this pool uses for that name
+     */
+    public String getName(int id) {
+        return names[id];
+    }
+
+    /**
+     * Get the canonical String for a name, adding the name if needed
+     *
+     * @param name the name
+     * @return the single String instance this pool uses for that name
+     */
+    public String canonical(String name) {
+        // intern may grow the array, so it is looked up afterwards
+        int id = intern(name);
+        return names[id];
+    }
+
+    /**
+     * @return the number of distinct names in the pool
+     */
+    public int size() {
+        return size;
+    }
+
+    private int add(String name, int hash, int slot) {
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        int id = size++;
+        names[id] = name;
+        hashes[id] = hash;
+        table[slot] = id + 1;
+        if (size * 2 > table.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    /**
+     * Doubles the hash table, keeping it at most half full
+     */
+    private void rehash() {
+        int[] newTable = new int[table.length * 2];
+        int mask = newTable.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = mix(hashes[id]) & mask;
+            while (newTable[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            newTable[slot] = id + 1;
+        }
+        table = newTable;
+    }
+
+    /**
+     * Spreads the bits of a String hash code so that similar names do not
+     * cluster in the table
+     */
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String name, char[] chars, int start, int length) {
+        if (name.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (name.charAt(i) != chars[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * File: NodeIndex.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.util;
+
+import proj10BittingCerratoCohenEllmer.bantam.ast.ASTNode;
+import proj10BittingCerratoCohenEllmer.bantam.visitor.TreeTraversal;
+
+import java.util.Arrays;
+
+/**
+ * The source ranges of the nodes of one AST, for finding the node at an offset
+ * of the source, such as the one under the caret.
+ * <p>
+ * The ranges of an AST nest: a node's range holds the ranges of the nodes below
+ * it, and the ranges of the nodes below one node follow each other without
+ * overlapping. The index lists the nodes in the order they appear in the
+ * source, parents before their children, so their start offsets never go down,
+ * along with the position of each node's parent in the list. The last node
+ * starting at or before an offset is found by a binary search, and the node at
+ * the offset is the innermost one from there up through the parents whose range
+ * holds it.
+ * <p>
+ * Nodes without a range are left out. An index does not follow later changes
+ * to the AST; a changed AST needs a new index.
+ */
+public final class NodeIndex {
+    private ASTNode[] nodes = new ASTNode[64];
+    private int[] starts = new int[64];
+    private int[] ends = new int[64];
+    /**
+     * the position in the list of the parent of each node, or -1 for the root
+     */
+    private int[] parents = new int[64];
+    private int size;
+
+    /**
+     * Indexes the nodes of the AST below the given node. Method bodies that were
+     * not parsed yet are parsed.
+     *
+     * @param root the node at the top of the AST, usually a Program
+     */
+    public NodeIndex(ASTNode root) {
+        new TreeTraversal() {
+            // the position in the list of the innermost node entered with a range
+            private int[] path = new int[64];
+            private int depth = 0;
+            private int parent = -1;
+
+            protected boolean enter(ASTNode node) {
+                if (depth == path.length) {
+                    path = Arrays.copyOf(path, depth * 2);
+                }
+                path[depth++] = parent;
+                if (node.getStartOffset() >= 0) {
+                    parent = add(node, parent);
+                }
+                return true;
+            }
+
+            protected void leave(ASTNode node) {
+                parent = path[--depth];
+            }
+        }.traverse(root);
+    }
+
+    // add a node to the list and return its position
+    private int add(ASTNode node, int parent) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+            parents = Arrays.copyOf(parents, size * 2);
+        }
+        nodes[size] = node;
+        starts[size] = node.getStartOffset();
+        ends[size] = node.getEndOffset();
+        parents[size] = parent;
+        return size++;
+    }
+
+    /**
+     * Finds the innermost node whose range holds the character at an offset
+     *
+     * @param offset an offset in the source
+     * @return the innermost node holding the character at offset, or null if no
+     * node does
+     */
+    public ASTNode nodeAt(int offset) {
+        // the number of nodes starting at or before offset
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] <= offset) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int index = low - 1;
+        while (index >= 0 && ends[index] <= offset) {
+            index = parents[index];
+        }
+        return index < 0 ? null : nodes[index];
+    }
+
+    /**
+     * @return the number of nodes in the index
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,366 @@
+/*
+ * File: NodeWalker.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.visitor;
+
+import proj10BittingCerratoCohenEllmer.bantam.ast.*;
+
+/**
+ * A Visitor for passes that treat every kind of node alike. It goes through
+ * the whole tree as Visitor does, calling enter on each node before its
+ * subtree and leave after it, so the nodes are entered in the order they
+ * appear in the source.
+ */
+public abstract class NodeWalker extends Visitor {
+    /**
+     * Called on a node before the nodes below it
+     *
+     * @param node the node
+     */
+    protected abstract void enter(ASTNode node);
+
+    /**
+     * Called on a node after the nodes below it
+     *
+     * @param node the node
+     */
+    protected void leave(ASTNode node) {
+    }
+
+    public Object visit(Program node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(ClassList node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(Class_ node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(MemberList node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(ErrorMember node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(Field node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(Method node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(FormalList node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(Formal node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(StmtList node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(DeclStmt node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(ExprStmt node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(IfStmt node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(WhileStmt node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(ForStmt node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(BreakStmt node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(ErrorStmt node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(BlockStmt node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(ReturnStmt node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(ExprList node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(DispatchExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(NewExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(InstanceofExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(CastExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(AssignExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(BinaryCompEqExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(BinaryCompNeExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(BinaryCompLtExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(BinaryCompLeqExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(BinaryCompGtExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(BinaryCompGeqExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(BinaryArithPlusExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(BinaryArithMinusExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(BinaryArithTimesExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(BinaryArithDivideExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(BinaryArithModulusExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(BinaryLogicAndExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(BinaryLogicOrExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(UnaryNegExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(UnaryNotExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(UnaryIncrExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(UnaryDecrExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(VarExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(ConstIntExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(ConstBooleanExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(ConstDblExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(ConstChrExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+
+    public Object visit(ConstStringExpr node) {
+        enter(node);
+        super.visit(node);
+        leave(node);
+        return null;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * File: TreeTraversal.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.visitor;
+
+import proj10BittingCerratoCohenEllmer.bantam.ast.ASTNode;
+
+import java.util.Arrays;
+
+/**
+ * Goes through an AST without recursion, keeping the path from the root to the
+ * current node on a stack of its own, for passes that switch on the kinds of
+ * the nodes rather than having a method for each class of node.
+ * <p>
+ * The nodes are entered in the order they appear in the source, parents before
+ * their children. enter decides whether the nodes below a node are gone
+ * through at all, so a pass that only looks at classes and members never
+ * touches the statements in method bodies, and never parses the bodies that
+ * were left unparsed. leave is called on every node that was entered, after
+ * the nodes below it. Missing optional children are skipped.
+ */
+public abstract class TreeTraversal {
+    // the path from the root to the current node, and for each node on it the
+    // position of the next child to go to and the number of children
+    private ASTNode[] path = new ASTNode[32];
+    private int[] nextChild = new int[32];
+    private int[] childCounts = new int[32];
+    private int depth;
+    private boolean stopped;
+
+    /**
+     * Called on a node before the nodes below it
+     *
+     * @param node the node
+     * @return true to go through the nodes below it, false to skip them
+     */
+    protected abstract boolean enter(ASTNode node);
+
+    /**
+     * Called on a node after the nodes below it, or right after enter if they
+     * were skipped
+     *
+     * @param node the node
+     */
+    protected void leave(ASTNode node) {
+    }
+
+    /**
+     * Ends the traversal; no more nodes are entered or left
+     */
+    protected void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Get the number of nodes above the current node
+     *
+     * @return 0 while at the root
+     */
+    protected int getDepth() {
+        return depth - 1;
+    }
+
+    /**
+     * Goes through the nodes below a node, and the node itself
+     *
+     * @param root the node at the top
+     */
+    public void traverse(ASTNode root) {
+        // the path is kept in local variables while going through the tree,
+        // with depth updated before each call for getDepth
+        ASTNode[] path = this.path;
+        int[] nextChild = this.nextChild;
+        int[] childCounts = this.childCounts;
+        int top = 0;
+        stopped = false;
+        path[0] = root;
+        nextChild[0] = 0;
+        depth = 1;
+        if (!enter(root)) {
+            if (!stopped) {
+                leave(root);
+            }
+            path[0] = null;
+            depth = 0;
+            return;
+        }
+        childCounts[0] = root.getChildCount();
+        while (!stopped) {
+            int index = nextChild[top];
+            if (index < childCounts[top]) {
+                nextChild[top] = index + 1;
+                ASTNode child = path[top].getChild(index);
+                if (child == null) {
+                    continue;
+                }
+                if (++top == path.length) {
+                    this.path = path = Arrays.copyOf(path, top * 2);
+                    this.nextChild = nextChild = Arrays.copyOf(nextChild, top * 2);
+                    this.childCounts = childCounts = Arrays.copyOf(childCounts, top * 2);
+                }
+                path[top] = child;
+                nextChild[top] = 0;
+                depth = top + 1;
+                if (enter(child)) {
+                    childCounts[top] = child.getChildCount();
+                    continue;
+                }
+                if (stopped) {
+                    break;
+                }
+                leave(child);
+            } else {
+                leave(path[top]);
+                if (top == 0) {
+                    break;
+                }
+            }
+            path[top--] = null;
+            depth = top + 1;
+        }
+        Arrays.fill(path, 0, top + 1, null);
+        depth = 0;
+    }
+}
@@ -14,6 +14,7 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import org.fxmisc.flowless.VirtualizedScrollPane;
 import org.fxmisc.richtext.CodeArea;
+import proj10BittingCerratoCohenEllmer.bantam.util.LineIndex;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -32,6 +33,8 @@ public class VimTab extends Tab {
     //used for keeping track of caret position when traversing text area rows
     private int currentColumn = 0;
     private final CodeArea codeArea;
+    // the lines of the current text, rebuilt the first time they are needed after an edit
+    private LineIndex lineIndex;
 
     /**
      * Constructs a new VimTab with a HighlightedCodeAreaWhichDoesNotExtendCodeArea.
@@ -88,6 +91,8 @@ public class VimTab extends Tab {
                 new HighlightedCodeAreaWhichDoesNotExtendCodeArea();
         codeArea = hcawdneca.getCodeArea();
         codeArea.addEventFilter(KeyEvent.ANY, vimHandler);
+        // listens to the edits rather than to textProperty, which builds the whole text for each one
+        codeArea.plainTextChanges().subscribe(change -> lineIndex = null);
         setContent(new VirtualizedScrollPane<>(codeArea));
     }
 
@@ -500,9 +505,9 @@ public class VimTab extends Tab {
      * @return whether the following character exists and is not \n
      */
     private boolean nextCharNotNewline(int caretPos) {
-        String content = codeArea.getContent().getText();
-        return caretPos < content.length()
-                && !"\n".equals(content.substring(caretPos, caretPos + 1));
+        LineIndex lines = getLineIndex();
+        return caretPos < lines.getLength()
+                && caretPos != lines.getLineEnd(lines.getLine(caretPos));
     }
 
     /**
@@ -514,8 +519,8 @@ public class VimTab extends Tab {
      * @return whether the previous character exists and is not \n
      */
     private boolean prevCharNotNewline(int caretPos) {
-        String content = codeArea.getContent().getText();
-        return caretPos > 0 && !"\n".equals(content.substring(caretPos - 1, caretPos));
+        LineIndex lines = getLineIndex();
+        return caretPos > 0 && caretPos != lines.getLineStart(lines.getLine(caretPos));
     }
 
     /**
@@ -524,13 +529,8 @@ public class VimTab extends Tab {
      * @return int representing the end of the current line
      */
     private int getEndOfLine() {
-        int caretPos = codeArea.getCaretPosition();
-        String content = codeArea.getContent().getText();
-        while (caretPos < content.length()
-                && !"\n".equals(content.substring(caretPos, caretPos + 1))) {
-            caretPos++;
-        }
-        return caretPos;
+        LineIndex lines = getLineIndex();
+        return lines.getLineEnd(lines.getLine(codeArea.getCaretPosition()));
     }
 
     /**
@@ -539,12 +539,21 @@ public class VimTab extends Tab {
      * @return int representing the start of the current line
      */
     private int getStartOfLine() {
-        int caretPos = codeArea.getCaretPosition();
-        String content = codeArea.getContent().getText();
-        while (caretPos > 0 && !"\n".equals(content.substring(caretPos - 1, caretPos))) {
-            caretPos--;
+        LineIndex lines = getLineIndex();
+        return lines.getLineStart(lines.getLine(codeArea.getCaretPosition()));
+    }
+
+    /**
+     * Finds the lines of the text, indexing them again only if the text changed
+     * since the last time
+     *
+     * @return the index of the lines of the current text
+     */
+    private LineIndex getLineIndex() {
+        if (lineIndex == null) {
+            lineIndex = LineIndex.of(codeArea.getText());
         }
-        return caretPos;
+        return lineIndex;
     }
 
     /**
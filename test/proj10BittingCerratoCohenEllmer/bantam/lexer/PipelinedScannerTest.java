@@ -0,0 +1,128 @@
+/*
+ * File: PipelinedScannerTest.java
+ * Date: 10/17/2026
+ */
+package proj10BittingCerratoCohenEllmer.bantam.lexer;
+
+import proj10BittingCerratoCohenEllmer.bantam.util.ErrorHandler;
+
+import java.io.StringReader;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Checks that a failure on the scanner thread of a PipelinedScanner reaches
+ * the thread reading the tokens, after every token scanned before it, whether
+ * the failure is a RuntimeException or an Error.
+ * <p>
+ * Prints "ok" or throws the first failed check. From the root of the project:
+ * <pre>
+ * javac -encoding UTF-8 -d out -sourcepath src \
+ *     test/proj10BittingCerratoCohenEllmer/bantam/lexer/PipelinedScannerTest.java
+ * java -cp out proj10BittingCerratoCohenEllmer.bantam.lexer.PipelinedScannerTest
+ * </pre>
+ */
+public class PipelinedScannerTest {
+    private static final long TIMEOUT_SECONDS = 10;
+
+    /**
+     * A Scanner that throws what it is given once it has scanned a number
+     * of tokens
+     */
+    private static class FailingScanner extends Scanner {
+        private final int failAfter;
+        private final Supplier<Throwable> failure;
+        private int scanned;
+
+        FailingScanner(String source, ErrorHandler handler, int failAfter,
+                       Supplier<Throwable> failure) {
+            super(new StringReader(source), handler);
+            this.failAfter = failAfter;
+            this.failure = failure;
+        }
+
+        @Override
+        public Token scan() {
+            if (scanned++ == failAfter) {
+                Throwable t = failure.get();
+                if (t instanceof RuntimeException) {
+                    throw (RuntimeException) t;
+                }
+                throw (Error) t;
+            }
+            return super.scan();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        // more tokens than fit in a batch, so the failure comes after some
+        // full batches and in the middle of a partial one
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            source.append("x").append(i).append(' ');
+        }
+        String text = source.toString();
+
+        for (int failAfter : new int[]{0, 1, 511, 512, 513, 1300}) {
+            check(text, failAfter, () -> new IllegalStateException("scanner failed"));
+            check(text, failAfter, () -> new OutOfMemoryError("scanner failed"));
+            check(text, failAfter, () -> new StackOverflowError());
+        }
+        System.out.println("ok");
+    }
+
+    /**
+     * Reads the tokens of the source through a PipelinedScanner whose Scanner
+     * throws after failAfter tokens, and checks that exactly those tokens are
+     * returned before the same Throwable is rethrown
+     */
+    private static void check(String source, int failAfter,
+                              Supplier<Throwable> failure) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bantam-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Throwable[] thrown = new Throwable[1];
+        PipelinedScanner scanner = new PipelinedScanner(null, new ErrorHandler(),
+                handler -> new FailingScanner(source, handler, failAfter, () -> {
+                    thrown[0] = failure.get();
+                    return thrown[0];
+                }));
+        Future<Integer> tokensRead = executor.submit(() -> {
+            int count = 0;
+            try {
+                while (scanner.scan().kind != Token.Kind.EOF) {
+                    count++;
+                }
+            } catch (Throwable e) {
+                if (e != thrown[0]) {
+                    throw new AssertionError("rethrew " + e + " instead of "
+                            + thrown[0], e);
+                }
+                return count;
+            }
+            throw new AssertionError("reached EOF without the failure");
+        });
+        try {
+            int count = tokensRead.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (count != failAfter) {
+                throw new AssertionError("read " + count + " tokens before "
+                        + thrown[0] + " instead of " + failAfter);
+            }
+        } catch (TimeoutException e) {
+            throw new AssertionError("hung after the scanner thread threw "
+                    + thrown[0] + " after " + failAfter + " tokens");
+        } catch (ExecutionException e) {
+            throw new AssertionError(e.getCause());
+        } finally {
+            scanner.close();
+            executor.shutdownNow();
+        }
+    }
+}